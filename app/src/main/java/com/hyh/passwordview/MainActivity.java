@@ -1,14 +1,45 @@
 package com.hyh.passwordview;
 
 import android.os.Bundle;
+import android.widget.TextView;
 
 import androidx.appcompat.app.AppCompatActivity;
 
+import com.hyh.widget.LatencyHistogram;
+import com.hyh.widget.PasswordView;
+
 public class MainActivity extends AppCompatActivity {
 
+    private final LatencyHistogram mLatencyHistogram = new LatencyHistogram();
+    private TextView mLatencyText;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
+        mLatencyText = findViewById(R.id.input_latency);
+
+        PasswordView passwordView = findViewById(R.id.password_view);
+        passwordView.setInputLatencySink(new PasswordView.InputLatencySink() {
+            @Override
+            public void onInputLatency(long latencyNanos) {
+                mLatencyHistogram.onInputLatency(latencyNanos);
+                updateLatencyText();
+            }
+        });
+    }
+
+    //样本在主线程回调，直接刷新p50/p95/p99
+    private void updateLatencyText() {
+        LatencyHistogram histogram = mLatencyHistogram;
+        mLatencyText.setText(getString(R.string.input_latency_percentiles,
+                histogram.getSampleCount(),
+                toMillis(histogram.getPercentile(50)),
+                toMillis(histogram.getPercentile(95)),
+                toMillis(histogram.getPercentile(99))));
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1000000.0;
     }
 }
@@ -0,0 +1,47 @@
+package com.hyh.widget.benchmark;
+
+import com.hyh.widget.measure.ChainHelper;
+import com.hyh.widget.measure.MeasureResult;
+import com.hyh.widget.measure.MeasureSpecs;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 链宽度计算的吞吐量，测量规格模式只影响measureBoxChainExactly使用的宽度
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChainHelperBenchmark {
+
+    @Benchmark
+    public float computeChainWidth(MeasureState state) {
+        return ChainHelper.computeChainWidth(state.info, state.params.getHorizontalPadding());
+    }
+
+    @Benchmark
+    public float computeFreeChainWidth(MeasureState state) {
+        return ChainHelper.computeFreeChainWidth(state.info, state.params.getHorizontalPadding());
+    }
+
+    @Benchmark
+    public MeasureResult measureBoxChainExactly(MeasureState state) {
+        int horizontalPadding = state.params.getHorizontalPadding();
+        float width = MeasureSpecs.getMode(state.widthMeasureSpec) == MeasureSpecs.UNSPECIFIED
+                ? ChainHelper.computeChainWidth(state.info, horizontalPadding)
+                : MeasureSpecs.getSize(state.widthMeasureSpec);
+        MeasureResult result = state.result;
+        ChainHelper.measureBoxChainExactly(width, state.info.boxWidth, horizontalPadding, state.info, result);
+        return result;
+    }
+}
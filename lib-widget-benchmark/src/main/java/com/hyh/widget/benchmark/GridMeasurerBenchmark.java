@@ -0,0 +1,83 @@
+package com.hyh.widget.benchmark;
+
+import com.hyh.widget.measure.BoxGeometry;
+import com.hyh.widget.measure.ChainHelper;
+import com.hyh.widget.measure.GridMeasurer;
+import com.hyh.widget.measure.MeasureInfo;
+import com.hyh.widget.measure.MeasureParams;
+import com.hyh.widget.measure.MeasureResult;
+import com.hyh.widget.measure.MeasureSpecs;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多行分组排列的测量与坐标计算，按4个一组自动换行，配合 -prof gc 确认没有按框分配对象
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GridMeasurerBenchmark {
+
+    @Param({"16", "64", "256"})
+    public int passwordLength;
+
+    private final GridMeasurer mMeasurer = new GridMeasurer();
+    private final MeasureInfo mInfo = new MeasureInfo();
+    private final MeasureParams mParams = new MeasureParams();
+    private final MeasureResult mResult = new MeasureResult();
+    private final BoxGeometry mGeometry = new BoxGeometry();
+    private int mWidthMeasureSpec;
+    private int mHeightMeasureSpec;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        float density = MeasureState.DENSITY;
+        mInfo.passwordLength = passwordLength;
+        mInfo.boxType = MeasureInfo.BOX_TYPE_RECT;
+        mInfo.boxChainStyle = MeasureInfo.BOX_CHAIN_STYLE_GRID;
+        mInfo.boxWidth = 32 * density;
+        mInfo.boxHeightRatio = 1.2f;
+        mInfo.boxBorderSize = density;
+        mInfo.boxSpace = 4 * density;
+        mInfo.groupSize = 4;
+        mInfo.groupSpace = 12 * density;
+        mInfo.boxRowSpace = 8 * density;
+        mParams.set(Math.round(16 * density), Math.round(8 * density), Math.round(16 * density), Math.round(8 * density), 0, 0);
+        mWidthMeasureSpec = MeasureSpecs.makeMeasureSpec(1080, MeasureSpecs.AT_MOST);
+        mHeightMeasureSpec = MeasureSpecs.makeMeasureSpec(0, MeasureSpecs.UNSPECIFIED);
+        //数组只在第一次扩容
+        mGeometry.setCount(passwordLength);
+    }
+
+    @Benchmark
+    public MeasureResult measure() {
+        MeasureResult result = mResult;
+        result.clear();
+        mMeasurer.measure(mParams, mWidthMeasureSpec, mHeightMeasureSpec, mInfo, result);
+        return result;
+    }
+
+    @Benchmark
+    public float[] measureAndLayout() {
+        MeasureResult result = measure();
+        BoxGeometry geometry = mGeometry;
+        ChainHelper.layoutGrid(mInfo, result, geometry.boxes, geometry.borders);
+        return geometry.boxes;
+    }
+}
@@ -0,0 +1,71 @@
+package com.hyh.widget.benchmark;
+
+import com.hyh.widget.measure.MeasureInfo;
+import com.hyh.widget.measure.MeasureParams;
+import com.hyh.widget.measure.MeasureResult;
+import com.hyh.widget.measure.MeasureSpecs;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 测量基准共用的参数：密码长度、链式风格、是否合并矩形框以及测量规格模式
+ */
+@State(Scope.Thread)
+public class MeasureState {
+
+    static final float DENSITY = 3.0f;
+
+    @Param({"4", "6", "16", "64", "256"})
+    public int passwordLength;
+
+    @Param({"0", "1", "2", "3"})
+    public int boxChainStyle;
+
+    @Param({"true", "false"})
+    public boolean mergedRectBox;
+
+    @Param({"UNSPECIFIED", "AT_MOST", "EXACTLY"})
+    public String specMode;
+
+    public final MeasureInfo info = new MeasureInfo();
+    public final MeasureParams params = new MeasureParams();
+    public final MeasureResult result = new MeasureResult();
+
+    public int widthMeasureSpec;
+    public int heightMeasureSpec;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        info.passwordLength = passwordLength;
+        info.boxType = MeasureInfo.BOX_TYPE_RECT;
+        info.boxChainStyle = boxChainStyle;
+        info.boxWidth = 40 * DENSITY;
+        info.boxHeightRatio = 1.0f;
+        info.boxBorderSize = DENSITY;
+        info.mergeRectBoxEnabled = mergedRectBox;
+        info.mergedRectBoxDividerWidth = DENSITY;
+        //只有框间距为0时矩形框才会合并
+        info.boxSpace = mergedRectBox ? 0 : 8 * DENSITY;
+
+        params.set(Math.round(16 * DENSITY), Math.round(8 * DENSITY), Math.round(16 * DENSITY), Math.round(8 * DENSITY), 0, 0);
+
+        int mode = toMode(specMode);
+        widthMeasureSpec = MeasureSpecs.makeMeasureSpec(mode == MeasureSpecs.UNSPECIFIED ? 0 : 1080, mode);
+        heightMeasureSpec = MeasureSpecs.makeMeasureSpec(mode == MeasureSpecs.UNSPECIFIED ? 0 : 1920, mode);
+    }
+
+    private static int toMode(String specMode) {
+        switch (specMode) {
+            case "AT_MOST":
+                return MeasureSpecs.AT_MOST;
+            case "EXACTLY":
+                return MeasureSpecs.EXACTLY;
+            default:
+                return MeasureSpecs.UNSPECIFIED;
+        }
+    }
+}
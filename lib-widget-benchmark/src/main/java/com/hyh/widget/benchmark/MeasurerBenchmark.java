@@ -0,0 +1,65 @@
+package com.hyh.widget.benchmark;
+
+import com.hyh.widget.measure.BoundMeasurer;
+import com.hyh.widget.measure.FillMeasurer;
+import com.hyh.widget.measure.FreeMeasurer;
+import com.hyh.widget.measure.IMeasurer;
+import com.hyh.widget.measure.MeasureResult;
+import com.hyh.widget.measure.MemoizingMeasurer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * IMeasurer.measure的吞吐量，配合 -prof gc 观察分配速率
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MeasurerBenchmark {
+
+    private final IMeasurer mBoundMeasurer = new BoundMeasurer();
+    private final IMeasurer mFillMeasurer = new FillMeasurer();
+    private final IMeasurer mFreeMeasurer = new FreeMeasurer();
+    private final IMeasurer mMemoizingMeasurer = new MemoizingMeasurer(new BoundMeasurer());
+
+    @Benchmark
+    public MeasureResult boundMeasurer(MeasureState state) {
+        return measure(mBoundMeasurer, state);
+    }
+
+    @Benchmark
+    public MeasureResult fillMeasurer(MeasureState state) {
+        return measure(mFillMeasurer, state);
+    }
+
+    @Benchmark
+    public MeasureResult freeMeasurer(MeasureState state) {
+        return measure(mFreeMeasurer, state);
+    }
+
+    //父布局以相同的规格重复测量时的开销
+    @Benchmark
+    public MeasureResult memoizingMeasurer(MeasureState state) {
+        return measure(mMemoizingMeasurer, state);
+    }
+
+    private static MeasureResult measure(IMeasurer measurer, MeasureState state) {
+        MeasureResult result = state.result;
+        result.clear();
+        measurer.measure(state.params, state.widthMeasureSpec, state.heightMeasureSpec, state.info, result);
+        return result;
+    }
+}
@@ -0,0 +1,72 @@
+package com.hyh.widget.benchmark;
+
+import com.hyh.widget.measure.BoundMeasurer;
+import com.hyh.widget.measure.BoxGeometry;
+import com.hyh.widget.measure.MeasureInfo;
+import com.hyh.widget.measure.MeasureParams;
+import com.hyh.widget.measure.MeasureResult;
+import com.hyh.widget.measure.MeasureSpecs;
+import com.hyh.widget.measure.MemoizingMeasurer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 同一个View在4位、6位、8位之间来回切换时的一次测量与坐标计算，配合 -prof gc 确认预热后不再分配
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PasswordLengthSwitchBenchmark {
+
+    private static final int[] PASSWORD_LENGTHS = {4, 6, 8};
+
+    private final MemoizingMeasurer mMeasurer = new MemoizingMeasurer(new BoundMeasurer());
+    private final MeasureInfo mInfo = new MeasureInfo();
+    private final MeasureParams mParams = new MeasureParams();
+    private final MeasureResult mResult = new MeasureResult();
+    private final BoxGeometry mGeometry = new BoxGeometry();
+    private int mWidthMeasureSpec;
+    private int mHeightMeasureSpec;
+    private int mSwitchCount;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        float density = MeasureState.DENSITY;
+        mInfo.boxType = MeasureInfo.BOX_TYPE_RECT;
+        mInfo.boxChainStyle = MeasureInfo.BOX_CHAIN_STYLE_SPREAD;
+        mInfo.boxWidth = 40 * density;
+        mInfo.boxBorderSize = density;
+        mInfo.boxSpace = 8 * density;
+        mParams.set(Math.round(16 * density), Math.round(8 * density), Math.round(16 * density), Math.round(8 * density), 0, 0);
+        mWidthMeasureSpec = MeasureSpecs.makeMeasureSpec(1080, MeasureSpecs.EXACTLY);
+        mHeightMeasureSpec = MeasureSpecs.makeMeasureSpec(0, MeasureSpecs.UNSPECIFIED);
+    }
+
+    @Benchmark
+    public float[] switchPasswordLength() {
+        MeasureInfo info = mInfo;
+        info.passwordLength = PASSWORD_LENGTHS[mSwitchCount++ % PASSWORD_LENGTHS.length];
+        MeasureResult result = mResult;
+        result.clear();
+        mMeasurer.measure(mParams, mWidthMeasureSpec, mHeightMeasureSpec, info, result);
+        BoxGeometry geometry = mGeometry;
+        geometry.invalidate();
+        geometry.compute(info, result, mParams, 1080, Math.round(result.measureHeight));
+        return geometry.boxes;
+    }
+}
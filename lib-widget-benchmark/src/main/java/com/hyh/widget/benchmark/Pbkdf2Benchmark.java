@@ -0,0 +1,75 @@
+package com.hyh.widget.benchmark;
+
+import com.hyh.widget.kdf.Pbkdf2Kdf;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 不同迭代次数下派生一次的耗时，用于按耗时预算选择迭代次数；
+ * main方法直接打印在本机上满足预算的迭代次数：
+ * java -cp ... com.hyh.widget.benchmark.Pbkdf2Benchmark 100 300
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class Pbkdf2Benchmark {
+
+    private static final int KEY_LENGTH = 256;
+
+    @Param({Pbkdf2Kdf.ALGORITHM_HMAC_SHA1, Pbkdf2Kdf.ALGORITHM_HMAC_SHA256})
+    public String algorithm;
+
+    @Param({"10000", "100000", "310000"})
+    public int iterations;
+
+    private Pbkdf2Kdf mKdf;
+    private final char[] mPassword = {'1', '2', '3', '4', '5', '6'};
+
+    @Setup
+    public void setup() {
+        mKdf = new Pbkdf2Kdf(algorithm, new byte[16], iterations, KEY_LENGTH);
+    }
+
+    @Benchmark
+    public byte[] derive() throws GeneralSecurityException {
+        return mKdf.derive(mPassword, mPassword.length);
+    }
+
+    public static void main(String[] args) throws GeneralSecurityException {
+        long[] budgets = args.length == 0 ? new long[]{100} : new long[args.length];
+        for (int index = 0; index < args.length; index++) {
+            budgets[index] = Long.parseLong(args[index]);
+        }
+        String[] algorithms = {Pbkdf2Kdf.ALGORITHM_HMAC_SHA1, Pbkdf2Kdf.ALGORITHM_HMAC_SHA256};
+        for (String algorithm : algorithms) {
+            for (long budget : budgets) {
+                int iterations = Pbkdf2Kdf.calibrateIterations(algorithm, KEY_LENGTH, budget);
+                //用校准出的次数实际派生一次，确认耗时落在预算附近
+                char[] password = new char[6];
+                Pbkdf2Kdf kdf = new Pbkdf2Kdf(algorithm, new byte[16], iterations, KEY_LENGTH);
+                long start = System.nanoTime();
+                byte[] key = kdf.derive(password, password.length);
+                long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                Arrays.fill(key, (byte) 0);
+                System.out.println(algorithm + " budget " + budget + "ms -> iterations " + iterations + " (measured " + elapsed + "ms)");
+            }
+        }
+    }
+}
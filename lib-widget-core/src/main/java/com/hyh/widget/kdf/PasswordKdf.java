@@ -0,0 +1,17 @@
+package com.hyh.widget.kdf;
+
+import java.security.GeneralSecurityException;
+
+/**
+ * 从密码字符派生密钥，实现中不要创建String，使用过的中间缓冲区都要清零
+ */
+public interface PasswordKdf {
+
+    /**
+     * 在后台线程中调用，password只读取前length个字符，返回后会被调用方清零
+     *
+     * @return 派生出的字节，由调用方负责清零
+     */
+    byte[] derive(char[] password, int length) throws GeneralSecurityException;
+
+}
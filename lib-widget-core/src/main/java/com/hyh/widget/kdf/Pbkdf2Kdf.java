@@ -0,0 +1,112 @@
+package com.hyh.widget.kdf;
+
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+
+import javax.crypto.SecretKey;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import javax.security.auth.DestroyFailedException;
+import javax.security.auth.Destroyable;
+
+/**
+ * 基于javax.crypto的PBKDF2，迭代次数可以用{@link #calibrateIterations(String, int, long)}按耗时预算在设备上校准
+ */
+public class Pbkdf2Kdf implements PasswordKdf {
+
+    public static final String ALGORITHM_HMAC_SHA1 = "PBKDF2WithHmacSHA1";
+    //Android 8.0及以上才支持
+    public static final String ALGORITHM_HMAC_SHA256 = "PBKDF2WithHmacSHA256";
+
+    private static final int CALIBRATE_ITERATIONS = 1000;
+    private static final int CALIBRATE_ROUNDS = 3;
+    private static final long CALIBRATE_WARMUP_MILLIS = 300;
+
+    private final String mAlgorithm;
+    private final byte[] mSalt;
+    private final int mIterations;
+    private final int mKeyLength;
+
+    /**
+     * @param keyLength 派生密钥的长度，单位bit
+     */
+    public Pbkdf2Kdf(String algorithm, byte[] salt, int iterations, int keyLength) {
+        if (salt == null || salt.length == 0) {
+            throw new IllegalArgumentException("salt is empty");
+        }
+        if (iterations <= 0 || keyLength <= 0) {
+            throw new IllegalArgumentException("iterations: " + iterations + ", keyLength: " + keyLength);
+        }
+        mAlgorithm = algorithm;
+        mSalt = salt.clone();
+        mIterations = iterations;
+        mKeyLength = keyLength;
+    }
+
+    public int getIterations() {
+        return mIterations;
+    }
+
+    @Override
+    public byte[] derive(char[] password, int length) throws GeneralSecurityException {
+        return derive(mAlgorithm, password, length, mSalt, mIterations, mKeyLength);
+    }
+
+    private static byte[] derive(String algorithm, char[] password, int length,
+                                 byte[] salt, int iterations, int keyLength) throws GeneralSecurityException {
+        //PBEKeySpec只接受完整的数组，长度不一致时拷贝一份，用完清零
+        char[] input = length == password.length ? password : Arrays.copyOf(password, length);
+        PBEKeySpec spec = new PBEKeySpec(input, salt, iterations, keyLength);
+        SecretKey key = null;
+        try {
+            key = SecretKeyFactory.getInstance(algorithm).generateSecret(spec);
+            return key.getEncoded();
+        } finally {
+            spec.clearPassword();
+            if (input != password) {
+                Arrays.fill(input, '\0');
+            }
+            destroy(key);
+        }
+    }
+
+    private static void destroy(Object key) {
+        if (!(key instanceof Destroyable)) return;
+        try {
+            ((Destroyable) key).destroy();
+        } catch (DestroyFailedException ignored) {
+            //多数Provider的密钥不支持销毁，getEncoded返回的是拷贝，这里只是尽力而为
+        }
+    }
+
+    /**
+     * 在当前设备上估算派生一次耗时约为targetMillis的迭代次数，耗时较长，不要在主线程调用
+     */
+    public static int calibrateIterations(String algorithm, int keyLength, long targetMillis) throws GeneralSecurityException {
+        char[] password = new char[6];
+        byte[] salt = new byte[16];
+        //先预热，让HMAC的实现完成JIT编译，否则估算出的次数偏小
+        long warmupEnd = System.nanoTime() + CALIBRATE_WARMUP_MILLIS * 1000000L;
+        while (System.nanoTime() < warmupEnd) {
+            Arrays.fill(derive(algorithm, password, password.length, salt, CALIBRATE_ITERATIONS, keyLength), (byte) 0);
+        }
+        //迭代次数翻倍直到单次耗时达到预算的1/4，太短的测量受计时精度和JIT影响
+        long minNanos = Math.max(1, targetMillis) * 1000000L / 4;
+        int iterations = CALIBRATE_ITERATIONS;
+        long best;
+        while (true) {
+            best = Long.MAX_VALUE;
+            for (int round = 0; round < CALIBRATE_ROUNDS; round++) {
+                long start = System.nanoTime();
+                byte[] key = derive(algorithm, password, password.length, salt, iterations, keyLength);
+                best = Math.min(best, System.nanoTime() - start);
+                Arrays.fill(key, (byte) 0);
+            }
+            if (best >= minNanos || iterations > Integer.MAX_VALUE / 2) break;
+            iterations *= 2;
+        }
+        double nanosPerIteration = Math.max(1, best) / (double) iterations;
+        long result = (long) (targetMillis * 1000000L / nanosPerIteration);
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, result));
+    }
+}
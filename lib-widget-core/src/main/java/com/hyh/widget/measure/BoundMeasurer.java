@@ -0,0 +1,170 @@
+package com.hyh.widget.measure;
+
+public class BoundMeasurer implements IMeasurer {
+
+    @Override
+    public void measure(MeasureParams params, int widthMeasureSpec, int heightMeasureSpec, MeasureInfo measureInfo, MeasureResult result) {
+        measureWidth(params, widthMeasureSpec, measureInfo, result);
+        measureHeight(params, heightMeasureSpec, measureInfo, result);
+    }
+
+    private void measureWidth(MeasureParams params, int widthMeasureSpec, MeasureInfo info, MeasureResult result) {
+        int widthMode = MeasureSpecs.getMode(widthMeasureSpec);
+        int horizontalPadding = params.getHorizontalPadding();
+
+        switch (widthMode) {
+            case MeasureSpecs.UNSPECIFIED: {
+                float width = ChainHelper.computeChainWidth(info, horizontalPadding);
+                result.measureWidth = width;
+
+                float boxWidth = info.boxWidth;
+                if (info.boxWidthPercent > 0) {
+                    boxWidth = width * info.boxWidthPercent;
+                }
+                result.measureBoxWidth = boxWidth;
+
+                ChainHelper.measureBoxChainExactly(width, boxWidth, horizontalPadding, info, result);
+                break;
+            }
+            case MeasureSpecs.EXACTLY: {
+                float width = MeasureSpecs.getDefaultSize(params.minimumWidth, widthMeasureSpec);
+                result.measureWidth = width;
+                float expectedBoxWidth = info.boxWidth;
+                if (info.boxWidthPercent > 0) {
+                    expectedBoxWidth = width * info.boxWidthPercent;
+                }
+
+                ChainHelper.measureBoxChainExactly(width, expectedBoxWidth, horizontalPadding, info, result);
+
+                boolean mergeRectBox = result.mergedRectBox;
+
+                float maxBoxWidth = (width
+                        - info.boxBorderSize * 2 * info.passwordLength
+                        - (mergeRectBox ? (info.mergedRectBoxDividerWidth - 2 * info.boxBorderSize) * (info.passwordLength - 1) : 0)
+                        - result.measureBoxSpace * (info.passwordLength - 1)
+                        - horizontalPadding
+                        - result.measureBoxChainMargin * 2)
+                        / info.passwordLength;
+
+                result.measureBoxWidth = Math.min(expectedBoxWidth, maxBoxWidth);
+
+                break;
+            }
+            case MeasureSpecs.AT_MOST: {
+                float maxWidth = MeasureSpecs.getDefaultSize(params.minimumWidth, widthMeasureSpec);
+                if (info.boxChainStyle == MeasureInfo.BOX_CHAIN_STYLE_FREE) {
+                    float width = ChainHelper.computeFreeChainWidth(info, horizontalPadding);
+                    width = Math.min(maxWidth, width);
+
+                    result.measureWidth = width;
+
+                    float boxSpace = info.boxSpace;
+                    if (info.boxSpacePercent > 0) {
+                        boxSpace = width * info.boxSpacePercent;
+                    }
+
+                    boolean mergeRectBox = info.mergeRectBoxEnabled
+                            && info.boxType == MeasureInfo.BOX_TYPE_RECT
+                            && result.measureBoxSpace == 0;
+
+                    float maxBoxWidth = (maxWidth
+                            - info.boxBorderSize * 2 * info.passwordLength
+                            - (mergeRectBox ? (info.mergedRectBoxDividerWidth - 2 * info.boxBorderSize) * (info.passwordLength - 1) : 0)
+                            - result.measureBoxSpace * (info.passwordLength - 1)
+                            - horizontalPadding
+                            - result.measureBoxChainMargin * 2)
+                            / info.passwordLength;
+                    maxBoxWidth = Math.max(0, maxBoxWidth);
+
+                    float boxWidth = info.boxWidth;
+                    if (info.boxWidthPercent > 0) {
+                        boxWidth = width * info.boxWidthPercent;
+                    }
+                    boxWidth = Math.min(maxBoxWidth, boxWidth);
+
+                    result.measureBoxSpace = boxSpace;
+                    result.measureBoxChainMargin = 0;
+                    result.mergedRectBox = mergeRectBox;
+                    result.measureBoxWidth = boxWidth;
+                } else {
+                    result.measureWidth = maxWidth;
+
+                    float expectedBoxWidth = info.boxWidth;
+                    if (info.boxWidthPercent > 0) {
+                        expectedBoxWidth = result.measureWidth * info.boxWidthPercent;
+                    }
+
+                    ChainHelper.measureBoxChainExactly(result.measureWidth, expectedBoxWidth, horizontalPadding, info, result);
+                    boolean mergeRectBox = result.mergedRectBox;
+
+                    float maxBoxWidth = (result.measureWidth
+                            - info.boxBorderSize * 2 * info.passwordLength
+                            - (mergeRectBox ? (info.mergedRectBoxDividerWidth - 2 * info.boxBorderSize) * (info.passwordLength - 1) : 0)
+                            - result.measureBoxSpace * (info.passwordLength - 1)
+                            - horizontalPadding
+                            - result.measureBoxChainMargin * 2)
+                            / info.passwordLength;
+
+                    result.measureBoxWidth = Math.min(expectedBoxWidth, maxBoxWidth);
+                }
+                break;
+            }
+        }
+    }
+
+    private void measureHeight(MeasureParams params, int heightMeasureSpec, MeasureInfo info, MeasureResult result) {
+        int heightMode = MeasureSpecs.getMode(heightMeasureSpec);
+        int verticalPadding = params.getVerticalPadding();
+        switch (heightMode) {
+            case MeasureSpecs.UNSPECIFIED: {
+                float boxHeight = info.boxHeight;
+                if (info.boxHeightRatio > 0) {
+                    boxHeight = result.measureBoxWidth * info.boxHeightRatio;
+                }
+                result.measureBoxHeight = boxHeight;
+                result.measureHeight = boxHeight + verticalPadding + 2 * info.boxBorderSize;
+                break;
+            }
+            case MeasureSpecs.EXACTLY: {
+                float height = MeasureSpecs.getDefaultSize(params.minimumHeight, heightMeasureSpec);
+                result.measureHeight = height;
+                float maxBoxHeight = height
+                        - verticalPadding
+                        - 2 * info.boxBorderSize;
+                maxBoxHeight = Math.max(0, maxBoxHeight);
+
+                float boxHeight = info.boxHeight;
+                if (info.boxHeightRatio > 0) {
+                    boxHeight = result.measureBoxWidth * info.boxHeightRatio;
+                }
+                if (boxHeight == 0) {
+                    boxHeight = maxBoxHeight;
+                } else {
+                    boxHeight = Math.min(maxBoxHeight, boxHeight);
+                }
+                result.measureBoxHeight = boxHeight;
+                break;
+            }
+            case MeasureSpecs.AT_MOST: {
+                float maxHeight = MeasureSpecs.getDefaultSize(params.minimumHeight, heightMeasureSpec);
+                float maxBoxHeight = maxHeight
+                        - verticalPadding
+                        - 2 * info.boxBorderSize;
+                maxBoxHeight = Math.max(0, maxBoxHeight);
+
+                float boxHeight = info.boxHeight;
+                if (info.boxHeightRatio > 0) {
+                    boxHeight = result.measureBoxWidth * info.boxHeightRatio;
+                }
+                if (boxHeight == 0) {
+                    boxHeight = maxBoxHeight;
+                } else {
+                    boxHeight = Math.min(maxBoxHeight, boxHeight);
+                }
+                result.measureBoxHeight = boxHeight;
+                result.measureHeight = boxHeight + verticalPadding + 2 * info.boxBorderSize;
+                break;
+            }
+        }
+    }
+}
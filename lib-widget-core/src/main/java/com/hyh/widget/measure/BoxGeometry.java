@@ -0,0 +1,320 @@
+package com.hyh.widget.measure;
+
+/**
+ * 每个框的坐标缓存，按 left, top, right, bottom 顺序平铺在数组中，只在测量结果、padding或尺寸变化时重新计算
+ */
+public class BoxGeometry {
+
+    public int count;
+    //boxes、borders中第一个框在整条链中的下标，只计算可见窗口时不为0
+    public int firstIndex;
+    //相邻两个框左边缘的间距
+    public float pitch;
+
+    public float[] boxes = new float[0];
+    public float[] borders = new float[0];
+
+    public float frameLeft, frameTop, frameRight, frameBottom;
+    public float originX, originY;
+    public float extentRight, extentBottom;
+    public int paddingLeft, paddingTop, paddingRight, paddingBottom;
+
+    public boolean valid;
+
+    //只计算可见窗口时，内容区域的左右边界（View坐标，未滚动）与整条链的右边界（链坐标）
+    public boolean windowed;
+    public float viewportLeft, viewportRight;
+    public float chainRight;
+
+    /**
+     * 根据测量结果计算每个框的坐标，坐标以第一个框的左上角为原点，originX、originY为原点在View中的位置
+     *
+     * @return 框的类型不支持时返回false
+     */
+    public boolean compute(MeasureInfo info, MeasureResult measured, MeasureParams params, int measuredWidth, int measuredHeight) {
+        windowed = false;
+        originX = (measuredWidth - measured.measureContentWidth) * 0.5f + params.paddingLeft + measured.measureBoxChainMargin;
+        return compute(info, measured, params, measuredHeight, 0, info.passwordLength);
+    }
+
+    /**
+     * 链比View宽时用于横向滚动，只计算滚动scrollX后与内容区域相交的框，开销只与View的宽度有关；
+     * 链比内容区域窄时与{@link #compute}一样居中并计算全部的框
+     */
+    public boolean computeWindow(MeasureInfo info, MeasureResult measured, MeasureParams params,
+                                 int measuredWidth, int measuredHeight, float scrollX) {
+        if (measured.measureContentWidth <= measuredWidth || info.boxChainStyle == MeasureInfo.BOX_CHAIN_STYLE_GRID) {
+            return compute(info, measured, params, measuredWidth, measuredHeight);
+        }
+        windowed = true;
+        originX = params.paddingLeft + measured.measureBoxChainMargin;
+        viewportLeft = params.paddingLeft;
+        viewportRight = measuredWidth - params.paddingRight;
+        pitch = computePitch(info, measured);
+        int first = getFirstVisibleIndex(info.passwordLength, scrollX);
+        int last = getLastVisibleIndex(info.passwordLength, scrollX);
+        return compute(info, measured, params, measuredHeight, first, last - first + 1);
+    }
+
+    /**
+     * 当前计算的窗口是否覆盖了滚动scrollX后所有可见的框
+     */
+    public boolean coversWindow(int passwordLength, float scrollX) {
+        if (!windowed) return true;
+        return getFirstVisibleIndex(passwordLength, scrollX) == firstIndex
+                && getLastVisibleIndex(passwordLength, scrollX) == firstIndex + count - 1;
+    }
+
+    /**
+     * 最大的滚动距离，链没有超出内容区域时为0
+     */
+    public float getMaxScrollX() {
+        if (!windowed) return 0;
+        return Math.max(0, originX + chainRight - viewportRight);
+    }
+
+    private int getFirstVisibleIndex(int passwordLength, float scrollX) {
+        int index = (int) Math.floor((viewportLeft + scrollX - originX) / pitch);
+        return Math.max(0, Math.min(passwordLength - 1, index));
+    }
+
+    private int getLastVisibleIndex(int passwordLength, float scrollX) {
+        int index = (int) Math.floor((viewportRight + scrollX - originX) / pitch);
+        return Math.max(0, Math.min(passwordLength - 1, index));
+    }
+
+    private static float computePitch(MeasureInfo info, MeasureResult measured) {
+        if (info.boxType == MeasureInfo.BOX_TYPE_RECT && measured.mergedRectBox) {
+            return measured.measureBoxWidth + info.mergedRectBoxDividerWidth;
+        }
+        return measured.measureBoxWidth + info.boxBorderSize * 2 + measured.measureBoxSpace;
+    }
+
+    private boolean compute(MeasureInfo info, MeasureResult measured, MeasureParams params, int measuredHeight,
+                            int first, int count) {
+        if (info.boxChainStyle == MeasureInfo.BOX_CHAIN_STYLE_GRID) {
+            if (info.boxType != MeasureInfo.BOX_TYPE_RECT
+                    && info.boxType != MeasureInfo.BOX_TYPE_OVAL
+                    && info.boxType != MeasureInfo.BOX_TYPE_UNDERLINE) {
+                valid = false;
+                return false;
+            }
+            //多行分组排列不支持只计算窗口，总是计算全部的框
+            first = 0;
+            setCount(info.passwordLength);
+            ChainHelper.layoutGrid(info, measured, boxes, borders);
+            frameLeft = frameTop = frameRight = frameBottom = 0;
+        } else {
+            switch (info.boxType) {
+                case MeasureInfo.BOX_TYPE_RECT: {
+                    if (measured.mergedRectBox) {
+                        computeMergedRectBox(info, measured, params, first, count);
+                    } else {
+                        computeSeparateBox(info, measured, first, count);
+                    }
+                    break;
+                }
+                case MeasureInfo.BOX_TYPE_OVAL: {
+                    computeSeparateBox(info, measured, first, count);
+                    break;
+                }
+                case MeasureInfo.BOX_TYPE_UNDERLINE: {
+                    computeUnderlineBox(info, measured, first, count);
+                    break;
+                }
+                default: {
+                    valid = false;
+                    return false;
+                }
+            }
+        }
+        firstIndex = first;
+        pitch = computePitch(info, measured);
+        chainRight = measured.measureContentWidth - params.getHorizontalPadding() - measured.measureBoxChainMargin * 2;
+        originY = (measuredHeight - measured.measureContentHeight) * 0.5f + params.paddingTop;
+        computeExtent(info.boxBorderSize);
+        paddingLeft = params.paddingLeft;
+        paddingTop = params.paddingTop;
+        paddingRight = params.paddingRight;
+        paddingBottom = params.paddingBottom;
+        valid = true;
+        return true;
+    }
+
+    private void computeMergedRectBox(MeasureInfo info, MeasureResult measured, MeasureParams params, int first, int count) {
+        float boxBorderSize = info.boxBorderSize;
+        float dividerWidth = info.mergedRectBoxDividerWidth;
+        float measureBoxWidth = measured.measureBoxWidth;
+        float measureBoxHeight = measured.measureBoxHeight;
+
+        setCount(count);
+        frameLeft = boxBorderSize * 0.5f;
+        frameTop = boxBorderSize * 0.5f;
+        frameRight = measured.measureContentWidth - measured.measureBoxChainMargin * 2 - params.getHorizontalPadding() - boxBorderSize * 0.5f;
+        frameBottom = measured.measureContentHeight - params.getVerticalPadding() - boxBorderSize * 0.5f;
+
+        for (int index = first; index < first + count; index++) {
+            int offset = (index - first) * 4;
+            float left = boxBorderSize + (measureBoxWidth + dividerWidth) * index;
+            float top = boxBorderSize;
+            float right = left + measureBoxWidth;
+            float bottom = top + measureBoxHeight;
+            boxes[offset] = left;
+            boxes[offset + 1] = top;
+            boxes[offset + 2] = right;
+            boxes[offset + 3] = bottom;
+
+            //合并的矩形框，border记录的是与下一个框之间的分割线
+            float dividerX = right + dividerWidth * 0.5f;
+            borders[offset] = dividerX;
+            borders[offset + 1] = top;
+            borders[offset + 2] = dividerX;
+            borders[offset + 3] = bottom;
+        }
+    }
+
+    private void computeSeparateBox(MeasureInfo info, MeasureResult measured, int first, int count) {
+        float boxBorderSize = info.boxBorderSize;
+        float measureBoxWidth = measured.measureBoxWidth;
+        float measureBoxHeight = measured.measureBoxHeight;
+        float measureBoxSpace = measured.measureBoxSpace;
+
+        setCount(count);
+        for (int index = first; index < first + count; index++) {
+            int offset = (index - first) * 4;
+            float left = measureBoxWidth * index + boxBorderSize * 2 * index + measureBoxSpace * index + boxBorderSize * 0.5f;
+            float top = boxBorderSize * 0.5f;
+            float right = left + measureBoxWidth + boxBorderSize;
+            float bottom = top + measureBoxHeight + boxBorderSize;
+            borders[offset] = left;
+            borders[offset + 1] = top;
+            borders[offset + 2] = right;
+            borders[offset + 3] = bottom;
+
+            if (boxBorderSize == 0) {
+                boxes[offset] = left;
+                boxes[offset + 1] = top;
+                boxes[offset + 2] = right;
+                boxes[offset + 3] = bottom;
+            } else {
+                boxes[offset] = left + boxBorderSize * 0.5f;
+                boxes[offset + 1] = top + boxBorderSize * 0.5f;
+                boxes[offset + 2] = right - boxBorderSize * 0.5f;
+                boxes[offset + 3] = bottom - boxBorderSize * 0.5f;
+            }
+        }
+    }
+
+    private void computeUnderlineBox(MeasureInfo info, MeasureResult measured, int first, int count) {
+        float boxBorderSize = info.boxBorderSize;
+        float measureBoxWidth = measured.measureBoxWidth;
+        float measureBoxHeight = measured.measureBoxHeight;
+        float measureBoxSpace = measured.measureBoxSpace;
+
+        setCount(count);
+        for (int index = first; index < first + count; index++) {
+            int offset = (index - first) * 4;
+            float startX = measureBoxWidth * index + boxBorderSize * 2 * index + measureBoxSpace * index;
+            float startY = measureBoxHeight + boxBorderSize * 1.5f;
+            float stopX = startX + measureBoxWidth + boxBorderSize * 2;
+
+            //下划线框，border记录的是下划线的起止点
+            borders[offset] = startX;
+            borders[offset + 1] = startY;
+            borders[offset + 2] = stopX;
+            borders[offset + 3] = startY;
+
+            boxes[offset] = startX;
+            boxes[offset + 1] = boxBorderSize;
+            boxes[offset + 2] = stopX;
+            boxes[offset + 3] = boxBorderSize + measureBoxHeight;
+        }
+    }
+
+    /**
+     * 把内容区域等分成columns列、rows行的格子，用于数字键盘，格子按行优先排列，坐标同样以内容区域左上角为原点
+     *
+     * @return 内容区域放不下格子时返回false
+     */
+    public boolean computeGrid(int columns, int rows, float cellSpace, float boxBorderSize,
+                               MeasureParams params, int measuredWidth, int measuredHeight) {
+        float contentWidth = measuredWidth - params.getHorizontalPadding();
+        float contentHeight = measuredHeight - params.getVerticalPadding();
+        float cellWidth = (contentWidth - cellSpace * (columns - 1)) / columns;
+        float cellHeight = (contentHeight - cellSpace * (rows - 1)) / rows;
+        if (cellWidth <= 0 || cellHeight <= 0) {
+            valid = false;
+            return false;
+        }
+
+        setCount(columns * rows);
+        firstIndex = 0;
+        windowed = false;
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                int offset = (row * columns + column) * 4;
+                float left = (cellWidth + cellSpace) * column;
+                float top = (cellHeight + cellSpace) * row;
+                float right = left + cellWidth;
+                float bottom = top + cellHeight;
+
+                borders[offset] = left + boxBorderSize * 0.5f;
+                borders[offset + 1] = top + boxBorderSize * 0.5f;
+                borders[offset + 2] = right - boxBorderSize * 0.5f;
+                borders[offset + 3] = bottom - boxBorderSize * 0.5f;
+
+                boxes[offset] = left + boxBorderSize;
+                boxes[offset + 1] = top + boxBorderSize;
+                boxes[offset + 2] = right - boxBorderSize;
+                boxes[offset + 3] = bottom - boxBorderSize;
+            }
+        }
+        frameLeft = frameTop = 0;
+        frameRight = contentWidth;
+        frameBottom = contentHeight;
+        originX = params.paddingLeft;
+        originY = params.paddingTop;
+        computeExtent(0);
+        paddingLeft = params.paddingLeft;
+        paddingTop = params.paddingTop;
+        paddingRight = params.paddingRight;
+        paddingBottom = params.paddingBottom;
+        valid = true;
+        return true;
+    }
+
+    /**
+     * 数组只增不减，保持历史最大容量，框的数量来回变化时不再分配
+     */
+    public void setCount(int count) {
+        int size = count * 4;
+        if (boxes.length < size) {
+            boxes = new float[size];
+            borders = new float[size];
+        }
+        this.count = count;
+    }
+
+    private void computeExtent(float boxBorderSize) {
+        float right = frameRight;
+        float bottom = frameBottom;
+        for (int index = 0; index < count; index++) {
+            int offset = index * 4;
+            right = Math.max(right, Math.max(boxes[offset + 2], borders[offset + 2]));
+            bottom = Math.max(bottom, Math.max(boxes[offset + 3], borders[offset + 3]));
+        }
+        extentRight = right + boxBorderSize;
+        extentBottom = bottom + boxBorderSize;
+    }
+
+    public boolean matchesPadding(int paddingLeft, int paddingTop, int paddingRight, int paddingBottom) {
+        return this.paddingLeft == paddingLeft
+                && this.paddingTop == paddingTop
+                && this.paddingRight == paddingRight
+                && this.paddingBottom == paddingBottom;
+    }
+
+    public void invalidate() {
+        valid = false;
+    }
+}
@@ -0,0 +1,308 @@
+package com.hyh.widget.measure;
+
+public final class ChainHelper {
+
+    private ChainHelper() {
+    }
+
+    public static float computeChainWidth(MeasureInfo info, int horizontalPadding) {
+        switch (info.boxChainStyle) {
+            default:
+            case MeasureInfo.BOX_CHAIN_STYLE_FREE: {
+                return computeFreeChainWidth(info, horizontalPadding);
+            }
+            case MeasureInfo.BOX_CHAIN_STYLE_SPREAD: {
+                return computeSpreadChainWidth(info, horizontalPadding);
+            }
+            case MeasureInfo.BOX_CHAIN_STYLE_SPREAD_INSIDE: {
+                return computeSpreadInsideChainWidth(info, horizontalPadding);
+            }
+            case MeasureInfo.BOX_CHAIN_STYLE_PACKET: {
+                return computePacketChainWidth(info, horizontalPadding);
+            }
+        }
+    }
+
+    public static float computeFreeChainWidth(MeasureInfo info, int horizontalPadding) {
+        float boxWidth = info.boxWidth;
+        float boxWidthPercent = info.boxWidthPercent;
+
+        float boxSpace = info.boxSpace;
+        float boxSpacePercent = info.boxSpacePercent;
+        boolean mergeRectBox = info.mergeRectBoxEnabled
+                && info.boxType == MeasureInfo.BOX_TYPE_RECT
+                && boxSpace == 0
+                && boxSpacePercent == 0;
+
+        return (horizontalPadding
+                + (boxWidthPercent == 0 ? boxWidth : 0) * info.passwordLength
+                + info.boxBorderSize * info.passwordLength * 2
+                + (mergeRectBox ? (info.mergedRectBoxDividerWidth - 2 * info.boxBorderSize) * (info.passwordLength - 1) : 0)
+                + (boxSpacePercent == 0 ? boxSpace : 0) * (info.passwordLength - 1))
+                / (1 - boxWidthPercent * info.passwordLength - boxSpacePercent * (info.passwordLength - 1));
+    }
+
+    public static float computeSpreadChainWidth(MeasureInfo info, int horizontalPadding) {
+        float boxWidth = info.boxWidth;
+        float boxWidthPercent = info.boxWidthPercent;
+
+        float boxSpace = info.boxSpace;
+        float boxSpacePercent = info.boxSpacePercent;
+        boolean mergeRectBox = info.mergeRectBoxEnabled
+                && info.boxType == MeasureInfo.BOX_TYPE_RECT
+                && boxSpace == 0
+                && boxSpacePercent == 0;
+
+        return (horizontalPadding
+                + (boxWidthPercent == 0 ? boxWidth : 0) * info.passwordLength
+                + info.boxBorderSize * info.passwordLength * 2
+                + (mergeRectBox ? (info.mergedRectBoxDividerWidth - 2 * info.boxBorderSize) * (info.passwordLength - 1) : 0)
+                + (boxSpacePercent == 0 ? boxSpace : 0) * (info.passwordLength + 1))
+                / (1 - boxWidthPercent * info.passwordLength - boxSpacePercent * (info.passwordLength + 1));
+    }
+
+    public static float computeSpreadInsideChainWidth(MeasureInfo info, int horizontalPadding) {
+        float boxWidth = info.boxWidth;
+        float boxWidthPercent = info.boxWidthPercent;
+
+        float boxSpace = info.boxSpace;
+        float boxSpacePercent = info.boxSpacePercent;
+        boolean mergeRectBox = info.mergeRectBoxEnabled
+                && info.boxType == MeasureInfo.BOX_TYPE_RECT
+                && boxSpace == 0
+                && boxSpacePercent == 0;
+
+
+        return (horizontalPadding
+                + (boxWidthPercent == 0 ? boxWidth : 0) * info.passwordLength
+                + info.boxBorderSize * info.passwordLength * 2
+                + (mergeRectBox ? (info.mergedRectBoxDividerWidth - 2 * info.boxBorderSize) * (info.passwordLength - 1) : 0)
+                + (boxSpacePercent == 0 ? boxSpace : 0) * (info.passwordLength - 1))
+                / (1 - boxWidthPercent * info.passwordLength - boxSpacePercent * (info.passwordLength - 1));
+    }
+
+    public static float computePacketChainWidth(MeasureInfo info, int horizontalPadding) {
+        float boxWidth = info.boxWidth;
+        float boxWidthPercent = info.boxWidthPercent;
+
+        float boxSpace = info.boxSpace;
+        float boxSpacePercent = info.boxSpacePercent;
+        boolean mergeRectBox = info.mergeRectBoxEnabled && info.boxType == MeasureInfo.BOX_TYPE_RECT;
+
+        return (horizontalPadding
+                + (boxWidthPercent == 0 ? boxWidth : 0) * info.passwordLength + info.boxBorderSize * info.passwordLength * 2
+                + (mergeRectBox ? (info.mergedRectBoxDividerWidth - 2 * info.boxBorderSize) * (info.passwordLength - 1) : 0)
+                + (boxSpacePercent == 0 ? boxSpace : 0) * 2)
+                / (1 - boxWidthPercent * info.passwordLength - boxSpacePercent * 2);
+    }
+
+    /*static void measureBoxChainExactly(float width, MeasureInfo info, MeasureResult result) {
+        switch (info.boxChainStyle) {
+            case MeasureInfo.BOX_CHAIN_STYLE_FREE:
+            case MeasureInfo.BOX_CHAIN_STYLE_SPREAD_INSIDE: {
+                float boxSpace = info.boxSpace;
+                if (info.boxSpacePercent > 0) {
+                    boxSpace = width * info.boxSpacePercent;
+                }
+                result.measureBoxSpace = boxSpace;
+                result.measureBoxChainMargin = 0;
+                break;
+            }
+            case MeasureInfo.BOX_CHAIN_STYLE_SPREAD: {
+                float boxSpace = info.boxSpace;
+                if (info.boxSpacePercent > 0) {
+                    boxSpace = width * info.boxSpacePercent;
+                }
+                result.measureBoxSpace = boxSpace;
+                result.measureBoxChainMargin = boxSpace;
+                break;
+            }
+            case MeasureInfo.BOX_CHAIN_STYLE_PACKET: {
+                float boxSpace = info.boxSpace;
+                if (info.boxSpacePercent > 0) {
+                    boxSpace = width * info.boxSpacePercent;
+                }
+                result.measureBoxSpace = 0;
+                result.measureBoxChainMargin = boxSpace;
+                break;
+            }
+        }
+        result.mergedRectBox = info.mergeRectBoxEnabled
+                && info.boxType == MeasureInfo.BOX_TYPE_RECT
+                && result.measureBoxSpace == 0;
+    }*/
+
+    public static void measureBoxChainExactly(float width, float expectedBoxWidth, int horizontalPadding, MeasureInfo info, MeasureResult result) {
+        switch (info.boxChainStyle) {
+            case MeasureInfo.BOX_CHAIN_STYLE_FREE: {
+                float boxSpace = info.boxSpace;
+                if (info.boxSpacePercent > 0) {
+                    boxSpace = width * info.boxSpacePercent;
+                }
+                result.measureBoxSpace = boxSpace;
+                result.measureBoxChainMargin = 0;
+                result.mergedRectBox = info.mergeRectBoxEnabled
+                        && info.boxType == MeasureInfo.BOX_TYPE_RECT
+                        && result.measureBoxSpace == 0;
+                break;
+            }
+            case MeasureInfo.BOX_CHAIN_STYLE_SPREAD: {
+                float surplusWidth = width
+                        - horizontalPadding
+                        - expectedBoxWidth * info.passwordLength
+                        - info.boxBorderSize * 2 * info.passwordLength;
+                if (surplusWidth <= 0) {
+                    result.measureBoxSpace = result.measureBoxChainMargin = 0;
+                    if (info.passwordLength > 1) {
+                        boolean mergeRectBox = info.mergeRectBoxEnabled && info.boxType == MeasureInfo.BOX_TYPE_RECT;
+                        if (mergeRectBox) {
+                            surplusWidth += (2 * info.boxBorderSize - info.mergedRectBoxDividerWidth) * (info.passwordLength - 1);
+                            if (surplusWidth > 0) {
+                                result.measureBoxChainMargin = surplusWidth / 2;
+                            }
+                        }
+                    }
+                } else {
+                    if (info.passwordLength <= 1) {
+                        result.measureBoxSpace = 0;
+                        result.measureBoxChainMargin = surplusWidth / 2;
+                    } else {
+                        result.measureBoxSpace = result.measureBoxChainMargin = surplusWidth / (info.passwordLength + 1);
+                    }
+                }
+                result.mergedRectBox = info.mergeRectBoxEnabled
+                        && info.boxType == MeasureInfo.BOX_TYPE_RECT
+                        && result.measureBoxSpace == 0;
+                break;
+            }
+            case MeasureInfo.BOX_CHAIN_STYLE_SPREAD_INSIDE: {
+                if (info.passwordLength <= 1) {
+                    result.measureBoxSpace = result.measureBoxChainMargin = 0;
+                    result.mergedRectBox = info.mergeRectBoxEnabled && info.boxType == MeasureInfo.BOX_TYPE_RECT;
+                } else {
+                    float surplusWidth = width
+                            - horizontalPadding
+                            - expectedBoxWidth * info.passwordLength
+                            - info.boxBorderSize * 2 * info.passwordLength;
+                    if (surplusWidth <= 0) {
+                        result.measureBoxSpace = result.measureBoxChainMargin = 0;
+                        boolean mergeRectBox = info.mergeRectBoxEnabled && info.boxType == MeasureInfo.BOX_TYPE_RECT;
+                        if (mergeRectBox) {
+                            surplusWidth += (2 * info.boxBorderSize - info.mergedRectBoxDividerWidth) * (info.passwordLength - 1);
+                            if (surplusWidth > 0) {
+                                mergeRectBox = false;
+                            }
+                        }
+                        result.mergedRectBox = mergeRectBox;
+                    } else {
+                        result.measureBoxSpace = surplusWidth / (info.passwordLength - 1);
+                        result.measureBoxChainMargin = 0;
+                        result.mergedRectBox = info.mergeRectBoxEnabled
+                                && info.boxType == MeasureInfo.BOX_TYPE_RECT
+                                && result.measureBoxSpace == 0;
+                    }
+                }
+                break;
+            }
+            case MeasureInfo.BOX_CHAIN_STYLE_PACKET: {
+                boolean mergeRectBox = info.mergeRectBoxEnabled && info.boxType == MeasureInfo.BOX_TYPE_RECT;
+                result.mergedRectBox = mergeRectBox;
+                float surplusWidth = width
+                        - horizontalPadding
+                        - expectedBoxWidth * info.passwordLength
+                        - info.boxBorderSize * 2 * info.passwordLength
+                        - (mergeRectBox ? (info.mergedRectBoxDividerWidth - 2 * info.boxBorderSize) * (info.passwordLength - 1) : 0);
+                if (surplusWidth <= 0) {
+                    result.measureBoxSpace = result.measureBoxChainMargin = 0;
+                } else {
+                    result.measureBoxSpace = 0;
+                    result.measureBoxChainMargin = surplusWidth / 2;
+                }
+            }
+        }
+    }
+
+    /**
+     * 多行分组排列一行的宽度，组内框之间为boxSpace，组之间为groupSpace
+     */
+    public static float computeGridRowWidth(int columns, int groupSize, float boxOuterWidth, float boxSpace, float groupSpace) {
+        if (columns <= 0) return 0;
+        int groups = (columns + groupSize - 1) / groupSize;
+        return columns * boxOuterWidth + (columns - groups) * boxSpace + (groups - 1) * groupSpace;
+    }
+
+    /**
+     * 在availableWidth内最多能放下的整组数对应的列数，至少一组，不超过密码长度
+     */
+    public static int computeGridColumns(float availableWidth, int passwordLength, int groupSize,
+                                         float boxOuterWidth, float boxSpace, float groupSpace) {
+        float groupWidth = groupSize * boxOuterWidth + (groupSize - 1) * boxSpace;
+        int groups = (int) Math.floor((availableWidth + groupSpace) / (groupWidth + groupSpace));
+        return Math.max(1, Math.min(passwordLength, Math.max(1, groups) * groupSize));
+    }
+
+    /**
+     * 按测量结果一次线性遍历算出多行分组排列中每个框的坐标，按 left, top, right, bottom 平铺写入boxes与borders，
+     * 与单行排列的坐标规则一致，坐标以第一个框的左上角为原点，不分配对象
+     */
+    public static void layoutGrid(MeasureInfo info, MeasureResult measured, float[] boxes, float[] borders) {
+        int passwordLength = info.passwordLength;
+        int columns = Math.max(1, measured.measureColumnCount);
+        int groupSize = info.groupSize > 0 ? info.groupSize : columns;
+        float boxBorderSize = info.boxBorderSize;
+        float boxWidth = measured.measureBoxWidth;
+        float boxHeight = measured.measureBoxHeight;
+        float boxOuterWidth = boxWidth + boxBorderSize * 2;
+        float rowPitch = boxHeight + boxBorderSize * 2 + measured.measureRowSpace;
+        float boxStep = boxOuterWidth + measured.measureBoxSpace;
+        float groupStep = boxOuterWidth + measured.measureGroupSpace;
+        boolean underline = info.boxType == MeasureInfo.BOX_TYPE_UNDERLINE;
+
+        float x = 0, y = 0;
+        int column = 0, groupColumn = 0;
+        for (int index = 0; index < passwordLength; index++) {
+            int offset = index * 4;
+            if (underline) {
+                //下划线框，border记录的是下划线的起止点
+                float startY = y + boxHeight + boxBorderSize * 1.5f;
+                borders[offset] = x;
+                borders[offset + 1] = startY;
+                borders[offset + 2] = x + boxOuterWidth;
+                borders[offset + 3] = startY;
+
+                boxes[offset] = x;
+                boxes[offset + 1] = y + boxBorderSize;
+                boxes[offset + 2] = x + boxOuterWidth;
+                boxes[offset + 3] = y + boxBorderSize + boxHeight;
+            } else {
+                float left = x + boxBorderSize * 0.5f;
+                float top = y + boxBorderSize * 0.5f;
+                float right = left + boxWidth + boxBorderSize;
+                float bottom = top + boxHeight + boxBorderSize;
+                borders[offset] = left;
+                borders[offset + 1] = top;
+                borders[offset + 2] = right;
+                borders[offset + 3] = bottom;
+
+                float inset = boxBorderSize * 0.5f;
+                boxes[offset] = left + inset;
+                boxes[offset + 1] = top + inset;
+                boxes[offset + 2] = right - inset;
+                boxes[offset + 3] = bottom - inset;
+            }
+
+            column++;
+            groupColumn++;
+            if (column == columns) {
+                column = groupColumn = 0;
+                x = 0;
+                y += rowPitch;
+            } else if (groupColumn == groupSize) {
+                groupColumn = 0;
+                x += groupStep;
+            } else {
+                x += boxStep;
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.hyh.widget.measure;
+
+public class FillMeasurer implements IMeasurer {
+
+    @Override
+    public void measure(MeasureParams params,
+                        int widthMeasureSpec, int heightMeasureSpec,
+                        MeasureInfo measureInfo,
+                        MeasureResult result) {
+        measureWidth(params, widthMeasureSpec, measureInfo, result);
+        measureHeight(params, heightMeasureSpec, measureInfo, result);
+    }
+
+    private void measureWidth(MeasureParams params,
+                              int widthMeasureSpec,
+                              MeasureInfo info,
+                              MeasureResult result) {
+        int widthMode = MeasureSpecs.getMode(widthMeasureSpec);
+        int horizontalPadding = params.getHorizontalPadding();
+
+        if (widthMode == MeasureSpecs.UNSPECIFIED) {
+            float width = ChainHelper.computeChainWidth(info, horizontalPadding);
+            result.measureWidth = width;
+
+            float boxWidth = info.boxWidth;
+            if (info.boxWidthPercent > 0) {
+                boxWidth = width * info.boxWidthPercent;
+            }
+            result.measureBoxWidth = boxWidth;
+
+            ChainHelper.measureBoxChainExactly(width, boxWidth, horizontalPadding, info, result);
+        } else {
+            float width = MeasureSpecs.getDefaultSize(params.minimumWidth, widthMeasureSpec);
+            result.measureWidth = width;
+            float boxWidth = info.boxWidth;
+            if (info.boxWidthPercent > 0) {
+                boxWidth = width * info.boxWidthPercent;
+            }
+            result.measureBoxWidth = boxWidth;
+
+            ChainHelper.measureBoxChainExactly(width, boxWidth, horizontalPadding, info, result);
+        }
+    }
+
+    private void measureHeight(MeasureParams params, int heightMeasureSpec, MeasureInfo info, MeasureResult result) {
+        int heightMode = MeasureSpecs.getMode(heightMeasureSpec);
+        int verticalPadding = params.getVerticalPadding();
+        switch (heightMode) {
+            case MeasureSpecs.UNSPECIFIED: {
+                float boxHeight = info.boxHeight;
+                if (info.boxHeightRatio > 0) {
+                    boxHeight = result.measureBoxWidth * info.boxHeightRatio;
+                }
+                if (boxHeight == 0) {
+                    float height = MeasureSpecs.getDefaultSize(params.minimumHeight, heightMeasureSpec);
+                    boxHeight = height
+                            - verticalPadding
+                            - 2 * info.boxBorderSize;
+                    boxHeight = Math.max(0, boxHeight);
+                }
+                result.measureBoxHeight = boxHeight;
+                result.measureHeight = boxHeight + verticalPadding + 2 * info.boxBorderSize;
+                break;
+            }
+            case MeasureSpecs.EXACTLY: {
+                float height = MeasureSpecs.getDefaultSize(params.minimumHeight, heightMeasureSpec);
+                result.measureHeight = height;
+                float maxBoxHeight = height
+                        - verticalPadding
+                        - 2 * info.boxBorderSize;
+                maxBoxHeight = Math.max(0, maxBoxHeight);
+
+                float boxHeight = info.boxHeight;
+                if (info.boxHeightRatio > 0) {
+                    boxHeight = result.measureBoxWidth * info.boxHeightRatio;
+                }
+                if (boxHeight == 0) {
+                    boxHeight = maxBoxHeight;
+                } else {
+                    boxHeight = Math.min(maxBoxHeight, boxHeight);
+                }
+                result.measureBoxHeight = boxHeight;
+                break;
+            }
+            case MeasureSpecs.AT_MOST: {
+                float maxHeight = MeasureSpecs.getDefaultSize(params.minimumHeight, heightMeasureSpec);
+                float maxBoxHeight = maxHeight
+                        - verticalPadding
+                        - 2 * info.boxBorderSize;
+                maxBoxHeight = Math.max(0, maxBoxHeight);
+
+                float boxHeight = info.boxHeight;
+                if (info.boxHeightRatio > 0) {
+                    boxHeight = result.measureBoxWidth * info.boxHeightRatio;
+                }
+                if (boxHeight == 0) {
+                    boxHeight = maxBoxHeight;
+                } else {
+                    boxHeight = Math.min(maxBoxHeight, boxHeight);
+                }
+                result.measureBoxHeight = boxHeight;
+                result.measureHeight = boxHeight + verticalPadding + 2 * info.boxBorderSize;
+                break;
+            }
+        }
+    }
+}
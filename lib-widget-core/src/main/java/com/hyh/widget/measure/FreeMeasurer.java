@@ -0,0 +1,122 @@
+package com.hyh.widget.measure;
+
+public class FreeMeasurer implements IMeasurer {
+
+    @Override
+    public void measure(MeasureParams params, int widthMeasureSpec, int heightMeasureSpec, MeasureInfo measureInfo, MeasureResult result) {
+        measureWidth(params, widthMeasureSpec, measureInfo, result);
+        measureHeight(params, heightMeasureSpec, measureInfo, result);
+    }
+
+    private void measureWidth(MeasureParams params, int widthMeasureSpec, MeasureInfo info, MeasureResult result) {
+        int widthMode = MeasureSpecs.getMode(widthMeasureSpec);
+        int horizontalPadding = params.getHorizontalPadding();
+
+        switch (widthMode) {
+            case MeasureSpecs.UNSPECIFIED: {
+                float width = ChainHelper.computeChainWidth(info, horizontalPadding);
+                result.measureWidth = width;
+
+                float boxWidth = info.boxWidth;
+                if (info.boxWidthPercent > 0) {
+                    boxWidth = width * info.boxWidthPercent;
+                }
+                result.measureBoxWidth = boxWidth;
+
+                ChainHelper.measureBoxChainExactly(result.measureWidth, boxWidth, horizontalPadding, info, result);
+                break;
+            }
+            case MeasureSpecs.EXACTLY: {
+                float width = MeasureSpecs.getDefaultSize(params.minimumWidth, widthMeasureSpec);
+                result.measureWidth = width;
+                float boxWidth = info.boxWidth;
+                if (info.boxWidthPercent > 0) {
+                    boxWidth = width * info.boxWidthPercent;
+                }
+                result.measureBoxWidth = boxWidth;
+
+                ChainHelper.measureBoxChainExactly(result.measureWidth, boxWidth, horizontalPadding, info, result);
+                break;
+            }
+            case MeasureSpecs.AT_MOST: {
+                if (info.boxChainStyle == MeasureInfo.BOX_CHAIN_STYLE_FREE) {
+                    float width = ChainHelper.computeFreeChainWidth(info, horizontalPadding);
+
+                    result.measureWidth = width;
+
+                    float boxSpace = info.boxSpace;
+                    if (info.boxSpacePercent > 0) {
+                        boxSpace = width * info.boxSpacePercent;
+                    }
+
+                    boolean mergeRectBox = info.mergeRectBoxEnabled
+                            && info.boxType == MeasureInfo.BOX_TYPE_RECT
+                            && boxSpace == 0;
+
+                    float boxWidth = info.boxWidth;
+                    if (info.boxWidthPercent > 0) {
+                        boxWidth = width * info.boxWidthPercent;
+                    }
+
+                    result.measureBoxSpace = boxSpace;
+                    result.measureBoxChainMargin = 0;
+                    result.mergedRectBox = mergeRectBox;
+                    result.measureBoxWidth = boxWidth;
+                } else {
+                    result.measureWidth = MeasureSpecs.getDefaultSize(params.minimumWidth, widthMeasureSpec);
+
+                    float boxWidth = info.boxWidth;
+                    if (info.boxWidthPercent > 0) {
+                        boxWidth = result.measureWidth * info.boxWidthPercent;
+                    }
+                    result.measureBoxWidth = boxWidth;
+
+                    ChainHelper.measureBoxChainExactly(result.measureWidth, boxWidth, horizontalPadding, info, result);
+                }
+                break;
+            }
+        }
+    }
+
+    private void measureHeight(MeasureParams params, int heightMeasureSpec, MeasureInfo info, MeasureResult result) {
+        int heightMode = MeasureSpecs.getMode(heightMeasureSpec);
+        int verticalPadding = params.getVerticalPadding();
+        switch (heightMode) {
+            case MeasureSpecs.UNSPECIFIED: {
+                float boxHeight = info.boxHeight;
+                if (info.boxHeightRatio > 0) {
+                    boxHeight = result.measureBoxWidth * info.boxHeightRatio;
+                }
+                result.measureBoxHeight = boxHeight;
+                result.measureHeight = boxHeight + verticalPadding + 2 * info.boxBorderSize;
+                break;
+            }
+            case MeasureSpecs.EXACTLY: {
+                result.measureHeight = MeasureSpecs.getDefaultSize(params.minimumHeight, heightMeasureSpec);
+
+                float boxHeight = info.boxHeight;
+                if (info.boxHeightRatio > 0) {
+                    boxHeight = result.measureBoxWidth * info.boxHeightRatio;
+                }
+
+                boxHeight = Math.max(0, boxHeight);
+                result.measureBoxHeight = boxHeight;
+                break;
+            }
+            case MeasureSpecs.AT_MOST: {
+                float maxHeight = MeasureSpecs.getDefaultSize(params.minimumHeight, heightMeasureSpec);
+
+                float boxHeight = info.boxHeight;
+                if (info.boxHeightRatio > 0) {
+                    boxHeight = result.measureBoxWidth * info.boxHeightRatio;
+                }
+
+                result.measureBoxHeight = boxHeight;
+                float height = boxHeight + verticalPadding + 2 * info.boxBorderSize;
+                height = Math.min(maxHeight, height);
+                result.measureHeight = height;
+                break;
+            }
+        }
+    }
+}
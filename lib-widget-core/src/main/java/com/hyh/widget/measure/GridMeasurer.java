@@ -0,0 +1,108 @@
+package com.hyh.widget.measure;
+
+/**
+ * 多行分组排列（{@link MeasureInfo#BOX_CHAIN_STYLE_GRID}），例如恢复码的4-4-4-4，
+ * 框的宽度优先使用boxWidth，放不下时缩小；每行的框数未指定时按宽度放下尽可能多的整组。
+ * 只计算尺寸、列数与行数，每个框的坐标由{@link ChainHelper#layoutGrid}一次遍历写入平铺的数组
+ */
+public class GridMeasurer implements IMeasurer {
+
+    @Override
+    public void measure(MeasureParams params, int widthMeasureSpec, int heightMeasureSpec, MeasureInfo measureInfo, MeasureResult result) {
+        measureWidth(params, widthMeasureSpec, measureInfo, result);
+        measureHeight(params, heightMeasureSpec, measureInfo, result);
+    }
+
+    private void measureWidth(MeasureParams params, int widthMeasureSpec, MeasureInfo info, MeasureResult result) {
+        int widthMode = MeasureSpecs.getMode(widthMeasureSpec);
+        int horizontalPadding = params.getHorizontalPadding();
+        int passwordLength = Math.max(1, info.passwordLength);
+        float boxBorderSize = info.boxBorderSize;
+
+        float maxWidth = widthMode == MeasureSpecs.UNSPECIFIED ? 0 : MeasureSpecs.getDefaultSize(params.minimumWidth, widthMeasureSpec);
+        float boxWidth = info.boxWidth;
+        float boxSpace = info.boxSpace;
+        if (widthMode != MeasureSpecs.UNSPECIFIED) {
+            if (info.boxWidthPercent > 0) {
+                boxWidth = maxWidth * info.boxWidthPercent;
+            }
+            if (info.boxSpacePercent > 0) {
+                boxSpace = maxWidth * info.boxSpacePercent;
+            }
+        }
+        float groupSpace = info.groupSpace;
+        int groupSize = info.groupSize > 0 ? Math.min(info.groupSize, passwordLength) : passwordLength;
+
+        int columns;
+        if (info.boxesPerRow > 0) {
+            columns = Math.min(info.boxesPerRow, passwordLength);
+        } else if (widthMode == MeasureSpecs.UNSPECIFIED) {
+            columns = passwordLength;
+        } else {
+            columns = ChainHelper.computeGridColumns(maxWidth - horizontalPadding, passwordLength, groupSize,
+                    boxWidth + boxBorderSize * 2, boxSpace, groupSpace);
+        }
+        if (info.groupSize <= 0) {
+            groupSize = columns;
+        }
+
+        float rowWidth = ChainHelper.computeGridRowWidth(columns, groupSize, boxWidth + boxBorderSize * 2, boxSpace, groupSpace);
+        if (widthMode != MeasureSpecs.UNSPECIFIED && rowWidth > maxWidth - horizontalPadding) {
+            //放不下时只缩小框的宽度，间距保持不变
+            float spaceWidth = rowWidth - columns * (boxWidth + boxBorderSize * 2);
+            boxWidth = Math.max(0, (maxWidth - horizontalPadding - spaceWidth) / columns - boxBorderSize * 2);
+            rowWidth = ChainHelper.computeGridRowWidth(columns, groupSize, boxWidth + boxBorderSize * 2, boxSpace, groupSpace);
+        }
+
+        switch (widthMode) {
+            case MeasureSpecs.EXACTLY: {
+                result.measureWidth = maxWidth;
+                break;
+            }
+            case MeasureSpecs.AT_MOST: {
+                result.measureWidth = Math.min(maxWidth, rowWidth + horizontalPadding);
+                break;
+            }
+            default: {
+                result.measureWidth = rowWidth + horizontalPadding;
+                break;
+            }
+        }
+        result.measureBoxWidth = boxWidth;
+        result.measureBoxSpace = boxSpace;
+        result.measureGroupSpace = groupSpace;
+        result.measureColumnCount = columns;
+        result.measureRowCount = (passwordLength + columns - 1) / columns;
+        result.measureBoxChainMargin = 0;
+        result.mergedRectBox = false;
+        result.measureContentWidth = rowWidth + horizontalPadding;
+    }
+
+    private void measureHeight(MeasureParams params, int heightMeasureSpec, MeasureInfo info, MeasureResult result) {
+        int heightMode = MeasureSpecs.getMode(heightMeasureSpec);
+        int verticalPadding = params.getVerticalPadding();
+        int rows = result.measureRowCount;
+        float boxBorderSize = info.boxBorderSize;
+        float rowSpace = info.boxRowSpace;
+
+        float boxHeight = info.boxHeight;
+        if (info.boxHeightRatio > 0) {
+            boxHeight = result.measureBoxWidth * info.boxHeightRatio;
+        }
+        if (heightMode != MeasureSpecs.UNSPECIFIED) {
+            float maxHeight = MeasureSpecs.getDefaultSize(params.minimumHeight, heightMeasureSpec);
+            float maxBoxHeight = Math.max(0, (maxHeight - verticalPadding - rowSpace * (rows - 1)) / rows - boxBorderSize * 2);
+            boxHeight = boxHeight == 0 ? maxBoxHeight : Math.min(maxBoxHeight, boxHeight);
+        }
+
+        float contentHeight = rows * (boxHeight + boxBorderSize * 2) + rowSpace * (rows - 1) + verticalPadding;
+        if (heightMode == MeasureSpecs.EXACTLY) {
+            result.measureHeight = MeasureSpecs.getDefaultSize(params.minimumHeight, heightMeasureSpec);
+        } else {
+            result.measureHeight = contentHeight;
+        }
+        result.measureBoxHeight = boxHeight;
+        result.measureRowSpace = rowSpace;
+        result.measureContentHeight = contentHeight;
+    }
+}
@@ -0,0 +1,10 @@
+package com.hyh.widget.measure;
+
+public interface IMeasurer {
+
+    void measure(MeasureParams params,
+                 int widthMeasureSpec, int heightMeasureSpec,
+                 MeasureInfo measureInfo,
+                 MeasureResult result);
+
+}
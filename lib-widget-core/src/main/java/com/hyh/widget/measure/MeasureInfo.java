@@ -0,0 +1,127 @@
+package com.hyh.widget.measure;
+
+public class MeasureInfo implements Cloneable {
+
+    public static final int BOX_TYPE_RECT = 0;
+    public static final int BOX_TYPE_OVAL = 1;
+    public static final int BOX_TYPE_UNDERLINE = 2;
+
+    public static final int BOX_CHAIN_STYLE_FREE = 0;
+    public static final int BOX_CHAIN_STYLE_SPREAD = 1;
+    public static final int BOX_CHAIN_STYLE_SPREAD_INSIDE = 2;
+    public static final int BOX_CHAIN_STYLE_PACKET = 3;
+    //多行分组排列，由GridMeasurer测量
+    public static final int BOX_CHAIN_STYLE_GRID = 4;
+
+    public int passwordLength = 6;
+
+    public int boxType;
+    public int boxChainStyle;
+
+    public float boxWidth, boxHeight;
+    public float boxWidthPercent;
+    public float boxHeightRatio = 1.0f;
+
+    public float boxBorderSize;
+    public float boxSpace;
+    public float boxSpacePercent;
+
+    public boolean mergeRectBoxEnabled;
+    public float mergedRectBoxDividerWidth;
+
+    //多行分组排列：每组的框数（小于等于0表示不分组）、组之间的间距、行间距、每行的框数（小于等于0表示按宽度自动计算）
+    public int groupSize;
+    public float groupSpace;
+    public float boxRowSpace;
+    public int boxesPerRow;
+
+    @Override
+    public MeasureInfo clone() {
+        try {
+            return (MeasureInfo) super.clone();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        MeasureInfo measureInfo = new MeasureInfo();
+        measureInfo.passwordLength = this.passwordLength;
+        measureInfo.boxType = this.boxType;
+        measureInfo.boxChainStyle = this.boxChainStyle;
+        measureInfo.boxWidth = this.boxWidth;
+        measureInfo.boxHeight = this.boxHeight;
+        measureInfo.boxWidthPercent = this.boxWidthPercent;
+        measureInfo.boxHeightRatio = this.boxHeightRatio;
+        measureInfo.boxBorderSize = this.boxBorderSize;
+        measureInfo.boxSpace = this.boxSpace;
+        measureInfo.boxSpacePercent = this.boxSpacePercent;
+        measureInfo.mergeRectBoxEnabled = this.mergeRectBoxEnabled;
+        measureInfo.mergedRectBoxDividerWidth = this.mergedRectBoxDividerWidth;
+        measureInfo.groupSize = this.groupSize;
+        measureInfo.groupSpace = this.groupSpace;
+        measureInfo.boxRowSpace = this.boxRowSpace;
+        measureInfo.boxesPerRow = this.boxesPerRow;
+        return measureInfo;
+    }
+
+    public void copy(MeasureInfo info) {
+        this.passwordLength = info.passwordLength;
+        this.boxType = info.boxType;
+        this.boxChainStyle = info.boxChainStyle;
+        this.boxWidth = info.boxWidth;
+        this.boxHeight = info.boxHeight;
+        this.boxWidthPercent = info.boxWidthPercent;
+        this.boxHeightRatio = info.boxHeightRatio;
+        this.boxBorderSize = info.boxBorderSize;
+        this.boxSpace = info.boxSpace;
+        this.boxSpacePercent = info.boxSpacePercent;
+        this.mergeRectBoxEnabled = info.mergeRectBoxEnabled;
+        this.mergedRectBoxDividerWidth = info.mergedRectBoxDividerWidth;
+        this.groupSize = info.groupSize;
+        this.groupSpace = info.groupSpace;
+        this.boxRowSpace = info.boxRowSpace;
+        this.boxesPerRow = info.boxesPerRow;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MeasureInfo)) return false;
+        MeasureInfo that = (MeasureInfo) o;
+        return passwordLength == that.passwordLength
+                && boxType == that.boxType
+                && boxChainStyle == that.boxChainStyle
+                && Float.compare(that.boxWidth, boxWidth) == 0
+                && Float.compare(that.boxHeight, boxHeight) == 0
+                && Float.compare(that.boxWidthPercent, boxWidthPercent) == 0
+                && Float.compare(that.boxHeightRatio, boxHeightRatio) == 0
+                && Float.compare(that.boxBorderSize, boxBorderSize) == 0
+                && Float.compare(that.boxSpace, boxSpace) == 0
+                && Float.compare(that.boxSpacePercent, boxSpacePercent) == 0
+                && mergeRectBoxEnabled == that.mergeRectBoxEnabled
+                && Float.compare(that.mergedRectBoxDividerWidth, mergedRectBoxDividerWidth) == 0
+                && groupSize == that.groupSize
+                && Float.compare(that.groupSpace, groupSpace) == 0
+                && Float.compare(that.boxRowSpace, boxRowSpace) == 0
+                && boxesPerRow == that.boxesPerRow;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = passwordLength;
+        result = 31 * result + boxType;
+        result = 31 * result + boxChainStyle;
+        result = 31 * result + Float.floatToIntBits(boxWidth);
+        result = 31 * result + Float.floatToIntBits(boxHeight);
+        result = 31 * result + Float.floatToIntBits(boxWidthPercent);
+        result = 31 * result + Float.floatToIntBits(boxHeightRatio);
+        result = 31 * result + Float.floatToIntBits(boxBorderSize);
+        result = 31 * result + Float.floatToIntBits(boxSpace);
+        result = 31 * result + Float.floatToIntBits(boxSpacePercent);
+        result = 31 * result + (mergeRectBoxEnabled ? 1 : 0);
+        result = 31 * result + Float.floatToIntBits(mergedRectBoxDividerWidth);
+        result = 31 * result + groupSize;
+        result = 31 * result + Float.floatToIntBits(groupSpace);
+        result = 31 * result + Float.floatToIntBits(boxRowSpace);
+        result = 31 * result + boxesPerRow;
+        return result;
+    }
+}
@@ -0,0 +1,62 @@
+package com.hyh.widget.measure;
+
+/**
+ * 一次测量的全部输入：测量器类型、测量规格、View参数以及MeasureInfo
+ */
+public final class MeasureKey {
+
+    private Class<?> mMeasurerType;
+    private int mWidthMeasureSpec, mHeightMeasureSpec;
+    private final MeasureParams mParams = new MeasureParams();
+    private final MeasureInfo mInfo = new MeasureInfo();
+
+    public void set(IMeasurer measurer, MeasureParams params,
+                    int widthMeasureSpec, int heightMeasureSpec,
+                    MeasureInfo info) {
+        mMeasurerType = measurer.getClass();
+        mWidthMeasureSpec = widthMeasureSpec;
+        mHeightMeasureSpec = heightMeasureSpec;
+        mParams.copy(params);
+        mInfo.copy(info);
+    }
+
+    public void copy(MeasureKey key) {
+        mMeasurerType = key.mMeasurerType;
+        mWidthMeasureSpec = key.mWidthMeasureSpec;
+        mHeightMeasureSpec = key.mHeightMeasureSpec;
+        mParams.copy(key.mParams);
+        mInfo.copy(key.mInfo);
+    }
+
+    public boolean matches(IMeasurer measurer, MeasureParams params,
+                           int widthMeasureSpec, int heightMeasureSpec,
+                           MeasureInfo info) {
+        return mMeasurerType == measurer.getClass()
+                && mWidthMeasureSpec == widthMeasureSpec
+                && mHeightMeasureSpec == heightMeasureSpec
+                && mParams.equals(params)
+                && mInfo.equals(info);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MeasureKey)) return false;
+        MeasureKey that = (MeasureKey) o;
+        return mMeasurerType == that.mMeasurerType
+                && mWidthMeasureSpec == that.mWidthMeasureSpec
+                && mHeightMeasureSpec == that.mHeightMeasureSpec
+                && mParams.equals(that.mParams)
+                && mInfo.equals(that.mInfo);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = mMeasurerType != null ? mMeasurerType.hashCode() : 0;
+        result = 31 * result + mWidthMeasureSpec;
+        result = 31 * result + mHeightMeasureSpec;
+        result = 31 * result + mParams.hashCode();
+        result = 31 * result + mInfo.hashCode();
+        return result;
+    }
+}
@@ -0,0 +1,57 @@
+package com.hyh.widget.measure;
+
+/**
+ * 测量时需要的View参数：padding与建议的最小宽高
+ */
+public class MeasureParams {
+
+    public int paddingLeft, paddingTop, paddingRight, paddingBottom;
+    public int minimumWidth, minimumHeight;
+
+    public void set(int paddingLeft, int paddingTop, int paddingRight, int paddingBottom,
+                    int minimumWidth, int minimumHeight) {
+        this.paddingLeft = paddingLeft;
+        this.paddingTop = paddingTop;
+        this.paddingRight = paddingRight;
+        this.paddingBottom = paddingBottom;
+        this.minimumWidth = minimumWidth;
+        this.minimumHeight = minimumHeight;
+    }
+
+    public int getHorizontalPadding() {
+        return paddingLeft + paddingRight;
+    }
+
+    public int getVerticalPadding() {
+        return paddingTop + paddingBottom;
+    }
+
+    public void copy(MeasureParams params) {
+        set(params.paddingLeft, params.paddingTop, params.paddingRight, params.paddingBottom,
+                params.minimumWidth, params.minimumHeight);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MeasureParams)) return false;
+        MeasureParams that = (MeasureParams) o;
+        return paddingLeft == that.paddingLeft
+                && paddingTop == that.paddingTop
+                && paddingRight == that.paddingRight
+                && paddingBottom == that.paddingBottom
+                && minimumWidth == that.minimumWidth
+                && minimumHeight == that.minimumHeight;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = paddingLeft;
+        result = 31 * result + paddingTop;
+        result = 31 * result + paddingRight;
+        result = 31 * result + paddingBottom;
+        result = 31 * result + minimumWidth;
+        result = 31 * result + minimumHeight;
+        return result;
+    }
+}
@@ -0,0 +1,81 @@
+package com.hyh.widget.measure;
+
+public class MeasureResult {
+
+    public float measureWidth, measureHeight;
+    public float measureContentWidth, measureContentHeight;
+
+    public float measureBoxWidth, measureBoxHeight;
+    public float measureBoxSpace;
+    public float measureBoxChainMargin;
+
+    public boolean mergedRectBox;
+
+    //多行分组排列的列数、行数、组间距与行间距，单行排列时为0
+    public int measureColumnCount, measureRowCount;
+    public float measureGroupSpace, measureRowSpace;
+
+    public void clear() {
+        measureWidth = measureBoxHeight = 0.0f;
+        measureContentWidth = measureContentHeight = 0.0f;
+        measureBoxWidth = measureBoxHeight = 0.0f;
+        measureBoxSpace = measureBoxChainMargin = 0.0f;
+        mergedRectBox = false;
+        measureColumnCount = measureRowCount = 0;
+        measureGroupSpace = measureRowSpace = 0.0f;
+    }
+
+    public void copy(MeasureResult result) {
+        this.measureWidth = result.measureWidth;
+        this.measureHeight = result.measureHeight;
+        this.measureContentWidth = result.measureContentWidth;
+        this.measureContentHeight = result.measureContentHeight;
+        this.measureBoxWidth = result.measureBoxWidth;
+        this.measureBoxHeight = result.measureBoxHeight;
+        this.measureBoxSpace = result.measureBoxSpace;
+        this.measureBoxChainMargin = result.measureBoxChainMargin;
+        this.mergedRectBox = result.mergedRectBox;
+        this.measureColumnCount = result.measureColumnCount;
+        this.measureRowCount = result.measureRowCount;
+        this.measureGroupSpace = result.measureGroupSpace;
+        this.measureRowSpace = result.measureRowSpace;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MeasureResult)) return false;
+        MeasureResult that = (MeasureResult) o;
+        return Float.compare(that.measureWidth, measureWidth) == 0
+                && Float.compare(that.measureHeight, measureHeight) == 0
+                && Float.compare(that.measureContentWidth, measureContentWidth) == 0
+                && Float.compare(that.measureContentHeight, measureContentHeight) == 0
+                && Float.compare(that.measureBoxWidth, measureBoxWidth) == 0
+                && Float.compare(that.measureBoxHeight, measureBoxHeight) == 0
+                && Float.compare(that.measureBoxSpace, measureBoxSpace) == 0
+                && Float.compare(that.measureBoxChainMargin, measureBoxChainMargin) == 0
+                && that.mergedRectBox == mergedRectBox
+                && measureColumnCount == that.measureColumnCount
+                && measureRowCount == that.measureRowCount
+                && Float.compare(that.measureGroupSpace, measureGroupSpace) == 0
+                && Float.compare(that.measureRowSpace, measureRowSpace) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Float.floatToIntBits(measureWidth);
+        result = 31 * result + Float.floatToIntBits(measureHeight);
+        result = 31 * result + Float.floatToIntBits(measureContentWidth);
+        result = 31 * result + Float.floatToIntBits(measureContentHeight);
+        result = 31 * result + Float.floatToIntBits(measureBoxWidth);
+        result = 31 * result + Float.floatToIntBits(measureBoxHeight);
+        result = 31 * result + Float.floatToIntBits(measureBoxSpace);
+        result = 31 * result + Float.floatToIntBits(measureBoxChainMargin);
+        result = 31 * result + (mergedRectBox ? 1 : 0);
+        result = 31 * result + measureColumnCount;
+        result = 31 * result + measureRowCount;
+        result = 31 * result + Float.floatToIntBits(measureGroupSpace);
+        result = 31 * result + Float.floatToIntBits(measureRowSpace);
+        return result;
+    }
+}
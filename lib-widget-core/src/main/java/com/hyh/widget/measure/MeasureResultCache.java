@@ -0,0 +1,86 @@
+package com.hyh.widget.measure;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 按{@link MeasureKey}缓存{@link MeasureResult}的LRU，进程内共享一个实例，
+ * 使列表中样式相同的View复用同一次测量结果，默认容量为0即不缓存
+ */
+public final class MeasureResultCache {
+
+    private static final MeasureResultCache sShared = new MeasureResultCache(0);
+
+    public static MeasureResultCache getShared() {
+        return sShared;
+    }
+
+    private final LinkedHashMap<MeasureKey, MeasureResult> mEntries = new LinkedHashMap<>(16, 0.75f, true);
+    private int mMaxSize;
+    private long mHitCount, mMissCount;
+
+    public MeasureResultCache(int maxSize) {
+        mMaxSize = maxSize;
+    }
+
+    public synchronized void setMaxSize(int maxSize) {
+        mMaxSize = maxSize;
+        trimToSize();
+    }
+
+    public synchronized int getMaxSize() {
+        return mMaxSize;
+    }
+
+    public synchronized boolean isEnabled() {
+        return mMaxSize > 0;
+    }
+
+    /**
+     * @return 命中时把结果拷贝到result中并返回true
+     */
+    public synchronized boolean get(MeasureKey key, MeasureResult result) {
+        if (mMaxSize <= 0) return false;
+        MeasureResult cached = mEntries.get(key);
+        if (cached == null) {
+            mMissCount++;
+            return false;
+        }
+        mHitCount++;
+        result.copy(cached);
+        return true;
+    }
+
+    public synchronized void put(MeasureKey key, MeasureResult result) {
+        if (mMaxSize <= 0) return;
+        MeasureKey entryKey = new MeasureKey();
+        entryKey.copy(key);
+        MeasureResult entryResult = new MeasureResult();
+        entryResult.copy(result);
+        mEntries.put(entryKey, entryResult);
+        trimToSize();
+    }
+
+    public synchronized void clear() {
+        mEntries.clear();
+    }
+
+    public synchronized long getHitCount() {
+        return mHitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return mMissCount;
+    }
+
+    public synchronized void resetCounts() {
+        mHitCount = mMissCount = 0;
+    }
+
+    private void trimToSize() {
+        while (mEntries.size() > Math.max(0, mMaxSize)) {
+            Map.Entry<MeasureKey, MeasureResult> eldest = mEntries.entrySet().iterator().next();
+            mEntries.remove(eldest.getKey());
+        }
+    }
+}
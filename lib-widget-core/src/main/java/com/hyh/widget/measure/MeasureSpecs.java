@@ -0,0 +1,50 @@
+package com.hyh.widget.measure;
+
+/**
+ * 与android.view.View.MeasureSpec取值一致的测量规格工具，使测量逻辑不依赖Android
+ */
+public final class MeasureSpecs {
+
+    private static final int MODE_SHIFT = 30;
+    private static final int MODE_MASK = 0x3 << MODE_SHIFT;
+
+    public static final int UNSPECIFIED = 0;
+    public static final int EXACTLY = 1 << MODE_SHIFT;
+    public static final int AT_MOST = 2 << MODE_SHIFT;
+
+    private MeasureSpecs() {
+    }
+
+    public static int makeMeasureSpec(int size, int mode) {
+        return (size & ~MODE_MASK) | (mode & MODE_MASK);
+    }
+
+    public static int getMode(int measureSpec) {
+        return measureSpec & MODE_MASK;
+    }
+
+    public static int getSize(int measureSpec) {
+        return measureSpec & ~MODE_MASK;
+    }
+
+    /**
+     * 与View.getDefaultSize一致
+     */
+    public static int getDefaultSize(int size, int measureSpec) {
+        int result = size;
+        int specMode = getMode(measureSpec);
+        int specSize = getSize(measureSpec);
+        switch (specMode) {
+            case UNSPECIFIED: {
+                result = size;
+                break;
+            }
+            case AT_MOST:
+            case EXACTLY: {
+                result = specSize;
+                break;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,58 @@
+package com.hyh.widget.measure;
+
+/**
+ * 包装一个{@link IMeasurer}，输入与上一次完全相同时直接返回上一次的结果；
+ * 共享的{@link MeasureResultCache}开启时，再到进程内的LRU中查找
+ */
+public class MemoizingMeasurer implements IMeasurer {
+
+    private final IMeasurer mMeasurer;
+    private final MeasureKey mLastKey = new MeasureKey();
+    private final MeasureResult mLastResult = new MeasureResult();
+    private boolean mHasLast;
+
+    private long mHitCount, mMissCount;
+
+    public MemoizingMeasurer(IMeasurer measurer) {
+        mMeasurer = measurer;
+    }
+
+    public IMeasurer getMeasurer() {
+        return mMeasurer;
+    }
+
+    @Override
+    public void measure(MeasureParams params,
+                        int widthMeasureSpec, int heightMeasureSpec,
+                        MeasureInfo measureInfo,
+                        MeasureResult result) {
+        if (mHasLast && mLastKey.matches(mMeasurer, params, widthMeasureSpec, heightMeasureSpec, measureInfo)) {
+            mHitCount++;
+            result.copy(mLastResult);
+            return;
+        }
+        mLastKey.set(mMeasurer, params, widthMeasureSpec, heightMeasureSpec, measureInfo);
+        MeasureResultCache sharedCache = MeasureResultCache.getShared();
+        if (sharedCache.get(mLastKey, result)) {
+            mHitCount++;
+        } else {
+            mMissCount++;
+            mMeasurer.measure(params, widthMeasureSpec, heightMeasureSpec, measureInfo, result);
+            sharedCache.put(mLastKey, result);
+        }
+        mLastResult.copy(result);
+        mHasLast = true;
+    }
+
+    public void invalidate() {
+        mHasLast = false;
+    }
+
+    public long getHitCount() {
+        return mHitCount;
+    }
+
+    public long getMissCount() {
+        return mMissCount;
+    }
+}
@@ -0,0 +1,72 @@
+package com.hyh.widget.kdf;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class Pbkdf2KdfTest {
+
+    @Test
+    public void deriveMatchesRfc6070Vector() throws Exception {
+        Pbkdf2Kdf kdf = new Pbkdf2Kdf(Pbkdf2Kdf.ALGORITHM_HMAC_SHA1, "salt".getBytes("US-ASCII"), 2, 160);
+        byte[] key = kdf.derive("password".toCharArray(), 8);
+        assertArrayEquals(hex("ea6c014dc72d6f8ccd1ed92ace1d41f0d8de8957"), key);
+    }
+
+    @Test
+    public void deriveOnlyReadsLengthCharsAndKeepsInput() throws Exception {
+        Pbkdf2Kdf kdf = new Pbkdf2Kdf(Pbkdf2Kdf.ALGORITHM_HMAC_SHA1, new byte[16], 10, 128);
+        char[] buffer = {'1', '2', '3', '4', '5', '6', '\0', '\0'};
+
+        byte[] prefix = kdf.derive(buffer, 6);
+        byte[] exact = kdf.derive(Arrays.copyOf(buffer, 6), 6);
+
+        assertArrayEquals(exact, prefix);
+        assertEquals('1', buffer[0]);
+        assertEquals('6', buffer[5]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptySaltIsRejected() {
+        new Pbkdf2Kdf(Pbkdf2Kdf.ALGORITHM_HMAC_SHA1, new byte[0], 1000, 256);
+    }
+
+    @Test
+    public void calibratedIterationsScaleWithBudget() throws Exception {
+        int small = Pbkdf2Kdf.calibrateIterations(Pbkdf2Kdf.ALGORITHM_HMAC_SHA1, 256, 20);
+        int large = Pbkdf2Kdf.calibrateIterations(Pbkdf2Kdf.ALGORITHM_HMAC_SHA1, 256, 160);
+
+        assertTrue(small > 0);
+        //预算是8倍，计时误差较大时也应该明显更多
+        assertTrue("small: " + small + ", large: " + large, large > small * 2);
+    }
+
+    @Test
+    public void calibratedIterationsTakeRoughlyTheBudget() throws Exception {
+        long budgetMillis = 100;
+        int iterations = Pbkdf2Kdf.calibrateIterations(Pbkdf2Kdf.ALGORITHM_HMAC_SHA1, 256, budgetMillis);
+        Pbkdf2Kdf kdf = new Pbkdf2Kdf(Pbkdf2Kdf.ALGORITHM_HMAC_SHA1, new byte[16], iterations, 256);
+        char[] password = "123456".toCharArray();
+
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            kdf.derive(password, password.length);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        long millis = best / 1000000L;
+        assertTrue("took " + millis + " ms", millis >= budgetMillis / 4 && millis <= budgetMillis * 4);
+    }
+
+    private static byte[] hex(String hex) {
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int index = 0; index < bytes.length; index++) {
+            bytes[index] = (byte) Integer.parseInt(hex.substring(index * 2, index * 2 + 2), 16);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,168 @@
+package com.hyh.widget.measure;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class BoxGeometryTest {
+
+    private static final float DELTA = 0.001f;
+
+    private final BoundMeasurer mMeasurer = new BoundMeasurer();
+    private final MeasureParams mParams = new MeasureParams();
+    private final MeasureResult mResult = new MeasureResult();
+    private MeasureInfo mInfo;
+    private BoxGeometry mGeometry;
+
+    @Before
+    public void setUp() {
+        mInfo = new MeasureInfo();
+        mInfo.boxType = MeasureInfo.BOX_TYPE_RECT;
+        mInfo.boxChainStyle = MeasureInfo.BOX_CHAIN_STYLE_FREE;
+        mInfo.boxWidth = 40;
+        mInfo.boxHeightRatio = 1.0f;
+        mInfo.boxBorderSize = 2;
+        mInfo.boxSpace = 10;
+        mParams.set(16, 8, 16, 8, 0, 0);
+        mGeometry = new BoxGeometry();
+    }
+
+    private int measureUnspecified() {
+        mResult.clear();
+        int unspecified = MeasureSpecs.makeMeasureSpec(0, MeasureSpecs.UNSPECIFIED);
+        mMeasurer.measure(mParams, unspecified, unspecified, mInfo, mResult);
+        //与PasswordRenderer一样由框的尺寸算出内容尺寸
+        int passwordLength = mInfo.passwordLength;
+        mResult.measureContentWidth = mParams.getHorizontalPadding()
+                + mResult.measureBoxWidth * passwordLength
+                + mInfo.boxBorderSize * 2 * passwordLength
+                + (mResult.mergedRectBox ? (mInfo.mergedRectBoxDividerWidth - 2 * mInfo.boxBorderSize) * (passwordLength - 1) : 0)
+                + mResult.measureBoxSpace * (passwordLength - 1)
+                + mResult.measureBoxChainMargin * 2;
+        mResult.measureContentHeight = mParams.getVerticalPadding()
+                + mResult.measureBoxHeight
+                + 2 * mInfo.boxBorderSize;
+        return Math.round(mResult.measureWidth);
+    }
+
+    @Test
+    public void computeLaysOutEveryBoxOnePitchApart() {
+        int width = measureUnspecified();
+        int height = Math.round(mResult.measureHeight);
+
+        assertTrue(mGeometry.compute(mInfo, mResult, mParams, width, height));
+        assertTrue(mGeometry.valid);
+        assertFalse(mGeometry.windowed);
+        assertEquals(mInfo.passwordLength, mGeometry.count);
+        assertEquals(0, mGeometry.firstIndex);
+
+        float pitch = mResult.measureBoxWidth + mInfo.boxBorderSize * 2 + mResult.measureBoxSpace;
+        assertEquals(pitch, mGeometry.pitch, DELTA);
+        float[] boxes = mGeometry.boxes;
+        for (int index = 0; index < mGeometry.count; index++) {
+            int offset = index * 4;
+            assertEquals(mResult.measureBoxWidth, boxes[offset + 2] - boxes[offset], DELTA);
+            assertEquals(mResult.measureBoxHeight, boxes[offset + 3] - boxes[offset + 1], DELTA);
+            if (index > 0) {
+                assertEquals(pitch, boxes[offset] - boxes[offset - 4], DELTA);
+            }
+        }
+        assertTrue(mGeometry.matchesPadding(16, 8, 16, 8));
+    }
+
+    @Test
+    public void mergedRectBoxesShareOneFrame() {
+        mInfo.boxSpace = 0;
+        mInfo.mergeRectBoxEnabled = true;
+        mInfo.mergedRectBoxDividerWidth = 1;
+        int width = measureUnspecified();
+
+        assertTrue(mGeometry.compute(mInfo, mResult, mParams, width, Math.round(mResult.measureHeight)));
+        assertTrue(mResult.mergedRectBox);
+        assertEquals(mResult.measureBoxWidth + mInfo.mergedRectBoxDividerWidth, mGeometry.pitch, DELTA);
+        //分割线在两个框的正中间
+        float[] boxes = mGeometry.boxes;
+        float[] borders = mGeometry.borders;
+        assertEquals((boxes[2] + boxes[4]) * 0.5f, borders[0], DELTA);
+    }
+
+    @Test
+    public void unsupportedBoxTypeInvalidatesGeometry() {
+        int width = measureUnspecified();
+        mInfo.boxType = 100;
+
+        assertFalse(mGeometry.compute(mInfo, mResult, mParams, width, Math.round(mResult.measureHeight)));
+        assertFalse(mGeometry.valid);
+    }
+
+    @Test
+    public void setCountKeepsArraysAtHighWaterMark() {
+        mGeometry.setCount(8);
+        float[] boxes = mGeometry.boxes;
+        float[] borders = mGeometry.borders;
+
+        mGeometry.setCount(4);
+        mGeometry.setCount(6);
+        mGeometry.setCount(8);
+
+        assertEquals(8, mGeometry.count);
+        assertSame(boxes, mGeometry.boxes);
+        assertSame(borders, mGeometry.borders);
+    }
+
+    @Test
+    public void computeWindowOnlyCoversVisibleBoxes() {
+        mInfo.passwordLength = 30;
+        measureUnspecified();
+        int viewWidth = 300;
+        int height = Math.round(mResult.measureHeight);
+
+        assertTrue(mGeometry.computeWindow(mInfo, mResult, mParams, viewWidth, height, 0));
+        assertTrue(mGeometry.windowed);
+        assertEquals(0, mGeometry.firstIndex);
+        assertTrue(mGeometry.count < mInfo.passwordLength);
+        assertTrue(mGeometry.coversWindow(mInfo.passwordLength, 0));
+        assertTrue(mGeometry.getMaxScrollX() > 0);
+
+        float scrollX = mGeometry.getMaxScrollX();
+        assertFalse(mGeometry.coversWindow(mInfo.passwordLength, scrollX));
+        assertTrue(mGeometry.computeWindow(mInfo, mResult, mParams, viewWidth, height, scrollX));
+        assertEquals(mInfo.passwordLength - 1, mGeometry.firstIndex + mGeometry.count - 1);
+        assertTrue(mGeometry.coversWindow(mInfo.passwordLength, scrollX));
+    }
+
+    @Test
+    public void computeWindowFallsBackToFullLayoutWhenChainFits() {
+        int width = measureUnspecified();
+
+        assertTrue(mGeometry.computeWindow(mInfo, mResult, mParams, width, Math.round(mResult.measureHeight), 0));
+        assertFalse(mGeometry.windowed);
+        assertEquals(mInfo.passwordLength, mGeometry.count);
+        assertEquals(0, mGeometry.getMaxScrollX(), DELTA);
+    }
+
+    @Test
+    public void computeGridSplitsContentIntoEqualCells() {
+        MeasureParams params = new MeasureParams();
+        params.set(10, 10, 10, 10, 0, 0);
+
+        assertTrue(mGeometry.computeGrid(3, 4, 5, 0, params, 320, 420));
+        assertEquals(12, mGeometry.count);
+        float cellWidth = (300 - 5 * 2) / 3f;
+        float cellHeight = (400 - 5 * 3) / 4f;
+        float[] boxes = mGeometry.boxes;
+        //第2行第3列
+        int offset = (1 * 3 + 2) * 4;
+        assertEquals((cellWidth + 5) * 2, boxes[offset], DELTA);
+        assertEquals(cellHeight + 5, boxes[offset + 1], DELTA);
+        assertEquals(cellWidth, boxes[offset + 2] - boxes[offset], DELTA);
+        assertEquals(cellHeight, boxes[offset + 3] - boxes[offset + 1], DELTA);
+
+        assertFalse(mGeometry.computeGrid(3, 4, 200, 0, params, 320, 420));
+        assertFalse(mGeometry.valid);
+    }
+}
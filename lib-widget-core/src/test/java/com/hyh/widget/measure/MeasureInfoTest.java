@@ -0,0 +1,106 @@
+package com.hyh.widget.measure;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotSame;
+
+public class MeasureInfoTest {
+
+    private static final int FIELD_COUNT = 16;
+
+    private static MeasureInfo newInfo() {
+        MeasureInfo info = new MeasureInfo();
+        info.passwordLength = 8;
+        info.boxType = MeasureInfo.BOX_TYPE_OVAL;
+        info.boxChainStyle = MeasureInfo.BOX_CHAIN_STYLE_PACKET;
+        info.boxWidth = 40;
+        info.boxHeight = 48;
+        info.boxWidthPercent = 0.1f;
+        info.boxHeightRatio = 1.2f;
+        info.boxBorderSize = 2;
+        info.boxSpace = 8;
+        info.boxSpacePercent = 0.02f;
+        info.mergeRectBoxEnabled = true;
+        info.mergedRectBoxDividerWidth = 1;
+        info.groupSize = 4;
+        info.groupSpace = 16;
+        info.boxRowSpace = 12;
+        info.boxesPerRow = 4;
+        return info;
+    }
+
+    @Test
+    public void equalInfosHaveEqualHashCodes() {
+        MeasureInfo info = newInfo();
+        MeasureInfo other = newInfo();
+
+        assertEquals(info, other);
+        assertEquals(info.hashCode(), other.hashCode());
+    }
+
+    @Test
+    public void everyFieldTakesPartInEquals() {
+        MeasureInfo info = newInfo();
+        for (int field = 0; field < FIELD_COUNT; field++) {
+            MeasureInfo other = newInfo();
+            change(other, field);
+            assertNotEquals("field " + field, info, other);
+            assertNotEquals("field " + field, info.hashCode(), other.hashCode());
+        }
+    }
+
+    @Test
+    public void copyAndCloneAreEqualButIndependent() {
+        MeasureInfo info = newInfo();
+
+        MeasureInfo copy = new MeasureInfo();
+        copy.copy(info);
+        assertEquals(info, copy);
+
+        MeasureInfo clone = info.clone();
+        assertNotSame(info, clone);
+        assertEquals(info, clone);
+        clone.boxWidth = 30;
+        assertEquals(40, info.boxWidth, 0);
+    }
+
+    @Test
+    public void copyAndCloneKeepGridFields() {
+        MeasureInfo info = newInfo();
+
+        MeasureInfo copy = new MeasureInfo();
+        copy.copy(info);
+        assertEquals(info.groupSize, copy.groupSize);
+        assertEquals(info.groupSpace, copy.groupSpace, 0);
+        assertEquals(info.boxRowSpace, copy.boxRowSpace, 0);
+        assertEquals(info.boxesPerRow, copy.boxesPerRow);
+
+        MeasureInfo clone = info.clone();
+        assertEquals(info, clone);
+        clone.boxesPerRow = 3;
+        assertEquals(4, info.boxesPerRow);
+    }
+
+    private static void change(MeasureInfo info, int field) {
+        switch (field) {
+            case 0: info.passwordLength++; break;
+            case 1: info.boxType = MeasureInfo.BOX_TYPE_RECT; break;
+            case 2: info.boxChainStyle = MeasureInfo.BOX_CHAIN_STYLE_FREE; break;
+            case 3: info.boxWidth++; break;
+            case 4: info.boxHeight++; break;
+            case 5: info.boxWidthPercent += 0.1f; break;
+            case 6: info.boxHeightRatio += 0.1f; break;
+            case 7: info.boxBorderSize++; break;
+            case 8: info.boxSpace++; break;
+            case 9: info.boxSpacePercent += 0.1f; break;
+            case 10: info.mergeRectBoxEnabled = !info.mergeRectBoxEnabled; break;
+            case 11: info.mergedRectBoxDividerWidth++; break;
+            case 12: info.groupSize++; break;
+            case 13: info.groupSpace++; break;
+            case 14: info.boxRowSpace++; break;
+            case 15: info.boxesPerRow++; break;
+        }
+    }
+}
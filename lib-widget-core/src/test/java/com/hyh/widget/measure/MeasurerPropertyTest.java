@@ -0,0 +1,126 @@
+package com.hyh.widget.measure;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 对三种测量器遍历所有链式风格、框类型、密码长度与测量规格模式，检查测量结果满足的约束
+ */
+public class MeasurerPropertyTest {
+
+    private static final float DELTA = 0.01f;
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 400;
+
+    private static final int[] CHAIN_STYLES = {
+            MeasureInfo.BOX_CHAIN_STYLE_FREE,
+            MeasureInfo.BOX_CHAIN_STYLE_SPREAD,
+            MeasureInfo.BOX_CHAIN_STYLE_SPREAD_INSIDE,
+            MeasureInfo.BOX_CHAIN_STYLE_PACKET
+    };
+    private static final int[] BOX_TYPES = {
+            MeasureInfo.BOX_TYPE_RECT,
+            MeasureInfo.BOX_TYPE_OVAL,
+            MeasureInfo.BOX_TYPE_UNDERLINE
+    };
+    private static final int[] MODES = {
+            MeasureSpecs.UNSPECIFIED,
+            MeasureSpecs.EXACTLY,
+            MeasureSpecs.AT_MOST
+    };
+
+    @Test
+    public void boundMeasurer() {
+        checkAll(new BoundMeasurer());
+    }
+
+    @Test
+    public void fillMeasurer() {
+        checkAll(new FillMeasurer());
+    }
+
+    @Test
+    public void freeMeasurer() {
+        checkAll(new FreeMeasurer());
+    }
+
+    private static void checkAll(IMeasurer measurer) {
+        MeasureParams params = new MeasureParams();
+        params.set(16, 8, 16, 8, 0, 0);
+        MeasureResult result = new MeasureResult();
+        for (int chainStyle : CHAIN_STYLES) {
+            for (int boxType : BOX_TYPES) {
+                for (int passwordLength = 1; passwordLength <= 12; passwordLength++) {
+                    for (int widthMode : MODES) {
+                        for (int heightMode : MODES) {
+                            MeasureInfo info = new MeasureInfo();
+                            info.passwordLength = passwordLength;
+                            info.boxType = boxType;
+                            info.boxChainStyle = chainStyle;
+                            info.boxWidth = 40;
+                            info.boxBorderSize = 2;
+                            info.boxSpace = 8;
+                            info.mergeRectBoxEnabled = true;
+                            info.mergedRectBoxDividerWidth = 1;
+
+                            result.clear();
+                            measurer.measure(params,
+                                    MeasureSpecs.makeMeasureSpec(WIDTH, widthMode),
+                                    MeasureSpecs.makeMeasureSpec(HEIGHT, heightMode),
+                                    info, result);
+                            String message = measurer.getClass().getSimpleName()
+                                    + " chainStyle=" + chainStyle + " boxType=" + boxType
+                                    + " passwordLength=" + passwordLength
+                                    + " widthMode=" + (widthMode >>> 30) + " heightMode=" + (heightMode >>> 30);
+                            check(message, params, info, result, widthMode, heightMode);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static void check(String message, MeasureParams params, MeasureInfo info, MeasureResult result,
+                              int widthMode, int heightMode) {
+        float[] values = {
+                result.measureWidth, result.measureHeight,
+                result.measureBoxWidth, result.measureBoxHeight,
+                result.measureBoxSpace, result.measureBoxChainMargin
+        };
+        for (float value : values) {
+            assertTrue(message, !Float.isNaN(value) && !Float.isInfinite(value) && value >= 0);
+        }
+
+        if (widthMode == MeasureSpecs.EXACTLY) {
+            assertEquals(message, WIDTH, result.measureWidth, DELTA);
+        } else if (widthMode == MeasureSpecs.AT_MOST) {
+            assertTrue(message, result.measureWidth <= WIDTH + DELTA);
+        }
+        if (heightMode == MeasureSpecs.EXACTLY) {
+            assertEquals(message, HEIGHT, result.measureHeight, DELTA);
+        } else if (heightMode == MeasureSpecs.AT_MOST) {
+            assertTrue(message, result.measureHeight <= HEIGHT + DELTA);
+        }
+
+        //整条链放得下；不限制宽度时链正好撑满测量宽度
+        int length = info.passwordLength;
+        float chainWidth;
+        if (result.mergedRectBox) {
+            chainWidth = result.measureBoxWidth * length + info.boxBorderSize * 2
+                    + info.mergedRectBoxDividerWidth * (length - 1);
+        } else {
+            chainWidth = (result.measureBoxWidth + info.boxBorderSize * 2) * length
+                    + result.measureBoxSpace * (length - 1);
+        }
+        chainWidth += result.measureBoxChainMargin * 2 + params.getHorizontalPadding();
+        if (widthMode == MeasureSpecs.UNSPECIFIED) {
+            assertEquals(message, result.measureWidth, chainWidth, DELTA);
+        } else {
+            assertTrue(message, chainWidth <= result.measureWidth + DELTA);
+        }
+        assertTrue(message, result.measureBoxHeight + info.boxBorderSize * 2 + params.getVerticalPadding()
+                <= result.measureHeight + DELTA);
+    }
+}
@@ -0,0 +1,188 @@
+package com.hyh.widget.measure;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class MemoizingMeasurerTest {
+
+    private final MeasureParams mParams = new MeasureParams();
+    private final MeasureInfo mInfo = new MeasureInfo();
+    private int mWidthMeasureSpec;
+    private int mHeightMeasureSpec;
+
+    @Before
+    public void setUp() {
+        mInfo.boxType = MeasureInfo.BOX_TYPE_RECT;
+        mInfo.boxChainStyle = MeasureInfo.BOX_CHAIN_STYLE_SPREAD;
+        mInfo.boxWidth = 40;
+        mInfo.boxBorderSize = 1;
+        mInfo.boxSpace = 8;
+        mParams.set(16, 8, 16, 8, 0, 0);
+        mWidthMeasureSpec = MeasureSpecs.makeMeasureSpec(1080, MeasureSpecs.EXACTLY);
+        mHeightMeasureSpec = MeasureSpecs.makeMeasureSpec(0, MeasureSpecs.UNSPECIFIED);
+    }
+
+    @After
+    public void tearDown() {
+        MeasureResultCache sharedCache = MeasureResultCache.getShared();
+        sharedCache.setMaxSize(0);
+        sharedCache.clear();
+        sharedCache.resetCounts();
+    }
+
+    @Test
+    public void sameInputReusesLastResult() {
+        CountingMeasurer counting = new CountingMeasurer();
+        MemoizingMeasurer measurer = new MemoizingMeasurer(counting);
+        MeasureResult first = new MeasureResult();
+        MeasureResult second = new MeasureResult();
+
+        measurer.measure(mParams, mWidthMeasureSpec, mHeightMeasureSpec, mInfo, first);
+        measurer.measure(mParams, mWidthMeasureSpec, mHeightMeasureSpec, mInfo, second);
+
+        assertEquals(1, counting.count);
+        assertEquals(first, second);
+        assertEquals(1, measurer.getHitCount());
+        assertEquals(1, measurer.getMissCount());
+    }
+
+    @Test
+    public void changedInputOrInvalidateMeasuresAgain() {
+        CountingMeasurer counting = new CountingMeasurer();
+        MemoizingMeasurer measurer = new MemoizingMeasurer(counting);
+        MeasureResult result = new MeasureResult();
+
+        measurer.measure(mParams, mWidthMeasureSpec, mHeightMeasureSpec, mInfo, result);
+        mInfo.boxSpace = 4;
+        measurer.measure(mParams, mWidthMeasureSpec, mHeightMeasureSpec, mInfo, result);
+        mInfo.boxesPerRow = 3;
+        measurer.measure(mParams, mWidthMeasureSpec, mHeightMeasureSpec, mInfo, result);
+        mParams.paddingLeft++;
+        measurer.measure(mParams, mWidthMeasureSpec, mHeightMeasureSpec, mInfo, result);
+        measurer.measure(mParams, MeasureSpecs.makeMeasureSpec(720, MeasureSpecs.EXACTLY), mHeightMeasureSpec, mInfo, result);
+        assertEquals(5, counting.count);
+
+        measurer.invalidate();
+        measurer.measure(mParams, MeasureSpecs.makeMeasureSpec(720, MeasureSpecs.EXACTLY), mHeightMeasureSpec, mInfo, result);
+        assertEquals(6, counting.count);
+    }
+
+    @Test
+    public void sharedCacheServesOtherInstances() {
+        MeasureResultCache.getShared().setMaxSize(4);
+        CountingMeasurer counting = new CountingMeasurer();
+        MeasureResult first = new MeasureResult();
+        MeasureResult second = new MeasureResult();
+
+        new MemoizingMeasurer(counting).measure(mParams, mWidthMeasureSpec, mHeightMeasureSpec, mInfo, first);
+        new MemoizingMeasurer(counting).measure(mParams, mWidthMeasureSpec, mHeightMeasureSpec, mInfo, second);
+
+        assertEquals(1, counting.count);
+        assertEquals(first, second);
+        assertEquals(1, MeasureResultCache.getShared().getHitCount());
+    }
+
+    @Test
+    public void cacheEvictsLeastRecentlyUsed() {
+        MeasureResultCache cache = new MeasureResultCache(2);
+        IMeasurer measurer = new BoundMeasurer();
+        MeasureKey[] keys = new MeasureKey[3];
+        MeasureResult result = new MeasureResult();
+        for (int index = 0; index < keys.length; index++) {
+            mInfo.passwordLength = 4 + index;
+            keys[index] = new MeasureKey();
+            keys[index].set(measurer, mParams, mWidthMeasureSpec, mHeightMeasureSpec, mInfo);
+        }
+
+        cache.put(keys[0], result);
+        cache.put(keys[1], result);
+        //访问0之后1成为最久未使用的
+        assertTrue(cache.get(keys[0], result));
+        cache.put(keys[2], result);
+
+        assertTrue(cache.get(keys[0], result));
+        assertFalse(cache.get(keys[1], result));
+        assertTrue(cache.get(keys[2], result));
+
+        cache.setMaxSize(0);
+        assertFalse(cache.isEnabled());
+        assertFalse(cache.get(keys[0], result));
+    }
+
+    @Test
+    public void cacheStoresCopiesOfKeyAndResult() {
+        MeasureResultCache cache = new MeasureResultCache(1);
+        MeasureKey key = new MeasureKey();
+        key.set(new BoundMeasurer(), mParams, mWidthMeasureSpec, mHeightMeasureSpec, mInfo);
+        MeasureResult result = new MeasureResult();
+        result.measureWidth = 100;
+        cache.put(key, result);
+
+        result.measureWidth = 200;
+        MeasureResult cached = new MeasureResult();
+        assertTrue(cache.get(key, cached));
+        assertEquals(100, cached.measureWidth, 0);
+
+        mInfo.passwordLength++;
+        key.set(new BoundMeasurer(), mParams, mWidthMeasureSpec, mHeightMeasureSpec, mInfo);
+        assertFalse(cache.get(key, cached));
+    }
+
+    @Test
+    public void repeatedMeasureAndLayoutDoesNotAllocate() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        assumeTrue(allocationBean.isThreadAllocatedMemorySupported());
+        allocationBean.setThreadAllocatedMemoryEnabled(true);
+
+        MemoizingMeasurer measurer = new MemoizingMeasurer(new BoundMeasurer());
+        MeasureResult result = new MeasureResult();
+        BoxGeometry geometry = new BoxGeometry();
+        int[] passwordLengths = {4, 6, 8};
+        int rounds = 10000;
+        //预热，让数组长到最大的密码长度
+        for (int round = 0; round < rounds; round++) {
+            measureAndLayout(measurer, result, geometry, passwordLengths[round % passwordLengths.length]);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long start = allocationBean.getThreadAllocatedBytes(threadId);
+        for (int round = 0; round < rounds; round++) {
+            measureAndLayout(measurer, result, geometry, passwordLengths[round % passwordLengths.length]);
+        }
+        long allocated = allocationBean.getThreadAllocatedBytes(threadId) - start;
+        //允许计数本身的少量开销，每次测量与布局都分配时至少有rounds个字节
+        assertTrue("allocated " + allocated + " bytes", allocated < rounds);
+    }
+
+    private void measureAndLayout(MemoizingMeasurer measurer, MeasureResult result, BoxGeometry geometry, int passwordLength) {
+        mInfo.passwordLength = passwordLength;
+        result.clear();
+        measurer.measure(mParams, mWidthMeasureSpec, mHeightMeasureSpec, mInfo, result);
+        geometry.invalidate();
+        geometry.compute(mInfo, result, mParams, 1080, Math.round(result.measureHeight));
+    }
+
+    private static class CountingMeasurer implements IMeasurer {
+
+        private final BoundMeasurer mMeasurer = new BoundMeasurer();
+        int count;
+
+        @Override
+        public void measure(MeasureParams params, int widthMeasureSpec, int heightMeasureSpec,
+                            MeasureInfo measureInfo, MeasureResult result) {
+            count++;
+            mMeasurer.measure(params, widthMeasureSpec, heightMeasureSpec, measureInfo, result);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.hyh.widget;
+
+import android.app.Instrumentation;
+import android.os.Build;
+import android.os.SystemClock;
+import android.util.Log;
+import android.view.inputmethod.EditorInfo;
+import android.view.inputmethod.InputConnection;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.SdkSuppress;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 用{@link PasswordViewMetrics}统计绘制次数：逐位输入每位最多绘制一次，同一帧内的多次输入合并成一次绘制，
+ * 光标闪烁每次切换最多绘制一次。结果输出到logcat，TAG为PasswordView_DrawCount
+ */
+@RunWith(AndroidJUnit4.class)
+@SdkSuppress(minSdkVersion = Build.VERSION_CODES.JELLY_BEAN)
+public class DrawCountTest {
+
+    private static final String TAG = "PasswordView_DrawCount";
+
+    private static final String PIN = "246810";
+    private static final long BLINK_WATCH_MILLIS = 2000;
+
+    private Instrumentation mInstrumentation;
+    private TestActivity mActivity;
+    private PasswordView mPasswordView;
+    private final PasswordViewMetrics mMetrics = new PasswordViewMetrics();
+
+    @Before
+    public void setUp() throws InterruptedException {
+        mInstrumentation = InstrumentationRegistry.getInstrumentation();
+        mActivity = TestActivity.launch();
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mPasswordView = new PasswordView(mActivity);
+                mPasswordView.setPasswordLength(PIN.length());
+                mPasswordView.setMetrics(mMetrics);
+                mActivity.setContentView(mPasswordView);
+            }
+        });
+        TestActivity.awaitFrame(mPasswordView);
+    }
+
+    @After
+    public void tearDown() {
+        mActivity.finish();
+    }
+
+    @Test
+    public void typingDrawsAtMostOncePerDigit() throws InterruptedException {
+        setCursorEnabled(false);
+        for (int index = 0; index < PIN.length(); index++) {
+            commitText(PIN.subSequence(index, index + 1));
+            TestActivity.awaitFrame(mPasswordView);
+        }
+
+        long drawCount = mMetrics.getDrawCount();
+        Log.i(TAG, String.format(Locale.US, "one digit per frame: %d digits, %d draws, %d text invalidates",
+                PIN.length(), drawCount, mMetrics.getTextInvalidateCount()));
+        assertTrue(drawCount + " draws", drawCount <= PIN.length());
+    }
+
+    @Test
+    public void digitsInOneFrameDrawOnce() throws InterruptedException {
+        setCursorEnabled(false);
+        commitText(PIN);
+        TestActivity.awaitFrame(mPasswordView);
+
+        long drawCount = mMetrics.getDrawCount();
+        Log.i(TAG, String.format(Locale.US, "all digits in one frame: %d digits, %d draws, %d text invalidates",
+                PIN.length(), drawCount, mMetrics.getTextInvalidateCount()));
+        assertEquals(1, drawCount);
+    }
+
+    @Test
+    public void cursorBlinkDrawsAtMostOncePerToggle() {
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mPasswordView.requestFocus();
+                mMetrics.reset();
+            }
+        });
+        SystemClock.sleep(BLINK_WATCH_MILLIS);
+        mInstrumentation.waitForIdleSync();
+
+        long drawCount = mMetrics.getDrawCount();
+        long cursorInvalidateCount = mMetrics.getCursorInvalidateCount();
+        Log.i(TAG, String.format(Locale.US, "cursor blink over %d ms: %d toggles, %d draws",
+                BLINK_WATCH_MILLIS, cursorInvalidateCount, drawCount));
+        assertTrue(cursorInvalidateCount > 0);
+        //获得焦点本身会刷新一次
+        assertTrue(drawCount + " draws", drawCount <= cursorInvalidateCount + 1);
+    }
+
+    private void setCursorEnabled(final boolean enabled) throws InterruptedException {
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mPasswordView.setCursorEnabled(enabled);
+            }
+        });
+        TestActivity.awaitFrame(mPasswordView);
+        mMetrics.reset();
+    }
+
+    /**
+     * 与输入法一样逐个字符commitText，全部在同一次主线程消息中完成
+     */
+    private void commitText(final CharSequence text) {
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                InputConnection connection = mPasswordView.onCreateInputConnection(new EditorInfo());
+                for (int index = 0; index < text.length(); index++) {
+                    connection.commitText(text.subSequence(index, index + 1), 1);
+                }
+            }
+        });
+    }
+}
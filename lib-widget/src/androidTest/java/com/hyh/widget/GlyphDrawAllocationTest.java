@@ -0,0 +1,117 @@
+package com.hyh.widget;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Typeface;
+import android.os.Build;
+import android.os.Debug;
+import android.util.Log;
+import android.view.View;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.hyh.widget.measure.MeasureSpecs;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Locale;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * 字形度量缓存之后，每帧绘制掩码与明文字符不再分配内存（不再为单个字符创建String或重新测量）。
+ * 统计的是整个进程的分配量，所以只要求每帧平均分配量低于一个很小的余量，单个字符创建一个String就会超过
+ */
+@RunWith(AndroidJUnit4.class)
+public class GlyphDrawAllocationTest {
+
+    private static final String TAG = "PasswordView_GlyphDraw";
+
+    private static final String TEXT = "123456";
+    private static final int WIDTH = 600;
+    private static final int HEIGHT = 100;
+    private static final int WARMUP_COUNT = 50;
+    private static final int FRAME_COUNT = 1000;
+    private static final long BYTES_PER_FRAME_MARGIN = 32;
+
+    private Context mContext;
+
+    @Before
+    public void setUp() {
+        assumeTrue(Build.VERSION.SDK_INT >= Build.VERSION_CODES.M);
+        mContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+    }
+
+    @Test
+    public void starsAllocateNothingPerFrame() {
+        assertNoAllocation("stars", PasswordView.PASSWORD_TYPE_STARS, false);
+    }
+
+    @Test
+    public void circlesAllocateNothingPerFrame() {
+        assertNoAllocation("circle", PasswordView.PASSWORD_TYPE_CIRCLE, false);
+    }
+
+    @Test
+    public void textAllocatesNothingPerFrame() {
+        assertNoAllocation("text", PasswordView.PASSWORD_TYPE_TEXT, false);
+    }
+
+    @Test
+    public void glyphAtlasAllocatesNothingPerFrame() {
+        assertNoAllocation("text atlas", PasswordView.PASSWORD_TYPE_TEXT, true);
+    }
+
+    private void assertNoAllocation(String name, int passwordType, boolean glyphAtlasEnabled) {
+        View host = new View(mContext);
+        host.measure(MeasureSpecs.makeMeasureSpec(WIDTH, MeasureSpecs.EXACTLY),
+                MeasureSpecs.makeMeasureSpec(HEIGHT, MeasureSpecs.EXACTLY));
+        host.layout(0, 0, WIDTH, HEIGHT);
+
+        PasswordRenderer renderer = new PasswordRenderer(host);
+        renderer.setStyle(new PasswordStyle.Builder(mContext)
+                .setPasswordLength(TEXT.length())
+                .setPasswordType(passwordType)
+                .setGlyphAtlasEnabled(glyphAtlasEnabled)
+                .build());
+        renderer.setTextStyle(48, Typeface.DEFAULT, Color.BLACK);
+        renderer.setTextLength(TEXT.length());
+        renderer.measure(MeasureSpecs.makeMeasureSpec(WIDTH, MeasureSpecs.EXACTLY),
+                MeasureSpecs.makeMeasureSpec(HEIGHT, MeasureSpecs.EXACTLY), 0, 0);
+
+        Bitmap bitmap = Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        try {
+            for (int index = 0; index < WARMUP_COUNT; index++) {
+                renderer.draw(canvas, TEXT, false);
+            }
+            long allocatedBefore = allocatedBytes();
+            for (int index = 0; index < FRAME_COUNT; index++) {
+                renderer.draw(canvas, TEXT, false);
+            }
+            long allocatedAfter = allocatedBytes();
+
+            long bytesPerFrame = (allocatedAfter - allocatedBefore) / FRAME_COUNT;
+            Log.i(TAG, String.format(Locale.US, "%s: %d bytes allocated per frame", name, bytesPerFrame));
+            assertTrue(name + ": " + bytesPerFrame + " bytes per frame", bytesPerFrame < BYTES_PER_FRAME_MARGIN);
+        } finally {
+            renderer.release();
+            bitmap.recycle();
+        }
+    }
+
+    /**
+     * 进程启动以来分配的总字节数
+     */
+    @TargetApi(Build.VERSION_CODES.M)
+    private static long allocatedBytes() {
+        return Long.parseLong(Debug.getRuntimeStat("art.gc.bytes-allocated"));
+    }
+}
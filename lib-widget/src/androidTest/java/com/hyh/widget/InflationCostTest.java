@@ -0,0 +1,116 @@
+package com.hyh.widget;
+
+import android.content.Context;
+import android.os.Build;
+import android.os.Debug;
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.View;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 在设备上比较每个实例的加载开销：布局加载耗时、加载过程分配的字节数（API 23及以上）以及加载后仍被持有的堆大小，
+ * 结果输出到logcat，TAG为PasswordView_Inflation。持有的堆大小受GC时机影响，只输出不断言
+ */
+@RunWith(AndroidJUnit4.class)
+public class InflationCostTest {
+
+    private static final String TAG = "PasswordView_Inflation";
+
+    private static final int WARMUP_COUNT = 20;
+    private static final int INSTANCE_COUNT = 100;
+
+    private Context mContext;
+
+    @Before
+    public void setUp() {
+        mContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+    }
+
+    @Test
+    public void litePasswordViewCostsLessThanPasswordView() {
+        Cost passwordView = measure("PasswordView", R.layout.inflation_password_view);
+        Cost litePasswordView = measure("LitePasswordView", R.layout.inflation_lite_password_view);
+        if (litePasswordView.allocatedBytes >= 0) {
+            assertTrue(litePasswordView.allocatedBytes < passwordView.allocatedBytes);
+        }
+    }
+
+    /**
+     * 标签上直接写样式属性时每个View各自解析并创建画笔；引用passwordStyle时同一个样式只解析一次，所有View共用
+     */
+    @Test
+    public void sharedStyleCostsLessThanInlineAttributes() {
+        Cost inline = measure("PasswordView inline attrs", R.layout.inflation_password_view);
+        Cost shared = measure("PasswordView shared style", R.layout.inflation_password_view_shared_style);
+        if (shared.allocatedBytes >= 0) {
+            assertTrue(shared.allocatedBytes < inline.allocatedBytes);
+        }
+    }
+
+    private Cost measure(final String name, final int layoutRes) {
+        final Cost cost = new Cost();
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                LayoutInflater inflater = LayoutInflater.from(mContext);
+                for (int index = 0; index < WARMUP_COUNT; index++) {
+                    inflater.inflate(layoutRes, null, false);
+                }
+                View[] views = new View[INSTANCE_COUNT];
+                long usedBefore = usedHeap();
+                long allocatedBefore = allocatedBytes();
+                long start = System.nanoTime();
+                for (int index = 0; index < INSTANCE_COUNT; index++) {
+                    views[index] = inflater.inflate(layoutRes, null, false);
+                }
+                long elapsed = System.nanoTime() - start;
+                long allocatedAfter = allocatedBytes();
+                long usedAfter = usedHeap();
+                //在统计之后才释放，保证统计时所有实例都还被持有
+                Arrays.fill(views, null);
+
+                cost.inflateNanos = elapsed / INSTANCE_COUNT;
+                cost.allocatedBytes = allocatedBefore < 0 ? -1 : (allocatedAfter - allocatedBefore) / INSTANCE_COUNT;
+                cost.retainedBytes = (usedAfter - usedBefore) / INSTANCE_COUNT;
+                Log.i(TAG, String.format(Locale.US, "%s: %d ns, %d bytes allocated, %d bytes retained per instance",
+                        name, cost.inflateNanos, cost.allocatedBytes, cost.retainedBytes));
+            }
+        });
+        return cost;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        runtime.gc();
+        System.runFinalization();
+        runtime.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * 进程启动以来分配的总字节数，API 23以下拿不到时返回-1
+     */
+    private static long allocatedBytes() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.M) return -1;
+        String value = Debug.getRuntimeStat("art.gc.bytes-allocated");
+        return value == null ? -1 : Long.parseLong(value);
+    }
+
+    private static class Cost {
+        long inflateNanos;
+        long allocatedBytes;
+        long retainedBytes;
+    }
+}
@@ -0,0 +1,86 @@
+package com.hyh.widget;
+
+import android.app.Instrumentation;
+import android.os.Build;
+import android.view.inputmethod.EditorInfo;
+import android.view.inputmethod.InputConnection;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.SdkSuppress;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 开启{@link PasswordView#setTextLayoutBypassed(boolean)}后逐位输入不会触发测量
+ */
+@RunWith(AndroidJUnit4.class)
+@SdkSuppress(minSdkVersion = Build.VERSION_CODES.JELLY_BEAN)
+public class LayoutPassTest {
+
+    private static final String PIN = "135790";
+
+    private Instrumentation mInstrumentation;
+    private TestActivity mActivity;
+    private PasswordView mPasswordView;
+
+    @Before
+    public void setUp() throws InterruptedException {
+        mInstrumentation = InstrumentationRegistry.getInstrumentation();
+        mActivity = TestActivity.launch();
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mPasswordView = new PasswordView(mActivity);
+                mPasswordView.setPasswordLength(PIN.length());
+                mActivity.setContentView(mPasswordView);
+            }
+        });
+        TestActivity.awaitFrame(mPasswordView);
+    }
+
+    @After
+    public void tearDown() {
+        mActivity.finish();
+    }
+
+    @Test
+    public void typingPinWithBypassCausesNoLayoutPass() throws InterruptedException {
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mPasswordView.setTextLayoutBypassed(true);
+            }
+        });
+        //开启时请求的那一次布局不计入
+        TestActivity.awaitFrame(mPasswordView);
+        int layoutPassCount = mPasswordView.getLayoutPassCount();
+
+        typePin();
+
+        assertEquals(layoutPassCount, mPasswordView.getLayoutPassCount());
+        assertEquals(PIN, mPasswordView.getText().toString());
+    }
+
+    /**
+     * 每一位单独一帧，与手动输入一样
+     */
+    private void typePin() throws InterruptedException {
+        for (int index = 0; index < PIN.length(); index++) {
+            final CharSequence digit = PIN.subSequence(index, index + 1);
+            mInstrumentation.runOnMainSync(new Runnable() {
+                @Override
+                public void run() {
+                    InputConnection connection = mPasswordView.onCreateInputConnection(new EditorInfo());
+                    connection.commitText(digit, 1);
+                }
+            });
+            TestActivity.awaitFrame(mPasswordView);
+        }
+    }
+}
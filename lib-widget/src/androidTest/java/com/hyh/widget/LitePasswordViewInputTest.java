@@ -0,0 +1,130 @@
+package com.hyh.widget;
+
+import android.app.Instrumentation;
+import android.view.inputmethod.EditorInfo;
+import android.view.inputmethod.InputConnection;
+import android.widget.FrameLayout;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * LitePasswordView的输入连接：组合输入、提交与删除，以及从窗口移除后保留已输入的内容
+ */
+@RunWith(AndroidJUnit4.class)
+public class LitePasswordViewInputTest {
+
+    private Instrumentation mInstrumentation;
+    private TestActivity mActivity;
+    private FrameLayout mContainer;
+    private LitePasswordView mPasswordView;
+    private InputConnection mConnection;
+    private final CountingListener mListener = new CountingListener();
+
+    @Before
+    public void setUp() {
+        mInstrumentation = InstrumentationRegistry.getInstrumentation();
+        mActivity = TestActivity.launch();
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mContainer = new FrameLayout(mActivity);
+                mPasswordView = new LitePasswordView(mActivity);
+                mPasswordView.setPasswordLength(6);
+                mPasswordView.setPasswordListener(mListener);
+                mContainer.addView(mPasswordView);
+                mActivity.setContentView(mContainer);
+                mConnection = mPasswordView.onCreateInputConnection(new EditorInfo());
+            }
+        });
+        mInstrumentation.waitForIdleSync();
+    }
+
+    @After
+    public void tearDown() {
+        mActivity.finish();
+    }
+
+    @Test
+    public void composingTextIsReplacedAndCommitted() {
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mConnection.commitText("1", 1);
+                mConnection.setComposingText("2", 1);
+                mConnection.setComposingText("23", 1);
+                mConnection.commitText("234", 1);
+            }
+        });
+
+        assertEquals("1234", mPasswordView.getPasswordChars().toString());
+        assertEquals("1234", mListener.lastPassword);
+    }
+
+    @Test
+    public void finishedComposingTextIsKept() {
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mConnection.setComposingText("12", 1);
+                mConnection.finishComposingText();
+                mConnection.setComposingText("3", 1);
+                mConnection.deleteSurroundingText(1, 0);
+                mConnection.commitText("4", 1);
+            }
+        });
+
+        assertEquals("124", mPasswordView.getPasswordChars().toString());
+    }
+
+    @Test
+    public void detachKeepsPasswordAndListeners() {
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mConnection.commitText("123", 1);
+                mContainer.removeView(mPasswordView);
+            }
+        });
+
+        assertEquals("123", mPasswordView.getPasswordChars().toString());
+        assertEquals(0, mListener.clearedCount);
+
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mContainer.addView(mPasswordView);
+                mPasswordView.onCreateInputConnection(new EditorInfo()).commitText("4", 1);
+            }
+        });
+
+        assertEquals("1234", mListener.lastPassword);
+    }
+
+    private static class CountingListener implements PasswordView.PasswordListener {
+
+        int clearedCount;
+        String lastPassword;
+
+        @Override
+        public void onCleared() {
+            clearedCount++;
+        }
+
+        @Override
+        public void onChanged(String password) {
+            lastPassword = password;
+        }
+
+        @Override
+        public void onFinished(String password) {
+        }
+    }
+}
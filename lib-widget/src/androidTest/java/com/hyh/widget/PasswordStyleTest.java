@@ -0,0 +1,53 @@
+package com.hyh.widget;
+
+import android.content.Context;
+import android.view.ContextThemeWrapper;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * fromStyle按主题缓存，withPasswordLength在同一组样式中复用
+ */
+@RunWith(AndroidJUnit4.class)
+public class PasswordStyleTest {
+
+    private Context mContext;
+
+    @Before
+    public void setUp() {
+        mContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+    }
+
+    @Test
+    public void styleIsParsedOncePerTheme() {
+        Context first = new ContextThemeWrapper(mContext, R.style.PasswordStyleTestTheme);
+        Context second = new ContextThemeWrapper(mContext, R.style.PasswordStyleTestTheme);
+
+        PasswordStyle style = PasswordStyle.fromStyle(first, R.style.InflationTestPasswordStyle);
+        assertSame(style, PasswordStyle.fromStyle(first, R.style.InflationTestPasswordStyle));
+        assertNotSame(style, PasswordStyle.fromStyle(second, R.style.InflationTestPasswordStyle));
+    }
+
+    @Test
+    public void lengthVariantsAreSharedByTheFamily() {
+        PasswordStyle six = new PasswordStyle.Builder(mContext).setPasswordLength(6).build();
+        PasswordStyle four = six.withPasswordLength(4);
+        PasswordStyle eight = four.withPasswordLength(8);
+
+        assertEquals(4, four.getPasswordLength());
+        assertSame(six, four.withPasswordLength(6));
+        assertSame(four, eight.withPasswordLength(4));
+        assertSame(eight, six.withPasswordLength(8));
+        //编辑出来的样式自成一组
+        assertNotSame(four, six.buildUpon().build().withPasswordLength(4));
+    }
+}
@@ -0,0 +1,51 @@
+package com.hyh.widget;
+
+import android.annotation.TargetApi;
+import android.app.Activity;
+import android.app.Instrumentation;
+import android.content.Intent;
+import android.os.Build;
+import android.view.View;
+
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 需要挂到窗口上才能测的用例使用的空白Activity，启动后在主线程中setContentView
+ */
+public class TestActivity extends Activity {
+
+    public static TestActivity launch() {
+        Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+        Intent intent = new Intent(Intent.ACTION_MAIN);
+        intent.setClassName(instrumentation.getTargetContext(), TestActivity.class.getName());
+        intent.addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+        return (TestActivity) instrumentation.startActivitySync(intent);
+    }
+
+    /**
+     * 等到下一帧的动画回调执行，再等这一帧的布局与绘制结束。在这之前post的postOnAnimation回调都已执行
+     */
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    public static void awaitFrame(final View view) throws InterruptedException {
+        Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+        final CountDownLatch latch = new CountDownLatch(1);
+        instrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                view.postOnAnimation(new Runnable() {
+                    @Override
+                    public void run() {
+                        latch.countDown();
+                    }
+                });
+            }
+        });
+        if (!latch.await(5, TimeUnit.SECONDS)) {
+            throw new AssertionError("no frame within 5 seconds");
+        }
+        instrumentation.waitForIdleSync();
+    }
+}
@@ -0,0 +1,96 @@
+package com.hyh.widget;
+
+import android.app.Instrumentation;
+import android.os.Build;
+import android.view.inputmethod.EditorInfo;
+import android.view.inputmethod.InputConnection;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.SdkSuppress;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 输入法逐个commitText发送验证码时，同一帧内的多次变化只回调一次
+ */
+@RunWith(AndroidJUnit4.class)
+public class TextChangeCoalescingTest {
+
+    private static final String CODE = "123456";
+
+    private Instrumentation mInstrumentation;
+    private TestActivity mActivity;
+    private PasswordView mPasswordView;
+    private final CountingListener mListener = new CountingListener();
+
+    @Before
+    public void setUp() {
+        mInstrumentation = InstrumentationRegistry.getInstrumentation();
+        mActivity = TestActivity.launch();
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mPasswordView = new PasswordView(mActivity);
+                mPasswordView.setPasswordLength(CODE.length());
+                mPasswordView.setPasswordListener(mListener);
+                mActivity.setContentView(mPasswordView);
+            }
+        });
+        mInstrumentation.waitForIdleSync();
+    }
+
+    @After
+    public void tearDown() {
+        mActivity.finish();
+    }
+
+    @Test
+    @SdkSuppress(minSdkVersion = Build.VERSION_CODES.JELLY_BEAN)
+    public void commitTextCallsInOneFrameDispatchOnce() throws InterruptedException {
+        final int[] changedBeforeFrame = new int[1];
+        mInstrumentation.runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                InputConnection connection = mPasswordView.onCreateInputConnection(new EditorInfo());
+                for (int index = 0; index < CODE.length(); index++) {
+                    connection.commitText(CODE.subSequence(index, index + 1), 1);
+                }
+                changedBeforeFrame[0] = mListener.changedCount;
+            }
+        });
+        TestActivity.awaitFrame(mPasswordView);
+
+        assertEquals(0, changedBeforeFrame[0]);
+        assertEquals(1, mListener.changedCount);
+        assertEquals(1, mListener.finishedCount);
+        assertEquals(CODE, mListener.lastPassword);
+    }
+
+    private static class CountingListener implements PasswordView.PasswordListener {
+
+        int changedCount;
+        int finishedCount;
+        String lastPassword;
+
+        @Override
+        public void onCleared() {
+        }
+
+        @Override
+        public void onChanged(String password) {
+            changedCount++;
+            lastPassword = password;
+        }
+
+        @Override
+        public void onFinished(String password) {
+            finishedCount++;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.hyh.widget;
+
+import android.annotation.TargetApi;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+
+/**
+ * 进程内共享的光标闪烁计时器，通过Choreographer对齐到vsync，没有注册的View时完全停止
+ */
+final class CursorBlinkTicker implements Runnable {
+
+    private static final long BLINK_INTERVAL = 500;
+
+    private static CursorBlinkTicker sInstance;
+
+    static CursorBlinkTicker getInstance() {
+        if (sInstance == null) {
+            sInstance = new CursorBlinkTicker();
+        }
+        return sInstance;
+    }
+
+    private final ArrayList<Callback> mCallbacks = new ArrayList<>();
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private BlinkFrameCallback mFrameCallback;
+
+    private long mIdleTimeout;
+    private long mLastActiveTime;
+    private long mNextBlinkTime;
+    private boolean mCursorVisible;
+    private boolean mScheduled;
+
+    void setIdleTimeout(long idleTimeout) {
+        mIdleTimeout = idleTimeout;
+        if (!mCallbacks.isEmpty()) {
+            onActive();
+        }
+    }
+
+    void register(Callback callback) {
+        if (!mCallbacks.contains(callback)) {
+            mCallbacks.add(callback);
+        }
+        onActive();
+    }
+
+    void unregister(Callback callback) {
+        mCallbacks.remove(callback);
+        if (mCallbacks.isEmpty()) {
+            cancel();
+        }
+    }
+
+    /**
+     * 有输入时重新开始闪烁周期，光标先保持显示
+     */
+    void onActive() {
+        long now = SystemClock.uptimeMillis();
+        mLastActiveTime = now;
+        mNextBlinkTime = now + BLINK_INTERVAL;
+        setCursorVisible(true);
+        cancel();
+        schedule(now);
+    }
+
+    @Override
+    public void run() {
+        mScheduled = false;
+        if (mCallbacks.isEmpty()) return;
+        long now = SystemClock.uptimeMillis();
+        if (mIdleTimeout > 0 && now - mLastActiveTime >= mIdleTimeout) {
+            //空闲超时后暂停，光标保持显示，直到下一次输入
+            setCursorVisible(true);
+            return;
+        }
+        if (now >= mNextBlinkTime) {
+            setCursorVisible(!mCursorVisible);
+            mNextBlinkTime = now + BLINK_INTERVAL;
+        }
+        schedule(now);
+    }
+
+    private void setCursorVisible(boolean visible) {
+        mCursorVisible = visible;
+        for (int index = mCallbacks.size() - 1; index >= 0; index--) {
+            mCallbacks.get(index).onCursorBlink(visible);
+        }
+    }
+
+    private void schedule(long now) {
+        if (mScheduled || mCallbacks.isEmpty()) return;
+        long delay = mNextBlinkTime - now;
+        if (mIdleTimeout > 0) {
+            delay = Math.min(delay, mLastActiveTime + mIdleTimeout - now);
+        }
+        delay = Math.max(0, delay);
+        mScheduled = true;
+        if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.JELLY_BEAN) {
+            if (mFrameCallback == null) {
+                mFrameCallback = new BlinkFrameCallback(this);
+            }
+            mFrameCallback.postDelayed(delay);
+        } else {
+            mHandler.postDelayed(this, delay);
+        }
+    }
+
+    private void cancel() {
+        if (!mScheduled) return;
+        mScheduled = false;
+        if (mFrameCallback != null) {
+            mFrameCallback.remove();
+        }
+        mHandler.removeCallbacks(this);
+    }
+
+    interface Callback {
+
+        void onCursorBlink(boolean visible);
+
+    }
+
+    @TargetApi(android.os.Build.VERSION_CODES.JELLY_BEAN)
+    private static final class BlinkFrameCallback implements Choreographer.FrameCallback {
+
+        private final Runnable mTask;
+
+        BlinkFrameCallback(Runnable task) {
+            mTask = task;
+        }
+
+        void postDelayed(long delayMillis) {
+            Choreographer.getInstance().postFrameCallbackDelayed(this, delayMillis);
+        }
+
+        void remove() {
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mTask.run();
+        }
+    }
+}
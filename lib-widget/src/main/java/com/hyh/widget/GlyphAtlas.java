@@ -0,0 +1,189 @@
+package com.hyh.widget;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Typeface;
+import android.graphics.drawable.Drawable;
+
+import java.util.HashMap;
+
+/**
+ * 将0~9、星号、圆点以及自定义掩码图预先光栅化到一张位图中，绘制时每个框只需要一次位图拷贝，
+ * 相同样式的PasswordView共享同一个图集，只能在主线程使用
+ */
+final class GlyphAtlas {
+
+    static final int GLYPH_STAR = 10;
+    static final int GLYPH_CIRCLE = 11;
+    static final int GLYPH_MASK = 12;
+    private static final int GLYPH_COUNT = 13;
+
+    private static final HashMap<Key, GlyphAtlas> sAtlases = new HashMap<>();
+    private static final Key sLookupKey = new Key();
+
+    static GlyphAtlas acquire(float textSize, Typeface typeface, int textColor, Drawable mask) {
+        sLookupKey.set(textSize, typeface, textColor, mask);
+        GlyphAtlas atlas = sAtlases.get(sLookupKey);
+        sLookupKey.set(0, null, 0, null);
+        if (atlas == null) {
+            Key key = new Key();
+            key.set(textSize, typeface, textColor, mask);
+            atlas = new GlyphAtlas(key);
+            sAtlases.put(key, atlas);
+        }
+        atlas.mRefCount++;
+        return atlas;
+    }
+
+    static int getGlyphIndex(char c) {
+        if (c >= '0' && c <= '9') return c - '0';
+        if (c == '*') return GLYPH_STAR;
+        return -1;
+    }
+
+    private final Key mKey;
+    private final Bitmap mBitmap;
+    private final int mCellWidth, mCellHeight;
+    private final Rect mSrcRect = new Rect();
+    private int mRefCount;
+
+    private GlyphAtlas(Key key) {
+        mKey = key;
+
+        Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        textPaint.setTypeface(key.typeface);
+        textPaint.setColor(key.textColor);
+        textPaint.setStyle(Paint.Style.FILL);
+        textPaint.setTextAlign(Paint.Align.CENTER);
+
+        Paint starPaint = new Paint(textPaint);
+        starPaint.setTextSize(key.textSize * 1.5f);
+        textPaint.setTextSize(key.textSize);
+
+        Paint.FontMetrics textMetrics = textPaint.getFontMetrics();
+        Paint.FontMetrics starMetrics = starPaint.getFontMetrics();
+        float starAdvance = starPaint.measureText("*");
+
+        float maxWidth = Math.max(key.textSize, starAdvance);
+        char[] digit = new char[1];
+        for (char c = '0'; c <= '9'; c++) {
+            digit[0] = c;
+            maxWidth = Math.max(maxWidth, textPaint.measureText(digit, 0, 1));
+        }
+        float maxHeight = Math.max(key.textSize, Math.max(
+                textMetrics.bottom - textMetrics.top,
+                starMetrics.bottom - starMetrics.top + starAdvance * 0.52f));
+
+        mCellWidth = (int) Math.ceil(maxWidth) + 2;
+        mCellHeight = (int) Math.ceil(maxHeight) + 2;
+        mBitmap = Bitmap.createBitmap(mCellWidth * GLYPH_COUNT, mCellHeight, Bitmap.Config.ARGB_8888);
+        mBitmap.setDensity(Bitmap.DENSITY_NONE);
+
+        Canvas canvas = new Canvas(mBitmap);
+        float centerY = mCellHeight * 0.5f;
+        for (int index = 0; index < 10; index++) {
+            digit[0] = (char) ('0' + index);
+            float baseY = centerY - (textMetrics.bottom + textMetrics.top) * 0.5f;
+            canvas.drawText(digit, 0, 1, getCellCenterX(index), baseY, textPaint);
+        }
+
+        float starBaseY = centerY - (starMetrics.bottom + starMetrics.top) * 0.5f + starAdvance * 0.26f;
+        canvas.drawText("*", getCellCenterX(GLYPH_STAR), starBaseY, starPaint);
+
+        canvas.drawCircle(getCellCenterX(GLYPH_CIRCLE), centerY, key.textSize * 0.5f, textPaint);
+
+        Drawable mask = key.maskDrawable;
+        key.maskDrawable = null;
+        if (mask != null) {
+            Rect bounds = new Rect(mask.getBounds());
+            int half = Math.round(key.textSize * 0.5f);
+            int centerX = Math.round(getCellCenterX(GLYPH_MASK));
+            int maskCenterY = Math.round(centerY);
+            mask.setBounds(centerX - half, maskCenterY - half, centerX + half, maskCenterY + half);
+            mask.draw(canvas);
+            mask.setBounds(bounds);
+        }
+        canvas.setBitmap(null);
+    }
+
+    private float getCellCenterX(int glyphIndex) {
+        return mCellWidth * glyphIndex + mCellWidth * 0.5f;
+    }
+
+    boolean matches(float textSize, Typeface typeface, int textColor, Drawable mask) {
+        return mKey.matches(textSize, typeface, textColor, mask);
+    }
+
+    /**
+     * 把图集中的字形按整像素对齐拷贝到以(centerX, centerY)为中心的位置，
+     * originX、originY是画布当前的平移量，用于换算到View坐标下取整
+     */
+    void draw(Canvas canvas, int glyphIndex, float centerX, float centerY,
+              float originX, float originY, RectF dstRect) {
+        mSrcRect.set(mCellWidth * glyphIndex, 0, mCellWidth * (glyphIndex + 1), mCellHeight);
+        float left = Math.round(originX + centerX - mCellWidth * 0.5f) - originX;
+        float top = Math.round(originY + centerY - mCellHeight * 0.5f) - originY;
+        dstRect.set(left, top, left + mCellWidth, top + mCellHeight);
+        canvas.drawBitmap(mBitmap, mSrcRect, dstRect, null);
+    }
+
+    void release() {
+        if (--mRefCount > 0) return;
+        sAtlases.remove(mKey);
+        mBitmap.recycle();
+    }
+
+    private static final class Key {
+
+        float textSize;
+        Typeface typeface;
+        int textColor;
+        Object mask;
+        Drawable maskDrawable;
+
+        void set(float textSize, Typeface typeface, int textColor, Drawable mask) {
+            this.textSize = textSize;
+            this.typeface = typeface;
+            this.textColor = textColor;
+            this.maskDrawable = mask;
+            this.mask = getMaskKey(mask);
+        }
+
+        boolean matches(float textSize, Typeface typeface, int textColor, Drawable mask) {
+            return this.textSize == textSize
+                    && this.typeface == typeface
+                    && this.textColor == textColor
+                    && this.mask == getMaskKey(mask);
+        }
+
+        //同一个资源创建的Drawable共享ConstantState，以此作为掩码图的标识
+        private static Object getMaskKey(Drawable mask) {
+            if (mask == null) return null;
+            Drawable.ConstantState constantState = mask.getConstantState();
+            return constantState != null ? constantState : mask;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Float.compare(key.textSize, textSize) == 0
+                    && textColor == key.textColor
+                    && typeface == key.typeface
+                    && mask == key.mask;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Float.floatToIntBits(textSize);
+            result = 31 * result + (typeface != null ? typeface.hashCode() : 0);
+            result = 31 * result + textColor;
+            result = 31 * result + (mask != null ? mask.hashCode() : 0);
+            return result;
+        }
+    }
+}
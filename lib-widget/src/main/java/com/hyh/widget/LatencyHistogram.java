@@ -0,0 +1,74 @@
+package com.hyh.widget;
+
+import java.util.Arrays;
+
+/**
+ * 保留最近capacity个延迟样本并按需计算分位数，可以同时作为多个View的{@link PasswordView.InputLatencySink}，
+ * 读取可以在任意线程
+ */
+public class LatencyHistogram implements PasswordView.InputLatencySink {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    private final long[] mSamples;
+    private long[] mSorted;
+    private boolean mSortedValid;
+    private int mSize;
+    private int mNext;
+    private long mTotalCount;
+
+    public LatencyHistogram() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LatencyHistogram(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity: " + capacity);
+        }
+        mSamples = new long[capacity];
+    }
+
+    @Override
+    public synchronized void onInputLatency(long latencyNanos) {
+        mSamples[mNext] = latencyNanos;
+        mNext = (mNext + 1) % mSamples.length;
+        mSize = Math.min(mSize + 1, mSamples.length);
+        mTotalCount++;
+        mSortedValid = false;
+    }
+
+    /**
+     * 最近样本中的分位数（最近秩法），percentile取值0到100，没有样本时返回-1
+     */
+    public synchronized long getPercentile(double percentile) {
+        if (mSize == 0) return -1;
+        if (!mSortedValid) {
+            if (mSorted == null) {
+                mSorted = new long[mSamples.length];
+            }
+            System.arraycopy(mSamples, 0, mSorted, 0, mSize);
+            Arrays.sort(mSorted, 0, mSize);
+            mSortedValid = true;
+        }
+        int rank = (int) Math.ceil(Math.max(0, Math.min(100, percentile)) / 100 * mSize);
+        return mSorted[Math.max(rank, 1) - 1];
+    }
+
+    /**
+     * 参与分位数计算的样本数，最多为容量
+     */
+    public synchronized int getSampleCount() {
+        return mSize;
+    }
+
+    public synchronized long getTotalCount() {
+        return mTotalCount;
+    }
+
+    public synchronized void reset() {
+        mSize = 0;
+        mNext = 0;
+        mTotalCount = 0;
+        mSortedValid = false;
+    }
+}
@@ -0,0 +1,426 @@
+package com.hyh.widget;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Rect;
+import android.graphics.Typeface;
+import android.graphics.drawable.Drawable;
+import android.text.InputType;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.KeyEvent;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.inputmethod.BaseInputConnection;
+import android.view.inputmethod.EditorInfo;
+import android.view.inputmethod.InputConnection;
+import android.view.inputmethod.InputMethodManager;
+
+/**
+ * 直接继承View的轻量密码框，与{@link PasswordView}共用测量器和绘制，
+ * 不创建Editor、SpannableStringBuilder、DynamicLayout以及输入过滤器，
+ * 输入法通过{@link PasswordInputConnection}直接写入容量为密码长度的字符缓冲区
+ */
+public class LitePasswordView extends View implements PasswordStyle.Target {
+
+    private PasswordRenderer mRenderer;
+
+    private float mTextSize;
+    private int mTextColor = Color.BLACK;
+    private Typeface mTypeface;
+    private int mInputType = InputType.TYPE_CLASS_NUMBER | InputType.TYPE_NUMBER_VARIATION_PASSWORD;
+
+    private boolean mAttached;
+
+    private PasswordView.PasswordListener mPasswordListener;
+    private PasswordView.PasswordCharsListener mPasswordCharsListener;
+    private PasswordView.PasswordChars mPasswordChars;
+
+    public LitePasswordView(Context context) {
+        super(context);
+        init(null);
+    }
+
+    public LitePasswordView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        init(attrs);
+    }
+
+    public LitePasswordView(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        init(attrs);
+    }
+
+    private void init(AttributeSet attrs) {
+        mRenderer = new PasswordRenderer(this);
+        mRenderer.setStyle(PasswordStyle.obtain(getContext(), attrs));
+        mTextSize = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, 15, getResources().getDisplayMetrics());
+        if (attrs != null) {
+            TypedArray typedArray = getContext().obtainStyledAttributes(attrs, R.styleable.LitePasswordView);
+            mTextSize = typedArray.getDimension(R.styleable.LitePasswordView_android_textSize, mTextSize);
+            mTextColor = typedArray.getColor(R.styleable.LitePasswordView_android_textColor, mTextColor);
+            typedArray.recycle();
+        }
+        mRenderer.setTextStyle(mTextSize, mTypeface, mTextColor);
+        mPasswordChars = new PasswordView.PasswordChars(mRenderer.getPasswordLength());
+
+        setFocusable(true);
+        setFocusableInTouchMode(true);
+    }
+
+    public void setTextSize(float textSize) {
+        mTextSize = textSize;
+        mRenderer.setTextStyle(mTextSize, mTypeface, mTextColor);
+        invalidate();
+    }
+
+    public void setTextColor(int textColor) {
+        mTextColor = textColor;
+        mRenderer.setTextStyle(mTextSize, mTypeface, mTextColor);
+        invalidate();
+    }
+
+    public void setTypeface(Typeface typeface) {
+        mTypeface = typeface;
+        mRenderer.setTextStyle(mTextSize, mTypeface, mTextColor);
+        invalidate();
+    }
+
+    /**
+     * 传给输入法的输入类型，默认为数字密码
+     */
+    public void setInputType(int inputType) {
+        mInputType = inputType;
+        InputMethodManager imm = getInputMethodManager();
+        if (imm != null) {
+            imm.restartInput(this);
+        }
+    }
+
+    /**
+     * 切换为另一个样式，多个View可以共用同一个样式对象，密码长度变短时截断已输入的内容并回调，
+     * 最多触发一次布局和一次刷新
+     */
+    @Override
+    public void setPasswordStyle(PasswordStyle style) {
+        PasswordRenderer renderer = mRenderer;
+        PasswordStyle oldStyle = renderer.getStyle();
+        boolean cursorEnabled = renderer.isCursorEnabled();
+        int changes = renderer.setStyle(style);
+        if (changes == 0) return;
+        int passwordLength = style.getPasswordLength();
+        if (passwordLength != oldStyle.getPasswordLength()) {
+            PasswordView.PasswordChars chars = mPasswordChars;
+            int oldLength = chars.length();
+            chars.setCapacity(passwordLength);
+            renderer.setTextLength(chars.length());
+            if (chars.length() < oldLength || chars.length() == passwordLength) {
+                //整个View会重新布局和刷新，这里只回调
+                PasswordView.dispatchPasswordChanged(chars, passwordLength, mPasswordListener, mPasswordCharsListener);
+            }
+        }
+        if (renderer.isCursorEnabled() != cursorEnabled) {
+            updateCursorBlink();
+        }
+        if ((changes & PasswordRenderer.STYLE_CHANGED_LAYOUT) != 0) {
+            requestLayout();
+        }
+        invalidate();
+    }
+
+    /**
+     * 修改密码长度，见{@link PasswordView#setPasswordLength(int)}
+     */
+    public void setPasswordLength(int passwordLength) {
+        setPasswordStyle(mRenderer.getStyle().withPasswordLength(passwordLength));
+    }
+
+    public int getPasswordLength() {
+        return mRenderer.getPasswordLength();
+    }
+
+    /**
+     * 以当前样式为初始值开始一次编辑，见{@link PasswordView#edit()}
+     */
+    public PasswordStyle.Builder edit() {
+        return new PasswordStyle.Builder(mRenderer.getStyle(), this);
+    }
+
+    public PasswordStyle getPasswordStyle() {
+        return mRenderer.getStyle();
+    }
+
+    public void setCursorEnabled(boolean enabled) {
+        mRenderer.setCursorEnabled(enabled);
+        updateCursorBlink();
+    }
+
+    public void setPasswordMaskDrawable(Drawable drawable) {
+        mRenderer.setPasswordMaskDrawable(drawable);
+        invalidate();
+    }
+
+    public void setGlyphAtlasEnabled(boolean enabled) {
+        mRenderer.setGlyphAtlasEnabled(enabled);
+        invalidate();
+    }
+
+    public void setMetrics(PasswordViewMetrics metrics) {
+        mRenderer.setMetrics(metrics);
+    }
+
+    public PasswordViewMetrics getMetrics() {
+        return mRenderer.getMetrics();
+    }
+
+    public void setPasswordListener(PasswordView.PasswordListener passwordListener) {
+        mPasswordListener = passwordListener;
+    }
+
+    public void setPasswordCharsListener(PasswordView.PasswordCharsListener passwordCharsListener) {
+        mPasswordCharsListener = passwordCharsListener;
+    }
+
+    /**
+     * 当前输入的密码，返回的缓冲区是复用的，需要保存时请自行拷贝
+     */
+    public PasswordView.PasswordChars getPasswordChars() {
+        return mPasswordChars;
+    }
+
+    public int length() {
+        return mPasswordChars.length();
+    }
+
+    public void clear() {
+        deleteChars(mPasswordChars.length());
+    }
+
+    void commitChars(CharSequence text) {
+        replaceChars(0, text);
+    }
+
+    /**
+     * 删除末尾的deleteCount个字符后追加text，只回调一次，返回追加的字符数
+     */
+    int replaceChars(int deleteCount, CharSequence text) {
+        PasswordView.PasswordChars chars = mPasswordChars;
+        int length = chars.length();
+        int before = chars.delete(deleteCount);
+        int count = chars.append(text);
+        if (before != 0 || count != 0) {
+            onCharsChanged(length - before, before, count);
+        }
+        return count;
+    }
+
+    void commitChar(char c) {
+        PasswordView.PasswordChars chars = mPasswordChars;
+        int start = chars.length();
+        if (!chars.append(c)) return;
+        onCharsChanged(start, 0, 1);
+    }
+
+    void deleteChars(int count) {
+        PasswordView.PasswordChars chars = mPasswordChars;
+        int length = chars.length();
+        int before = chars.delete(count);
+        if (before == 0) return;
+        onCharsChanged(length - before, before, 0);
+    }
+
+    private void onCharsChanged(int start, int before, int count) {
+        PasswordTrace.begin(PasswordTrace.TEXT_CHANGED);
+        PasswordView.PasswordChars chars = mPasswordChars;
+        mRenderer.invalidateTextChange(start, before, count, chars.length());
+        PasswordViewMetrics metrics = mRenderer.getMetrics();
+        long dispatchStart = metrics != null ? System.nanoTime() : 0;
+        PasswordView.dispatchPasswordChanged(chars, mRenderer.getPasswordLength(), mPasswordListener, mPasswordCharsListener);
+        if (metrics != null) {
+            metrics.recordDispatch(System.nanoTime() - dispatchStart);
+        }
+        PasswordTrace.end();
+    }
+
+    @Override
+    public boolean onCheckIsTextEditor() {
+        return true;
+    }
+
+    @Override
+    public InputConnection onCreateInputConnection(EditorInfo outAttrs) {
+        outAttrs.inputType = mInputType;
+        outAttrs.imeOptions = EditorInfo.IME_ACTION_DONE
+                | EditorInfo.IME_FLAG_NO_EXTRACT_UI
+                | EditorInfo.IME_FLAG_NO_FULLSCREEN;
+        outAttrs.initialSelStart = outAttrs.initialSelEnd = mPasswordChars.length();
+        return new PasswordInputConnection(this);
+    }
+
+    @Override
+    public boolean onKeyDown(int keyCode, KeyEvent event) {
+        if (keyCode == KeyEvent.KEYCODE_DEL) {
+            deleteChars(1);
+            return true;
+        }
+        int unicodeChar = event.getUnicodeChar();
+        if (unicodeChar > 0 && !Character.isISOControl(unicodeChar)) {
+            commitChar((char) unicodeChar);
+            return true;
+        }
+        return super.onKeyDown(keyCode, event);
+    }
+
+    @Override
+    public boolean onKeyMultiple(int keyCode, int repeatCount, KeyEvent event) {
+        //KEYCODE_UNKNOWN的ACTION_MULTIPLE事件携带一段文字，其余按键由KeyEvent拆成多次按下与抬起
+        if (keyCode == KeyEvent.KEYCODE_UNKNOWN && event.getCharacters() != null) {
+            commitChars(event.getCharacters());
+            return true;
+        }
+        return super.onKeyMultiple(keyCode, repeatCount, event);
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (event.getActionMasked() == MotionEvent.ACTION_UP && isEnabled()) {
+            requestFocus();
+            InputMethodManager imm = getInputMethodManager();
+            if (imm != null) {
+                imm.showSoftInput(this, 0);
+            }
+        }
+        super.onTouchEvent(event);
+        return isEnabled();
+    }
+
+    private InputMethodManager getInputMethodManager() {
+        return (InputMethodManager) getContext().getSystemService(Context.INPUT_METHOD_SERVICE);
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        mAttached = true;
+        updateCursorBlink();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        mAttached = false;
+        //与PasswordView一样移除后保留已输入的内容，只释放绘制资源
+        updateCursorBlink();
+        mRenderer.release();
+    }
+
+    @Override
+    protected void onFocusChanged(boolean focused, int direction, Rect previouslyFocusedRect) {
+        super.onFocusChanged(focused, direction, previouslyFocusedRect);
+        updateCursorBlink();
+    }
+
+    @Override
+    public void onWindowFocusChanged(boolean hasWindowFocus) {
+        super.onWindowFocusChanged(hasWindowFocus);
+        updateCursorBlink();
+    }
+
+    @Override
+    protected void onVisibilityChanged(View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        updateCursorBlink();
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        updateCursorBlink();
+    }
+
+    private void updateCursorBlink() {
+        PasswordRenderer renderer = mRenderer;
+        if (renderer == null) return;
+        renderer.setCursorBlinking(renderer.isCursorEnabled()
+                && mAttached
+                && isFocused()
+                && hasWindowFocus()
+                && getWindowVisibility() == VISIBLE
+                && isShown());
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        PasswordTrace.begin(PasswordTrace.ON_MEASURE);
+        PasswordRenderer renderer = mRenderer;
+        renderer.measure(widthMeasureSpec, heightMeasureSpec, getSuggestedMinimumWidth(), getSuggestedMinimumHeight());
+        setMeasuredDimension(renderer.getMeasuredWidth(), renderer.getMeasuredHeight());
+        PasswordTrace.end();
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        mRenderer.invalidateGeometry();
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        PasswordTrace.begin(PasswordTrace.ON_DRAW);
+        mRenderer.draw(canvas, mPasswordChars, isFocused());
+        PasswordTrace.end();
+    }
+
+    /**
+     * 只处理提交、组合、删除和按键，不维护可编辑文本。组合中的文字直接写在密码末尾，
+     * 记录它的长度，下一次组合或提交时替换掉
+     */
+    private static final class PasswordInputConnection extends BaseInputConnection {
+
+        private final LitePasswordView mView;
+        private int mComposingLength;
+
+        PasswordInputConnection(LitePasswordView view) {
+            super(view, false);
+            mView = view;
+        }
+
+        @Override
+        public boolean commitText(CharSequence text, int newCursorPosition) {
+            mView.replaceChars(mComposingLength, text);
+            mComposingLength = 0;
+            return true;
+        }
+
+        @Override
+        public boolean setComposingText(CharSequence text, int newCursorPosition) {
+            mComposingLength = mView.replaceChars(mComposingLength, text);
+            return true;
+        }
+
+        @Override
+        public boolean finishComposingText() {
+            mComposingLength = 0;
+            return true;
+        }
+
+        @Override
+        public boolean deleteSurroundingText(int beforeLength, int afterLength) {
+            //光标始终在末尾，组合中的文字在光标之前，先被删除
+            mView.deleteChars(beforeLength);
+            mComposingLength = Math.max(0, mComposingLength - beforeLength);
+            return true;
+        }
+
+        @Override
+        public boolean performEditorAction(int actionCode) {
+            InputMethodManager imm = mView.getInputMethodManager();
+            if (imm != null) {
+                imm.hideSoftInputFromWindow(mView.getWindowToken(), 0);
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.hyh.widget;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.MotionEvent;
+import android.view.View;
+
+import com.hyh.widget.measure.BoxGeometry;
+import com.hyh.widget.measure.MeasureParams;
+
+/**
+ * 应用内的数字键盘，绑定到{@link PasswordView}后直接把数字写入密码缓冲区，并且不再弹出系统输入法。
+ * 按键的位置复用{@link BoxGeometry}，底色缓存成{@link StaticLayer}，数字从{@link GlyphAtlas}中拷贝，
+ * 按下与抬起的过程中不创建对象
+ */
+public class PasswordKeypadView extends View {
+
+    private static final int COLUMNS = 3;
+    private static final int ROWS = 4;
+
+    private static final int KEY_NONE = -1;
+    private static final int KEY_EMPTY = 9;
+    private static final int KEY_ZERO = 10;
+    private static final int KEY_DELETE = 11;
+
+    private float mKeyHeight;
+    private float mKeySpace;
+    private float mKeyRadius;
+    private float mKeyBorderSize;
+    private int mKeyBackgroundColor;
+    private int mKeyBorderColor;
+    private int mKeyPressedColor;
+    private float mTextSize;
+    private int mTextColor;
+
+    private final BoxGeometry mKeyGeometry = new BoxGeometry();
+    private final MeasureParams mMeasureParams = new MeasureParams();
+    private final StaticLayer mKeyLayer = new StaticLayer(this, new KeyLayerContent());
+
+    private final Paint mKeyBackgroundPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint mKeyBorderPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint mKeyPressedPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint mDeletePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Path mDeletePath = new Path();
+    private final RectF mTempRectF = new RectF();
+
+    private GlyphAtlas mGlyphAtlas;
+
+    private PasswordView mPasswordView;
+    private int mPressedKey = KEY_NONE;
+
+    public PasswordKeypadView(Context context) {
+        super(context);
+        init(null);
+    }
+
+    public PasswordKeypadView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        init(attrs);
+    }
+
+    public PasswordKeypadView(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        init(attrs);
+    }
+
+    private void init(AttributeSet attrs) {
+        float density = getResources().getDisplayMetrics().density;
+        mKeyHeight = density * 56;
+        mKeySpace = density * 8;
+        mKeyRadius = density * 8;
+        mKeyBorderSize = 0;
+        mKeyBackgroundColor = Color.WHITE;
+        mKeyBorderColor = Color.LTGRAY;
+        mKeyPressedColor = 0x1F000000;
+        mTextSize = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, 24, getResources().getDisplayMetrics());
+        mTextColor = Color.BLACK;
+        if (attrs != null) {
+            TypedArray typedArray = getContext().obtainStyledAttributes(attrs, R.styleable.PasswordKeypadView);
+            mKeyHeight = typedArray.getDimension(R.styleable.PasswordKeypadView_keyHeight, mKeyHeight);
+            mKeySpace = typedArray.getDimension(R.styleable.PasswordKeypadView_keySpace, mKeySpace);
+            mKeyRadius = typedArray.getDimension(R.styleable.PasswordKeypadView_keyRadius, mKeyRadius);
+            mKeyBorderSize = typedArray.getDimension(R.styleable.PasswordKeypadView_keyBorderSize, mKeyBorderSize);
+            mKeyBackgroundColor = typedArray.getColor(R.styleable.PasswordKeypadView_keyBackgroundColor, mKeyBackgroundColor);
+            mKeyBorderColor = typedArray.getColor(R.styleable.PasswordKeypadView_keyBorderColor, mKeyBorderColor);
+            mKeyPressedColor = typedArray.getColor(R.styleable.PasswordKeypadView_keyPressedColor, mKeyPressedColor);
+            mTextSize = typedArray.getDimension(R.styleable.PasswordKeypadView_android_textSize, mTextSize);
+            mTextColor = typedArray.getColor(R.styleable.PasswordKeypadView_android_textColor, mTextColor);
+            typedArray.recycle();
+        }
+
+        mKeyBackgroundPaint.setStyle(Paint.Style.FILL);
+        mKeyBorderPaint.setStyle(Paint.Style.STROKE);
+        mKeyPressedPaint.setStyle(Paint.Style.FILL);
+        mDeletePaint.setStyle(Paint.Style.STROKE);
+        mDeletePaint.setStrokeJoin(Paint.Join.ROUND);
+        mDeletePaint.setStrokeCap(Paint.Cap.ROUND);
+
+        //键盘本身不获取焦点，焦点始终留在密码框上
+        setFocusable(false);
+        setClickable(true);
+    }
+
+    /**
+     * 绑定后按键直接写入passwordView，passwordView不再弹出系统输入法
+     */
+    public void bind(PasswordView passwordView) {
+        if (mPasswordView == passwordView) return;
+        unbind();
+        mPasswordView = passwordView;
+        if (passwordView != null) {
+            passwordView.setKeypadBound(true);
+        }
+    }
+
+    public void unbind() {
+        PasswordView passwordView = mPasswordView;
+        if (passwordView == null) return;
+        mPasswordView = null;
+        passwordView.setKeypadBound(false);
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int horizontalPadding = getPaddingLeft() + getPaddingRight();
+        int verticalPadding = getPaddingTop() + getPaddingBottom();
+        int defaultWidth = Math.round(mKeyHeight * 2 * COLUMNS + mKeySpace * (COLUMNS - 1)) + horizontalPadding;
+        int defaultHeight = Math.round(mKeyHeight * ROWS + mKeySpace * (ROWS - 1)) + verticalPadding;
+        setMeasuredDimension(resolveSize(Math.max(defaultWidth, getSuggestedMinimumWidth()), widthMeasureSpec),
+                resolveSize(Math.max(defaultHeight, getSuggestedMinimumHeight()), heightMeasureSpec));
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        mKeyGeometry.invalidate();
+    }
+
+    private BoxGeometry ensureKeyGeometry() {
+        BoxGeometry geometry = mKeyGeometry;
+        if (geometry.valid && geometry.matchesPadding(getPaddingLeft(), getPaddingTop(), getPaddingRight(), getPaddingBottom())) {
+            return geometry;
+        }
+        mMeasureParams.set(getPaddingLeft(), getPaddingTop(), getPaddingRight(), getPaddingBottom(), 0, 0);
+        if (!geometry.computeGrid(COLUMNS, ROWS, mKeySpace, mKeyBorderSize, mMeasureParams, getMeasuredWidth(), getMeasuredHeight())) {
+            return null;
+        }
+        buildDeletePath(geometry);
+        mKeyLayer.invalidate();
+        return geometry;
+    }
+
+    /**
+     * 删除键的图标：左侧带尖角的轮廓加一个叉号，大小与字号一致
+     */
+    private void buildDeletePath(BoxGeometry geometry) {
+        float[] boxes = geometry.boxes;
+        int offset = KEY_DELETE * 4;
+        float centerX = (boxes[offset] + boxes[offset + 2]) * 0.5f;
+        float centerY = (boxes[offset + 1] + boxes[offset + 3]) * 0.5f;
+        float halfHeight = mTextSize * 0.4f;
+        float halfWidth = mTextSize * 0.6f;
+        float tip = halfHeight;
+
+        Path path = mDeletePath;
+        path.reset();
+        path.moveTo(centerX - halfWidth, centerY);
+        path.lineTo(centerX - halfWidth + tip, centerY - halfHeight);
+        path.lineTo(centerX + halfWidth, centerY - halfHeight);
+        path.lineTo(centerX + halfWidth, centerY + halfHeight);
+        path.lineTo(centerX - halfWidth + tip, centerY + halfHeight);
+        path.close();
+
+        float crossCenterX = centerX + tip * 0.5f;
+        float cross = halfHeight * 0.45f;
+        path.moveTo(crossCenterX - cross, centerY - cross);
+        path.lineTo(crossCenterX + cross, centerY + cross);
+        path.moveTo(crossCenterX + cross, centerY - cross);
+        path.lineTo(crossCenterX - cross, centerY + cross);
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        BoxGeometry geometry = ensureKeyGeometry();
+        if (geometry == null) return;
+        mKeyLayer.draw(canvas, geometry);
+
+        canvas.save();
+        canvas.translate(geometry.originX, geometry.originY);
+        float[] boxes = geometry.boxes;
+        int pressedKey = mPressedKey;
+        if (pressedKey != KEY_NONE) {
+            int offset = pressedKey * 4;
+            mKeyPressedPaint.setColor(mKeyPressedColor);
+            mTempRectF.set(boxes[offset], boxes[offset + 1], boxes[offset + 2], boxes[offset + 3]);
+            canvas.drawRoundRect(mTempRectF, mKeyRadius, mKeyRadius, mKeyPressedPaint);
+        }
+
+        GlyphAtlas glyphAtlas = ensureGlyphAtlas();
+        for (int key = 0; key < KEY_DELETE; key++) {
+            if (key == KEY_EMPTY) continue;
+            int offset = key * 4;
+            float centerX = (boxes[offset] + boxes[offset + 2]) * 0.5f;
+            float centerY = (boxes[offset + 1] + boxes[offset + 3]) * 0.5f;
+            glyphAtlas.draw(canvas, GlyphAtlas.getGlyphIndex(getKeyDigit(key)), centerX, centerY,
+                    geometry.originX, geometry.originY, mTempRectF);
+        }
+
+        mDeletePaint.setColor(mTextColor);
+        mDeletePaint.setStrokeWidth(mTextSize * 0.08f);
+        canvas.drawPath(mDeletePath, mDeletePaint);
+        canvas.restore();
+    }
+
+    private GlyphAtlas ensureGlyphAtlas() {
+        GlyphAtlas glyphAtlas = mGlyphAtlas;
+        if (glyphAtlas == null || !glyphAtlas.matches(mTextSize, null, mTextColor, null)) {
+            releaseGlyphAtlas();
+            glyphAtlas = mGlyphAtlas = GlyphAtlas.acquire(mTextSize, null, mTextColor, null);
+        }
+        return glyphAtlas;
+    }
+
+    private void releaseGlyphAtlas() {
+        if (mGlyphAtlas != null) {
+            mGlyphAtlas.release();
+            mGlyphAtlas = null;
+        }
+    }
+
+    private static char getKeyDigit(int key) {
+        return key == KEY_ZERO ? '0' : (char) ('1' + key);
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (!isEnabled()) return false;
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN: {
+                setPressedKey(findKey(event.getX(), event.getY()));
+                return true;
+            }
+            case MotionEvent.ACTION_MOVE: {
+                if (mPressedKey != KEY_NONE && findKey(event.getX(), event.getY()) != mPressedKey) {
+                    setPressedKey(KEY_NONE);
+                }
+                return true;
+            }
+            case MotionEvent.ACTION_UP: {
+                int key = mPressedKey;
+                setPressedKey(KEY_NONE);
+                if (key != KEY_NONE) {
+                    onKeyClick(key, event.getEventTime());
+                }
+                return true;
+            }
+            case MotionEvent.ACTION_CANCEL: {
+                setPressedKey(KEY_NONE);
+                return true;
+            }
+        }
+        return true;
+    }
+
+    private void onKeyClick(int key, long eventTime) {
+        PasswordView passwordView = mPasswordView;
+        if (passwordView == null) return;
+        if (key == KEY_DELETE) {
+            passwordView.deleteDigit(eventTime);
+        } else {
+            passwordView.inputDigit(getKeyDigit(key), eventTime);
+        }
+    }
+
+    private int findKey(float x, float y) {
+        BoxGeometry geometry = mKeyGeometry;
+        if (!geometry.valid) return KEY_NONE;
+        float localX = x - geometry.originX;
+        float localY = y - geometry.originY;
+        float[] borders = geometry.borders;
+        for (int key = 0; key < geometry.count; key++) {
+            if (key == KEY_EMPTY) continue;
+            int offset = key * 4;
+            if (localX >= borders[offset] && localX < borders[offset + 2]
+                    && localY >= borders[offset + 1] && localY < borders[offset + 3]) {
+                return key;
+            }
+        }
+        return KEY_NONE;
+    }
+
+    private void setPressedKey(int key) {
+        if (mPressedKey == key) return;
+        mPressedKey = key;
+        //刷新区域在硬件加速下被系统忽略，按下与抬起的两个键合并成一次整体刷新
+        invalidate();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        mPressedKey = KEY_NONE;
+        mKeyLayer.release();
+        releaseGlyphAtlas();
+    }
+
+    /**
+     * 按键的底色与边框，录制成静态图层
+     */
+    private final class KeyLayerContent implements StaticLayer.Content {
+
+        @Override
+        public void drawContent(Canvas canvas) {
+            BoxGeometry geometry = mKeyGeometry;
+            float[] boxes = geometry.boxes;
+            float[] borders = geometry.borders;
+            mKeyBackgroundPaint.setColor(mKeyBackgroundColor);
+            mKeyBorderPaint.setColor(mKeyBorderColor);
+            mKeyBorderPaint.setStrokeWidth(mKeyBorderSize);
+            for (int key = 0; key < geometry.count; key++) {
+                if (key == KEY_EMPTY) continue;
+                int offset = key * 4;
+                mTempRectF.set(boxes[offset], boxes[offset + 1], boxes[offset + 2], boxes[offset + 3]);
+                canvas.drawRoundRect(mTempRectF, mKeyRadius, mKeyRadius, mKeyBackgroundPaint);
+                if (mKeyBorderSize > 0) {
+                    mTempRectF.set(borders[offset], borders[offset + 1], borders[offset + 2], borders[offset + 3]);
+                    canvas.drawRoundRect(mTempRectF, mKeyRadius, mKeyRadius, mKeyBorderPaint);
+                }
+            }
+        }
+    }
+}
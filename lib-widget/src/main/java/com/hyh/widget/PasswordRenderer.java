@@ -0,0 +1,758 @@
+package com.hyh.widget;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
+import android.graphics.Typeface;
+import android.graphics.drawable.Drawable;
+import android.view.View;
+
+import com.hyh.widget.measure.BoxGeometry;
+import com.hyh.widget.measure.IMeasurer;
+import com.hyh.widget.measure.MeasureInfo;
+import com.hyh.widget.measure.MeasureParams;
+import com.hyh.widget.measure.MeasureResult;
+import com.hyh.widget.measure.MeasureSpecs;
+import com.hyh.widget.measure.MemoizingMeasurer;
+
+import java.util.Arrays;
+
+import static com.hyh.widget.PasswordView.PASSWORD_TYPE_CIRCLE;
+import static com.hyh.widget.PasswordView.PASSWORD_TYPE_DRAWABLE;
+import static com.hyh.widget.PasswordView.PASSWORD_TYPE_STARS;
+import static com.hyh.widget.PasswordView.PASSWORD_TYPE_TEXT;
+
+/**
+ * 密码框的测量与绘制，{@link PasswordView}与{@link LitePasswordView}共用，
+ * 持有共享的样式以及本View的测量结果、框的几何缓存、静态图层以及字形缓存，只能在主线程使用
+ */
+final class PasswordRenderer implements CursorBlinkTicker.Callback, StaticLayer.Content {
+
+    static final int STYLE_CHANGED_LAYOUT = 1;
+    static final int STYLE_CHANGED_DRAW = 1 << 1;
+
+    private static final int BOX_TYPE_RECT = MeasureInfo.BOX_TYPE_RECT;
+    private static final int BOX_TYPE_OVAL = MeasureInfo.BOX_TYPE_OVAL;
+    private static final int BOX_TYPE_UNDERLINE = MeasureInfo.BOX_TYPE_UNDERLINE;
+
+    private final View mHost;
+
+    //共享的不可变样式，以及本View自己可以修改的部分
+    private PasswordStyle mStyle;
+    private Drawable mPasswordMaskDrawable;
+    private boolean mGlyphAtlasEnabled;
+    private GlyphAtlas mGlyphAtlas;
+    private boolean mCursorEnabled = true;
+
+    private float mTextSize;
+    private Typeface mTypeface;
+    private int mTextColor = Color.BLACK;
+
+    private boolean mCursorBlinking;
+    private boolean mDrawCursor;
+    private int mTextLength;
+
+    private IMeasurer mMeasurer;
+    private MeasureInfo mMeasureInfo;
+    private final MeasureResult mMeasuring = new MeasureResult();
+    private final MeasureResult mMeasured = new MeasureResult();
+    private final MeasureParams mMeasureParams = new MeasureParams();
+    private int mLayoutPassCount;
+
+    //链比View宽时横向滚动，只计算和绘制可见的框
+    private float mScrollX;
+    private int mViewportWidth;
+    private PasswordViewMetrics mMetrics;
+
+    private final Paint mTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    private final RectF mTempRectF = new RectF();
+    private Path mTempPath;
+    private final BoxGeometry mBoxGeometry = new BoxGeometry();
+    private final GlyphMetrics mGlyphMetrics = new GlyphMetrics();
+
+    private final StaticLayer mBoxLayer;
+
+    PasswordRenderer(View host) {
+        mHost = host;
+        mBoxLayer = new StaticLayer(host, this);
+    }
+
+    PasswordStyle getStyle() {
+        return mStyle;
+    }
+
+    /**
+     * 切换样式，只让受影响的缓存失效：测量参数变化时几何缓存失效（静态图层随之重新录制），
+     * 只有边框与背景的外观变化时只重新录制静态图层，字形度量与字形图集在绘制时按密码类型和掩码图自行校验。
+     * 本View单独修改过的掩码图、字形图集与光标开关只在样式中的对应值变化时才被覆盖。
+     * 布局与刷新由宿主View根据返回值处理
+     *
+     * @return {@link #STYLE_CHANGED_LAYOUT}与{@link #STYLE_CHANGED_DRAW}的组合，样式相同时返回0
+     */
+    int setStyle(PasswordStyle style) {
+        PasswordStyle oldStyle = mStyle;
+        if (style == oldStyle) return 0;
+        mStyle = style;
+        mMeasureInfo = style.getMeasureInfo();
+        IMeasurer measurer = mMeasurer;
+        if (!(measurer instanceof MemoizingMeasurer) || ((MemoizingMeasurer) measurer).getMeasurer().getClass() != style.getMeasurer().getClass()) {
+            mMeasurer = new MemoizingMeasurer(style.getMeasurer());
+        }
+
+        if (oldStyle == null || style.getPasswordMaskDrawable() != oldStyle.getPasswordMaskDrawable()) {
+            mPasswordMaskDrawable = style.getPasswordMaskDrawable();
+        }
+        if (oldStyle == null || style.isGlyphAtlasEnabled() != oldStyle.isGlyphAtlasEnabled()) {
+            setGlyphAtlasEnabled(style.isGlyphAtlasEnabled());
+        }
+        if (oldStyle == null || style.isCursorEnabled() != oldStyle.isCursorEnabled()) {
+            mCursorEnabled = style.isCursorEnabled();
+        }
+
+        int changes = STYLE_CHANGED_DRAW;
+        if (oldStyle == null || !style.hasSameLayout(oldStyle)) {
+            mScrollX = 0;
+            mBoxGeometry.invalidate();
+            changes |= STYLE_CHANGED_LAYOUT;
+        } else if (!style.hasSameBoxAppearance(oldStyle)) {
+            mBoxLayer.invalidate();
+        }
+        return changes;
+    }
+
+    int getPasswordLength() {
+        return mMeasureInfo.passwordLength;
+    }
+
+    IMeasurer getMeasurer() {
+        return mMeasurer;
+    }
+
+    int getLayoutPassCount() {
+        return mLayoutPassCount;
+    }
+
+    PasswordViewMetrics getMetrics() {
+        return mMetrics;
+    }
+
+    void setMetrics(PasswordViewMetrics metrics) {
+        mMetrics = metrics;
+    }
+
+    boolean isCursorEnabled() {
+        return mCursorEnabled;
+    }
+
+    void setCursorEnabled(boolean enabled) {
+        mCursorEnabled = enabled;
+    }
+
+    void setPasswordMaskDrawable(Drawable drawable) {
+        mPasswordMaskDrawable = drawable;
+    }
+
+    void setGlyphAtlasEnabled(boolean enabled) {
+        mGlyphAtlasEnabled = enabled;
+        if (!enabled) {
+            releaseGlyphAtlas();
+        }
+    }
+
+    /**
+     * 文字的字号、字体和颜色由宿主View提供，PasswordView取自TextView本身的属性
+     */
+    void setTextStyle(float textSize, Typeface typeface, int textColor) {
+        mTextSize = textSize;
+        mTypeface = typeface;
+        mTextColor = textColor;
+    }
+
+    void setTextLength(int textLength) {
+        mTextLength = textLength;
+    }
+
+    void measure(int widthMeasureSpec, int heightMeasureSpec, int minimumWidth, int minimumHeight) {
+        mLayoutPassCount++;
+        if (mMetrics != null) {
+            mMetrics.recordMeasure();
+        }
+        mMeasuring.clear();
+        IMeasurer measurer = mMeasurer;
+        if (measurer == null) {
+            mMeasured.clear();
+            mBoxGeometry.invalidate();
+            return;
+        }
+
+        View host = mHost;
+        mMeasureParams.set(host.getPaddingLeft(), host.getPaddingTop(), host.getPaddingRight(), host.getPaddingBottom(),
+                minimumWidth, minimumHeight);
+        //滚动模式下框按自身的宽度排列，View的宽度再由父布局的限制决定
+        int chainWidthMeasureSpec = mStyle.isBoxScrollEnabled() ? MeasureSpecs.makeMeasureSpec(0, MeasureSpecs.UNSPECIFIED) : widthMeasureSpec;
+        measurer.measure(mMeasureParams, chainWidthMeasureSpec, heightMeasureSpec, mMeasureInfo, mMeasuring);
+
+        int horizontalPadding = mMeasureParams.getHorizontalPadding();
+        int verticalPadding = mMeasureParams.getVerticalPadding();
+        int passwordLength = mMeasureInfo.passwordLength;
+
+        //GridMeasurer已经算出了多行的内容尺寸
+        if (mMeasureInfo.boxChainStyle != MeasureInfo.BOX_CHAIN_STYLE_GRID) {
+            mMeasuring.measureContentWidth = horizontalPadding
+                    + mMeasuring.measureBoxWidth * passwordLength
+                    + mMeasureInfo.boxBorderSize * 2 * passwordLength
+                    + (mMeasuring.mergedRectBox ? (mMeasureInfo.mergedRectBoxDividerWidth - 2 * mMeasureInfo.boxBorderSize) * (passwordLength - 1) : 0)
+                    + mMeasuring.measureBoxSpace * (passwordLength - 1)
+                    + mMeasuring.measureBoxChainMargin * 2;
+
+            mMeasuring.measureContentHeight = verticalPadding
+                    + mMeasuring.measureBoxHeight
+                    + 2 * mMeasureInfo.boxBorderSize;
+        }
+
+        if (!mMeasured.equals(mMeasuring)) {
+            mMeasured.copy(mMeasuring);
+            mBoxGeometry.invalidate();
+        }
+        mViewportWidth = View.resolveSize(Math.round(mMeasured.measureWidth), widthMeasureSpec);
+    }
+
+    int getMeasuredWidth() {
+        return mStyle.isBoxScrollEnabled() ? mViewportWidth : Math.round(mMeasured.measureWidth);
+    }
+
+    int getMeasuredHeight() {
+        return Math.round(mMeasured.measureHeight);
+    }
+
+    void invalidateGeometry() {
+        mBoxGeometry.invalidate();
+    }
+
+    void draw(Canvas canvas, CharSequence text, boolean focused) {
+        PasswordViewMetrics metrics = mMetrics;
+        long start = metrics != null ? System.nanoTime() : 0;
+        BoxGeometry geometry = ensureBoxGeometry();
+        if (geometry == null) return;
+        canvas.save();
+        if (geometry.windowed) {
+            //只有可见窗口内的框，直接绘制，不使用静态图层
+            View host = mHost;
+            canvas.clipRect(geometry.viewportLeft, 0, geometry.viewportRight, host.getHeight());
+            canvas.translate(geometry.originX - mScrollX, geometry.originY);
+            drawContent(canvas);
+        } else {
+            mBoxLayer.draw(canvas, geometry);
+            canvas.translate(geometry.originX, geometry.originY);
+        }
+        if (focused) {
+            PasswordTrace.begin(PasswordTrace.DRAW_CURSOR);
+            drawCursor(canvas, geometry, text);
+            PasswordTrace.end();
+        }
+        PasswordTrace.begin(PasswordTrace.DRAW_TEXT);
+        drawText(canvas, geometry, text);
+        PasswordTrace.end();
+        canvas.restore();
+        if (metrics != null) {
+            metrics.recordDraw(System.nanoTime() - start);
+        }
+    }
+
+    private BoxGeometry ensureBoxGeometry() {
+        BoxGeometry geometry = mBoxGeometry;
+        View host = mHost;
+        if (geometry.valid && geometry.matchesPadding(host.getPaddingLeft(), host.getPaddingTop(), host.getPaddingRight(), host.getPaddingBottom())) {
+            if (!geometry.windowed) return geometry;
+            scrollToCursor(geometry);
+            if (geometry.coversWindow(mMeasureInfo.passwordLength, mScrollX)) return geometry;
+        }
+        mMeasureParams.set(host.getPaddingLeft(), host.getPaddingTop(), host.getPaddingRight(), host.getPaddingBottom(),
+                mMeasureParams.minimumWidth, mMeasureParams.minimumHeight);
+        if (mStyle.isBoxScrollEnabled()) {
+            if (!geometry.computeWindow(mMeasureInfo, mMeasured, mMeasureParams, host.getMeasuredWidth(), host.getMeasuredHeight(), mScrollX)) {
+                return null;
+            }
+            if (geometry.windowed && scrollToCursor(geometry)) {
+                //滚动后窗口变化，按新的滚动位置重新计算
+                geometry.computeWindow(mMeasureInfo, mMeasured, mMeasureParams, host.getMeasuredWidth(), host.getMeasuredHeight(), mScrollX);
+            }
+            if (geometry.windowed) return geometry;
+        } else if (!geometry.compute(mMeasureInfo, mMeasured, mMeasureParams, host.getMeasuredWidth(), host.getMeasuredHeight())) {
+            return null;
+        }
+        mScrollX = 0;
+        mBoxLayer.invalidate();
+        return geometry;
+    }
+
+    /**
+     * 调整滚动位置让光标所在的框（输满后为最后一个框）完整可见，只改变画布的平移，不重新测量
+     *
+     * @return 滚动位置是否变化
+     */
+    private boolean scrollToCursor(BoxGeometry geometry) {
+        int index = Math.min(mTextLength, mMeasureInfo.passwordLength - 1);
+        float boxLeft = geometry.originX + geometry.pitch * index - mScrollX;
+        float boxRight = boxLeft + geometry.pitch;
+        float scrollX = mScrollX;
+        if (boxRight > geometry.viewportRight) {
+            scrollX += boxRight - geometry.viewportRight;
+        }
+        if (boxLeft < geometry.viewportLeft) {
+            scrollX -= geometry.viewportLeft - boxLeft;
+        }
+        scrollX = Math.max(0, Math.min(geometry.getMaxScrollX(), scrollX));
+        if (scrollX == mScrollX) return false;
+        mScrollX = scrollX;
+        return true;
+    }
+
+    /**
+     * 只有在获得焦点、可见且窗口获得焦点时才注册到全局的光标闪烁计时器，blink由宿主View判断
+     */
+    void setCursorBlinking(boolean blink) {
+        if (blink == mCursorBlinking) return;
+        mCursorBlinking = blink;
+        mDrawCursor = blink;
+        if (blink) {
+            CursorBlinkTicker.getInstance().register(this);
+        } else {
+            CursorBlinkTicker.getInstance().unregister(this);
+        }
+        if (mMetrics != null) {
+            mMetrics.recordCursorInvalidate();
+        }
+        invalidateCursorBox();
+    }
+
+    boolean isCursorBlinking() {
+        return mCursorBlinking;
+    }
+
+    @Override
+    public void onCursorBlink(boolean visible) {
+        if (mDrawCursor == visible) return;
+        mDrawCursor = visible;
+        if (mMetrics != null) {
+            mMetrics.recordCursorInvalidate();
+        }
+        invalidateCursorBox();
+    }
+
+    /**
+     * 内容发生变化的框，以及光标前后所在的框需要刷新
+     */
+    void invalidateTextChange(int start, int before, int count, int length) {
+        int oldLength = length - count + before;
+        int end = start + Math.max(before, count) - 1;
+        invalidateText(Math.min(start, Math.min(oldLength, length)), Math.max(end, Math.max(oldLength, length)), length);
+    }
+
+    /**
+     * from到to（包含）之间的框合并成一次刷新，连续输入或粘贴时只产生一次invalidate
+     */
+    void invalidateText(int from, int to, int length) {
+        mTextLength = length;
+        if (mMetrics != null) {
+            mMetrics.recordTextInvalidate();
+        }
+        BoxGeometry geometry = mBoxGeometry;
+        if (geometry.valid && geometry.windowed && scrollToCursor(geometry)) {
+            //整体平移，窗口在下一次绘制时按新的滚动位置计算
+            mHost.invalidate();
+        } else {
+            invalidateBoxRange(from, to);
+        }
+        if (mCursorBlinking) {
+            CursorBlinkTicker.getInstance().onActive();
+        }
+    }
+
+    void invalidateBox(int index) {
+        invalidateBoxRange(index, index);
+    }
+
+    /**
+     * 刷新区域在硬件加速下（API 21起）被系统忽略，只判断变化的框是否可见：滚动模式下窗口外的框变化时不刷新，
+     * 其余情况整个View刷新一次
+     */
+    private void invalidateBoxRange(int from, int to) {
+        BoxGeometry geometry = mBoxGeometry;
+        if (geometry.valid && geometry.windowed) {
+            int firstIndex = geometry.firstIndex;
+            if (Math.max(from, firstIndex) > Math.min(to, firstIndex + geometry.count - 1)) return;
+        }
+        mHost.invalidate();
+    }
+
+    void invalidateCursorBox() {
+        invalidateBox(mTextLength);
+    }
+
+    /**
+     * 释放静态图层与字形图集，宿主View从窗口移除时调用
+     */
+    void release() {
+        mBoxLayer.release();
+        releaseGlyphAtlas();
+    }
+
+    /**
+     * 框的边框与背景，由{@link StaticLayer}录制成静态图层
+     */
+    @Override
+    public void drawContent(Canvas canvas) {
+        PasswordTrace.begin(PasswordTrace.DRAW_BOX);
+        drawBox(canvas, mBoxGeometry);
+        PasswordTrace.end();
+    }
+
+    private void drawBox(Canvas canvas, BoxGeometry geometry) {
+        switch (mMeasureInfo.boxType) {
+            case BOX_TYPE_RECT: {
+                drawRectBox(canvas, geometry);
+                break;
+            }
+            case BOX_TYPE_OVAL: {
+                drawOvalBox(canvas, geometry);
+                break;
+            }
+            case BOX_TYPE_UNDERLINE: {
+                drawUnderlineBox(canvas, geometry);
+                break;
+            }
+        }
+    }
+
+    private void drawRectBox(Canvas canvas, BoxGeometry geometry) {
+        PasswordStyle style = mStyle;
+        Paint boxBorderPaint = style.getBoxBorderPaint();
+        Paint boxBackgroundPaint = style.getBoxBackgroundPaint();
+        float rectBoxRadius = style.getRectBoxRadius();
+
+        int count = geometry.count;
+        float boxBorderSize = mMeasureInfo.boxBorderSize;
+        float[] boxes = geometry.boxes;
+        float[] borders = geometry.borders;
+
+        if (mMeasured.mergedRectBox) {
+
+            if (boxBorderSize > 0) {
+                mTempRectF.set(geometry.frameLeft, geometry.frameTop, geometry.frameRight, geometry.frameBottom);
+                canvas.drawRoundRect(mTempRectF, rectBoxRadius, rectBoxRadius, boxBorderPaint);
+            }
+
+            Paint boxDividerPaint = style.getBoxDividerPaint();
+            int firstIndex = geometry.firstIndex;
+            int lastIndex = mMeasureInfo.passwordLength - 1;
+            for (int index = 0; index < count; index++) {
+                int offset = index * 4;
+                if (boxBorderSize > 0) {
+                    if (firstIndex + index < lastIndex) {
+                        canvas.drawLine(borders[offset], borders[offset + 1], borders[offset + 2], borders[offset + 3], boxDividerPaint);
+                    }
+                }
+                mTempRectF.set(boxes[offset], boxes[offset + 1], boxes[offset + 2], boxes[offset + 3]);
+                drawMergedRectBoxBackground(canvas, firstIndex + index, mTempRectF);
+            }
+
+        } else {
+            for (int index = 0; index < count; index++) {
+                int offset = index * 4;
+                mTempRectF.set(borders[offset], borders[offset + 1], borders[offset + 2], borders[offset + 3]);
+
+                if (boxBorderSize == 0) {
+                    canvas.drawRoundRect(mTempRectF, rectBoxRadius, rectBoxRadius, boxBackgroundPaint);
+                } else {
+                    if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.LOLLIPOP) {
+                        //先画背景再画边框，与在离屏图层中用DST_OVER把背景垫到边框下面的效果一致
+                        canvas.drawRoundRect(mTempRectF, rectBoxRadius, rectBoxRadius, boxBackgroundPaint);
+                        canvas.drawRoundRect(mTempRectF, rectBoxRadius, rectBoxRadius, boxBorderPaint);
+                    } else {
+                        canvas.drawRoundRect(mTempRectF, rectBoxRadius, rectBoxRadius, boxBorderPaint);
+
+                        mTempRectF.set(boxes[offset], boxes[offset + 1], boxes[offset + 2], boxes[offset + 3]);
+                        float boxBackgroundRadius = style.getBoxBackgroundRadius();
+                        canvas.drawRoundRect(mTempRectF, boxBackgroundRadius, boxBackgroundRadius, boxBackgroundPaint);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 首尾两个框的外侧带圆角，圆角数组由样式预先算好，中间的框没有圆角直接画矩形
+     */
+    private void drawMergedRectBoxBackground(Canvas canvas, int index, RectF boxRectF) {
+        PasswordStyle style = mStyle;
+        float[] radii;
+        if (index == 0) {
+            radii = style.getFirstBoxRadii();
+        } else if (index == mMeasureInfo.passwordLength - 1) {
+            radii = style.getLastBoxRadii();
+        } else {
+            canvas.drawRect(boxRectF, style.getBoxBackgroundPaint());
+            return;
+        }
+        Path path = mTempPath;
+        if (path == null) {
+            path = mTempPath = new Path();
+        }
+        path.reset();
+        path.addRoundRect(boxRectF, radii, Path.Direction.CW);
+        canvas.drawPath(path, style.getBoxBackgroundPaint());
+    }
+
+    private void drawOvalBox(Canvas canvas, BoxGeometry geometry) {
+        int count = geometry.count;
+        float boxBorderSize = mMeasureInfo.boxBorderSize;
+        float[] boxes = geometry.boxes;
+        float[] borders = geometry.borders;
+
+        Paint boxBorderPaint = mStyle.getBoxBorderPaint();
+        Paint boxBackgroundPaint = mStyle.getBoxBackgroundPaint();
+
+        for (int index = 0; index < count; index++) {
+            int offset = index * 4;
+            mTempRectF.set(borders[offset], borders[offset + 1], borders[offset + 2], borders[offset + 3]);
+
+            if (boxBorderSize == 0) {
+                canvas.drawOval(mTempRectF, boxBackgroundPaint);
+            } else {
+                if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.LOLLIPOP) {
+                    canvas.drawOval(mTempRectF, boxBackgroundPaint);
+                    canvas.drawOval(mTempRectF, boxBorderPaint);
+                } else {
+
+                    canvas.drawOval(mTempRectF, boxBorderPaint);
+
+                    mTempRectF.set(boxes[offset], boxes[offset + 1], boxes[offset + 2], boxes[offset + 3]);
+                    canvas.drawOval(mTempRectF, boxBackgroundPaint);
+                }
+            }
+        }
+    }
+
+    private void drawUnderlineBox(Canvas canvas, BoxGeometry geometry) {
+        int count = geometry.count;
+        float boxBorderSize = mMeasureInfo.boxBorderSize;
+        float[] boxes = geometry.boxes;
+        float[] borders = geometry.borders;
+
+        Paint boxBorderPaint = mStyle.getBoxBorderPaint();
+        Paint boxBackgroundPaint = mStyle.getBoxBackgroundPaint();
+
+        for (int index = 0; index < count; index++) {
+            int offset = index * 4;
+            if (boxBorderSize > 0) {
+                canvas.drawLine(borders[offset], borders[offset + 1], borders[offset + 2], borders[offset + 3], boxBorderPaint);
+            }
+            canvas.drawRect(boxes[offset], boxes[offset + 1], boxes[offset + 2], boxes[offset + 3], boxBackgroundPaint);
+        }
+    }
+
+    private void drawCursor(Canvas canvas, BoxGeometry geometry, CharSequence text) {
+        if (mDrawCursor) {
+            PasswordStyle style = mStyle;
+            int passwordLength = mMeasureInfo.passwordLength;
+
+            int textLength = text == null ? 0 : text.length();
+            if (textLength >= passwordLength) return;
+            int index = textLength - geometry.firstIndex;
+            if (index < 0 || index >= geometry.count) return;
+
+            float[] boxes = geometry.boxes;
+            int offset = index * 4;
+
+            float cursorWidth = style.getCursorWidth();
+            float startX = (boxes[offset] + boxes[offset + 2]) * 0.5f - cursorWidth * 0.5f;
+            float startY = boxes[offset + 1] + style.getCursorMarginTop();
+            float stopX = startX;
+            float stopY = boxes[offset + 3] - style.getCursorMarginBottom();
+
+            canvas.drawLine(startX, startY, stopX, stopY, style.getCursorPaint());
+        }
+    }
+
+    private void drawText(Canvas canvas, BoxGeometry geometry, CharSequence text) {
+        int textLength = text == null ? 0 : text.length();
+        if (textLength == 0) return;
+
+        textLength = Math.min(mMeasureInfo.passwordLength, textLength);
+        int textColor = mTextColor;
+        int passwordType = mStyle.getPasswordType();
+        GlyphMetrics glyphMetrics = ensureGlyphMetrics();
+        GlyphAtlas glyphAtlas = mGlyphAtlasEnabled ? ensureGlyphAtlas(textColor) : null;
+        mTextPaint.setColor(textColor);
+
+        char[] glyph = glyphMetrics.glyph;
+        float[] boxes = geometry.boxes;
+        int firstIndex = geometry.firstIndex;
+        int lastIndex = Math.min(textLength, firstIndex + geometry.count);
+        float originX = geometry.windowed ? geometry.originX - mScrollX : geometry.originX;
+        for (int index = firstIndex; index < lastIndex; index++) {
+            int offset = (index - firstIndex) * 4;
+            float centerX = (boxes[offset] + boxes[offset + 2]) * 0.5f;
+            float centerY = (boxes[offset + 1] + boxes[offset + 3]) * 0.5f;
+            if (glyphAtlas != null) {
+                int glyphIndex = getAtlasGlyphIndex(text.charAt(index));
+                if (glyphIndex >= 0) {
+                    glyphAtlas.draw(canvas, glyphIndex, centerX, centerY, originX, geometry.originY, mTempRectF);
+                    continue;
+                }
+            }
+            switch (passwordType) {
+                case PASSWORD_TYPE_STARS: {
+                    glyph[0] = '*';
+                    float baseX = centerX - glyphMetrics.starAdvance * 0.5f;
+                    float baseY = centerY + glyphMetrics.baselineOffset + glyphMetrics.starCorrection;
+                    canvas.drawText(glyph, 0, 1, baseX, baseY, mTextPaint);
+                    break;
+                }
+                case PASSWORD_TYPE_CIRCLE: {
+                    canvas.drawCircle(centerX, centerY, glyphMetrics.circleRadius, mTextPaint);
+                    break;
+                }
+                case PASSWORD_TYPE_TEXT: {
+                    char charAt = text.charAt(index);
+                    glyph[0] = charAt;
+                    float baseX = centerX - glyphMetrics.getAdvance(mTextPaint, charAt) * 0.5f;
+                    float baseY = centerY + glyphMetrics.baselineOffset;
+                    canvas.drawText(glyph, 0, 1, baseX, baseY, mTextPaint);
+                    break;
+                }
+                case PASSWORD_TYPE_DRAWABLE: {
+                    Drawable drawable = mPasswordMaskDrawable;
+                    if (drawable != null) {
+                        int half = Math.round(mTextSize * 0.5f);
+                        int left = Math.round(centerX) - half;
+                        int top = Math.round(centerY) - half;
+                        drawable.setBounds(left, top, left + half * 2, top + half * 2);
+                        drawable.draw(canvas);
+                    }
+                    break;
+                }
+            }
+        }
+    }
+
+    private int getAtlasGlyphIndex(char c) {
+        switch (mStyle.getPasswordType()) {
+            case PASSWORD_TYPE_STARS: {
+                return GlyphAtlas.GLYPH_STAR;
+            }
+            case PASSWORD_TYPE_CIRCLE: {
+                return GlyphAtlas.GLYPH_CIRCLE;
+            }
+            case PASSWORD_TYPE_TEXT: {
+                return GlyphAtlas.getGlyphIndex(c);
+            }
+            case PASSWORD_TYPE_DRAWABLE: {
+                return mPasswordMaskDrawable == null ? -1 : GlyphAtlas.GLYPH_MASK;
+            }
+        }
+        return -1;
+    }
+
+    private GlyphAtlas ensureGlyphAtlas(int textColor) {
+        Drawable mask = mStyle.getPasswordType() == PASSWORD_TYPE_DRAWABLE ? mPasswordMaskDrawable : null;
+        GlyphAtlas glyphAtlas = mGlyphAtlas;
+        if (glyphAtlas == null || !glyphAtlas.matches(mTextSize, mTypeface, textColor, mask)) {
+            releaseGlyphAtlas();
+            glyphAtlas = mGlyphAtlas = GlyphAtlas.acquire(mTextSize, mTypeface, textColor, mask);
+        }
+        return glyphAtlas;
+    }
+
+    private void releaseGlyphAtlas() {
+        if (mGlyphAtlas != null) {
+            mGlyphAtlas.release();
+            mGlyphAtlas = null;
+        }
+    }
+
+    private GlyphMetrics ensureGlyphMetrics() {
+        GlyphMetrics glyphMetrics = mGlyphMetrics;
+        int passwordType = mStyle.getPasswordType();
+        if (!glyphMetrics.isValid(mTextSize, mTypeface, passwordType)) {
+            glyphMetrics.rebuild(mTextPaint, mTextSize, mTypeface, passwordType);
+        }
+        return glyphMetrics;
+    }
+
+    /**
+     * 掩码字符的度量缓存，只在字号、字体或密码类型变化时重新计算，绘制时不再测量文字
+     */
+    static class GlyphMetrics {
+
+        private static final int ADVANCE_CACHE_SIZE = 128;
+
+        final char[] glyph = new char[1];
+        private final float[] mAdvances = new float[ADVANCE_CACHE_SIZE];
+
+        private boolean mValid;
+        private float mTextSize;
+        private Typeface mTypeface;
+        private int mPasswordType;
+
+        float baselineOffset;
+        float starAdvance;
+        float starCorrection;
+        float circleRadius;
+
+        boolean isValid(float textSize, Typeface typeface, int passwordType) {
+            return mValid
+                    && mTextSize == textSize
+                    && mTypeface == typeface
+                    && mPasswordType == passwordType;
+        }
+
+        void rebuild(Paint paint, float textSize, Typeface typeface, int passwordType) {
+            mTextSize = textSize;
+            mTypeface = typeface;
+            mPasswordType = passwordType;
+
+            float paintTextSize = passwordType == PASSWORD_TYPE_STARS ? textSize * 1.5f : textSize;
+            paint.setTextSize(paintTextSize);
+            paint.setTypeface(typeface);
+            paint.setStyle(Paint.Style.FILL);
+            //水平居中由缓存的字符宽度计算，避免drawText时再测量一次
+            paint.setTextAlign(Paint.Align.LEFT);
+
+            Paint.FontMetrics fontMetrics = paint.getFontMetrics();
+            baselineOffset = -(fontMetrics.bottom + fontMetrics.top) * 0.5f;
+
+            glyph[0] = '*';
+            starAdvance = paint.measureText(glyph, 0, 1);
+            starCorrection = starAdvance * 0.26f;
+            circleRadius = paintTextSize * 0.5f;
+
+            Arrays.fill(mAdvances, -1);
+            mValid = true;
+        }
+
+        float getAdvance(Paint paint, char c) {
+            if (c < ADVANCE_CACHE_SIZE) {
+                float advance = mAdvances[c];
+                if (advance < 0) {
+                    advance = measureAdvance(paint, c);
+                    mAdvances[c] = advance;
+                }
+                return advance;
+            }
+            return measureAdvance(paint, c);
+        }
+
+        private float measureAdvance(Paint paint, char c) {
+            char glyphChar = glyph[0];
+            glyph[0] = c;
+            float advance = paint.measureText(glyph, 0, 1);
+            glyph[0] = glyphChar;
+            return advance;
+        }
+    }
+}
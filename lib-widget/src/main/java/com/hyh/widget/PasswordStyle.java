@@ -0,0 +1,679 @@
+package com.hyh.widget;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.drawable.Drawable;
+import android.util.AttributeSet;
+import android.util.SparseArray;
+
+import java.util.WeakHashMap;
+
+import com.hyh.widget.measure.BoundMeasurer;
+import com.hyh.widget.measure.FillMeasurer;
+import com.hyh.widget.measure.FreeMeasurer;
+import com.hyh.widget.measure.GridMeasurer;
+import com.hyh.widget.measure.IMeasurer;
+import com.hyh.widget.measure.MeasureInfo;
+
+import static com.hyh.widget.PasswordView.PASSWORD_TYPE_STARS;
+
+/**
+ * 不可变的密码框样式：解析好的颜色、尺寸、测量器以及配置好的画笔，可以被任意多个{@link PasswordView}、
+ * {@link LitePasswordView}共用，每个View只保存自己的可变状态（输入内容、光标、几何缓存等）。
+ * 通过{@link #fromStyle(Context, int)}从style资源创建（同一个资源只解析一次），或者通过{@link Builder}在代码中创建，
+ * 只能在主线程使用
+ */
+public final class PasswordStyle {
+
+    public static final int BOX_MEASURE_MODE_BOUND = 0;
+    public static final int BOX_MEASURE_MODE_FILL = 1;
+    public static final int BOX_MEASURE_MODE_FREE = 2;
+
+    private static PasswordStyle sDefaultStyle;
+    //按主题分开缓存，Activity或主题覆盖（ContextThemeWrapper）回收后对应的样式、画笔与掩码图随之释放
+    private static final WeakHashMap<Resources.Theme, SparseArray<CacheEntry>> sStyleCache = new WeakHashMap<>();
+
+    private final MeasureInfo mMeasureInfo;
+    private final int mBoxMeasureMode;
+    private final IMeasurer mMeasurer;
+
+    private final int mPasswordType;
+    private final Drawable mPasswordMaskDrawable;
+    private final boolean mGlyphAtlasEnabled;
+    private final boolean mTextLayoutBypassed;
+    private final boolean mHardwareKeyFastPath;
+    private final boolean mBoxScrollEnabled;
+
+    private final int mBoxBackgroundColor;
+    private final int mBoxBorderColor;
+    private final float mRectBoxRadius;
+    private final float mBoxBackgroundRadius;
+
+    private final float mCursorWidth;
+    private final float mCursorMarginTop;
+    private final float mCursorMarginBottom;
+    private final int mCursorColor;
+    private final boolean mCursorEnabled;
+
+    private final float mDensity;
+
+    //配置好的画笔与圆角，所有使用这个样式的View共用，绘制时只读
+    private final Paint mBoxBorderPaint;
+    private final Paint mBoxDividerPaint;
+    private final Paint mBoxBackgroundPaint;
+    private final Paint mCursorPaint;
+    private final float[] mFirstBoxRadii;
+    private final float[] mLastBoxRadii;
+
+    //只有密码长度不同的样式共用一个表，切换长度时直接取出，不再创建新的样式与画笔
+    private final LengthVariants mLengthVariants;
+
+    private PasswordStyle(Builder builder) {
+        mMeasureInfo = builder.mMeasureInfo.clone();
+        mBoxMeasureMode = builder.mBoxMeasureMode;
+        mMeasurer = createMeasurer(mMeasureInfo.boxChainStyle, mBoxMeasureMode);
+
+        mPasswordType = builder.mPasswordType;
+        mPasswordMaskDrawable = builder.mPasswordMaskDrawable;
+        mGlyphAtlasEnabled = builder.mGlyphAtlasEnabled;
+        mTextLayoutBypassed = builder.mTextLayoutBypassed;
+        mHardwareKeyFastPath = builder.mHardwareKeyFastPath;
+        mBoxScrollEnabled = builder.mBoxScrollEnabled;
+
+        mBoxBackgroundColor = builder.mBoxBackgroundColor;
+        mBoxBorderColor = builder.mBoxBorderColor;
+        mRectBoxRadius = builder.mRectBoxRadius;
+
+        mCursorWidth = builder.mCursorWidth;
+        mCursorMarginTop = builder.mCursorMarginTop;
+        mCursorMarginBottom = builder.mCursorMarginBottom;
+        mCursorColor = builder.mCursorColor;
+        mCursorEnabled = builder.mCursorEnabled;
+
+        mDensity = builder.mDensity;
+        mBoxBackgroundRadius = computeBoxBackgroundRadius(mRectBoxRadius, mMeasureInfo.boxBorderSize, mDensity);
+
+        float boxBorderSize = mMeasureInfo.boxBorderSize;
+        mBoxBorderPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        mBoxBorderPaint.setColor(mBoxBorderColor);
+        mBoxBorderPaint.setStyle(mMeasureInfo.boxType == MeasureInfo.BOX_TYPE_UNDERLINE ? Paint.Style.FILL : Paint.Style.STROKE);
+        mBoxBorderPaint.setStrokeWidth(boxBorderSize);
+
+        mBoxBackgroundPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        mBoxBackgroundPaint.setColor(mBoxBackgroundColor);
+        mBoxBackgroundPaint.setStyle(Paint.Style.FILL);
+
+        mCursorPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        mCursorPaint.setColor(mCursorColor);
+        mCursorPaint.setStyle(Paint.Style.FILL);
+        mCursorPaint.setStrokeWidth(mCursorWidth);
+
+        //只有矩形框才可能合并，其余类型不需要分隔线与首尾的圆角
+        if (mMeasureInfo.boxType == MeasureInfo.BOX_TYPE_RECT && mMeasureInfo.mergeRectBoxEnabled) {
+            mBoxDividerPaint = new Paint(mBoxBorderPaint);
+            mBoxDividerPaint.setStrokeWidth(mMeasureInfo.mergedRectBoxDividerWidth);
+            float radius = mBoxBackgroundRadius;
+            mFirstBoxRadii = new float[]{radius, radius, 0, 0, 0, 0, radius, radius};
+            mLastBoxRadii = new float[]{0, 0, radius, radius, radius, radius, 0, 0};
+        } else {
+            mBoxDividerPaint = null;
+            mFirstBoxRadii = null;
+            mLastBoxRadii = null;
+        }
+
+        mLengthVariants = builder.mLengthVariants != null ? builder.mLengthVariants : new LengthVariants();
+        mLengthVariants.add(this);
+    }
+
+    private static IMeasurer createMeasurer(int boxChainStyle, int boxMeasureMode) {
+        if (boxChainStyle == MeasureInfo.BOX_CHAIN_STYLE_GRID) {
+            //多行分组排列有自己的测量规则，不区分boxMeasureMode
+            return new GridMeasurer();
+        }
+        switch (boxMeasureMode) {
+            default:
+            case BOX_MEASURE_MODE_BOUND: {
+                return new BoundMeasurer();
+            }
+            case BOX_MEASURE_MODE_FILL: {
+                return new FillMeasurer();
+            }
+            case BOX_MEASURE_MODE_FREE: {
+                return new FreeMeasurer();
+            }
+        }
+    }
+
+    private static float computeBoxBackgroundRadius(float rectBoxRadius, float boxBorderSize, float density) {
+        if (rectBoxRadius == 0) return 0;
+        if (boxBorderSize == 0) return 0;
+        float radius = 1.5f * (boxBorderSize / density - 1) + 0.5f;
+        return rectBoxRadius - Math.max(0, radius);
+    }
+
+    /**
+     * 从style资源创建样式，同一个主题下的同一个资源在配置（屏幕密度、夜间模式等）不变时只解析一次，之后返回同一个对象。
+     * 资源中引用的主题属性按Context的主题取值，不同的主题（包括主题覆盖）各自解析
+     */
+    public static PasswordStyle fromStyle(Context context, int styleRes) {
+        Configuration configuration = context.getResources().getConfiguration();
+        Resources.Theme theme = context.getTheme();
+        SparseArray<CacheEntry> themeCache = sStyleCache.get(theme);
+        if (themeCache == null) {
+            themeCache = new SparseArray<>();
+            sStyleCache.put(theme, themeCache);
+        }
+        CacheEntry entry = themeCache.get(styleRes);
+        if (entry != null && entry.configuration.equals(configuration)) {
+            return entry.style;
+        }
+        TypedArray typedArray = context.obtainStyledAttributes(styleRes, R.styleable.PasswordView);
+        PasswordStyle style;
+        try {
+            style = new Builder(context).read(typedArray).build();
+        } finally {
+            typedArray.recycle();
+        }
+        themeCache.put(styleRes, new CacheEntry(new Configuration(configuration), style));
+        return style;
+    }
+
+    /**
+     * 全部属性都使用默认值的样式，按屏幕密度缓存
+     */
+    public static PasswordStyle getDefault(Context context) {
+        PasswordStyle style = sDefaultStyle;
+        if (style == null || style.mDensity != context.getResources().getDisplayMetrics().density) {
+            style = sDefaultStyle = new Builder(context).build();
+        }
+        return style;
+    }
+
+    /**
+     * 布局中设置了passwordStyle时直接使用共享的样式，忽略标签上的其它样式属性；否则解析标签上的属性
+     */
+    static PasswordStyle obtain(Context context, AttributeSet attrs) {
+        if (attrs == null) return getDefault(context);
+        TypedArray styleRef = context.obtainStyledAttributes(attrs, R.styleable.PasswordStyle);
+        int styleRes = styleRef.getResourceId(R.styleable.PasswordStyle_passwordStyle, 0);
+        styleRef.recycle();
+        if (styleRes != 0) return fromStyle(context, styleRes);
+
+        TypedArray typedArray = context.obtainStyledAttributes(attrs, R.styleable.PasswordView);
+        try {
+            return new Builder(context).read(typedArray).build();
+        } finally {
+            typedArray.recycle();
+        }
+    }
+
+    /**
+     * 以当前样式为初始值的Builder
+     */
+    public Builder buildUpon() {
+        return new Builder(this, null);
+    }
+
+    /**
+     * 只有密码长度不同的样式，同一组样式只会为每个长度创建一次
+     */
+    public PasswordStyle withPasswordLength(int passwordLength) {
+        if (passwordLength == mMeasureInfo.passwordLength) return this;
+        PasswordStyle style = mLengthVariants.get(passwordLength);
+        if (style == null) {
+            Builder builder = buildUpon().setPasswordLength(passwordLength);
+            //新样式在构造时加入同一个表
+            builder.mLengthVariants = mLengthVariants;
+            style = builder.build();
+        }
+        return style;
+    }
+
+    /**
+     * 测量与几何相关的参数是否相同，不同时需要重新布局
+     */
+    boolean hasSameLayout(PasswordStyle style) {
+        return mMeasurer.getClass() == style.mMeasurer.getClass()
+                && mBoxScrollEnabled == style.mBoxScrollEnabled
+                && mMeasureInfo.equals(style.mMeasureInfo);
+    }
+
+    /**
+     * 静态图层中的边框与背景的外观是否相同，框的几何由{@link #hasSameLayout(PasswordStyle)}比较
+     */
+    boolean hasSameBoxAppearance(PasswordStyle style) {
+        return mBoxBorderColor == style.mBoxBorderColor
+                && mBoxBackgroundColor == style.mBoxBackgroundColor
+                && mRectBoxRadius == style.mRectBoxRadius
+                && mDensity == style.mDensity;
+    }
+
+    public int getPasswordLength() {
+        return mMeasureInfo.passwordLength;
+    }
+
+    /**
+     * 共享的测量参数，调用方不能修改
+     */
+    MeasureInfo getMeasureInfo() {
+        return mMeasureInfo;
+    }
+
+    /**
+     * 测量器没有状态，使用同一个样式的View共用，每个View再各自包装一层MemoizingMeasurer
+     */
+    IMeasurer getMeasurer() {
+        return mMeasurer;
+    }
+
+    int getPasswordType() {
+        return mPasswordType;
+    }
+
+    Drawable getPasswordMaskDrawable() {
+        return mPasswordMaskDrawable;
+    }
+
+    boolean isGlyphAtlasEnabled() {
+        return mGlyphAtlasEnabled;
+    }
+
+    boolean isTextLayoutBypassed() {
+        return mTextLayoutBypassed;
+    }
+
+    boolean isHardwareKeyFastPath() {
+        return mHardwareKeyFastPath;
+    }
+
+    boolean isBoxScrollEnabled() {
+        return mBoxScrollEnabled;
+    }
+
+    float getRectBoxRadius() {
+        return mRectBoxRadius;
+    }
+
+    float getBoxBackgroundRadius() {
+        return mBoxBackgroundRadius;
+    }
+
+    float getCursorWidth() {
+        return mCursorWidth;
+    }
+
+    float getCursorMarginTop() {
+        return mCursorMarginTop;
+    }
+
+    float getCursorMarginBottom() {
+        return mCursorMarginBottom;
+    }
+
+    boolean isCursorEnabled() {
+        return mCursorEnabled;
+    }
+
+    Paint getBoxBorderPaint() {
+        return mBoxBorderPaint;
+    }
+
+    Paint getBoxDividerPaint() {
+        return mBoxDividerPaint;
+    }
+
+    Paint getBoxBackgroundPaint() {
+        return mBoxBackgroundPaint;
+    }
+
+    Paint getCursorPaint() {
+        return mCursorPaint;
+    }
+
+    float[] getFirstBoxRadii() {
+        return mFirstBoxRadii;
+    }
+
+    float[] getLastBoxRadii() {
+        return mLastBoxRadii;
+    }
+
+    /**
+     * {@link Builder#apply()}的接收方，由PasswordView与LitePasswordView实现
+     */
+    interface Target {
+
+        void setPasswordStyle(PasswordStyle style);
+
+    }
+
+    /**
+     * 同一组只有密码长度不同的样式，写时复制：加入新样式时换一个新数组，已经发布的数组不再修改
+     */
+    private static final class LengthVariants {
+
+        private static final PasswordStyle[] EMPTY = new PasswordStyle[0];
+
+        private PasswordStyle[] mStyles = EMPTY;
+
+        PasswordStyle get(int passwordLength) {
+            PasswordStyle[] styles = mStyles;
+            for (PasswordStyle style : styles) {
+                if (style.mMeasureInfo.passwordLength == passwordLength) return style;
+            }
+            return null;
+        }
+
+        void add(PasswordStyle style) {
+            PasswordStyle[] styles = mStyles;
+            PasswordStyle[] newStyles = new PasswordStyle[styles.length + 1];
+            System.arraycopy(styles, 0, newStyles, 0, styles.length);
+            newStyles[styles.length] = style;
+            mStyles = newStyles;
+        }
+    }
+
+    private static final class CacheEntry {
+
+        final Configuration configuration;
+        final PasswordStyle style;
+
+        CacheEntry(Configuration configuration, PasswordStyle style) {
+            this.configuration = configuration;
+            this.style = style;
+        }
+    }
+
+    /**
+     * 尺寸的单位都是像素，默认值与XML属性的默认值一致
+     */
+    public static final class Builder {
+
+        private final MeasureInfo mMeasureInfo = new MeasureInfo();
+        private int mBoxMeasureMode = BOX_MEASURE_MODE_BOUND;
+
+        private int mPasswordType = PASSWORD_TYPE_STARS;
+        private Drawable mPasswordMaskDrawable;
+        private boolean mGlyphAtlasEnabled;
+        private boolean mTextLayoutBypassed;
+        private boolean mHardwareKeyFastPath;
+        private boolean mBoxScrollEnabled;
+
+        private int mBoxBackgroundColor = Color.TRANSPARENT;
+        private int mBoxBorderColor = Color.BLACK;
+        private float mRectBoxRadius;
+
+        private float mCursorWidth;
+        private float mCursorMarginTop;
+        private float mCursorMarginBottom;
+        private int mCursorColor = Color.BLACK;
+        private boolean mCursorEnabled = true;
+
+        private final float mDensity;
+        private final Target mTarget;
+        //只由withPasswordLength设置，其余情况新样式自成一组
+        private LengthVariants mLengthVariants;
+
+        public Builder(Context context) {
+            Resources resources = context.getResources();
+            float density = resources.getDisplayMetrics().density;
+            mDensity = density;
+            mTarget = null;
+            mMeasureInfo.boxBorderSize = density * 1;
+            mMeasureInfo.mergeRectBoxEnabled = true;
+            mMeasureInfo.mergedRectBoxDividerWidth = density * 1;
+            mCursorWidth = density * 2;
+            mCursorMarginTop = mCursorMarginBottom = density * 8;
+        }
+
+        Builder(PasswordStyle style, Target target) {
+            mMeasureInfo.copy(style.mMeasureInfo);
+            mBoxMeasureMode = style.mBoxMeasureMode;
+
+            mPasswordType = style.mPasswordType;
+            mPasswordMaskDrawable = style.mPasswordMaskDrawable;
+            mGlyphAtlasEnabled = style.mGlyphAtlasEnabled;
+            mTextLayoutBypassed = style.mTextLayoutBypassed;
+            mHardwareKeyFastPath = style.mHardwareKeyFastPath;
+            mBoxScrollEnabled = style.mBoxScrollEnabled;
+
+            mBoxBackgroundColor = style.mBoxBackgroundColor;
+            mBoxBorderColor = style.mBoxBorderColor;
+            mRectBoxRadius = style.mRectBoxRadius;
+
+            mCursorWidth = style.mCursorWidth;
+            mCursorMarginTop = style.mCursorMarginTop;
+            mCursorMarginBottom = style.mCursorMarginBottom;
+            mCursorColor = style.mCursorColor;
+            mCursorEnabled = style.mCursorEnabled;
+
+            mDensity = style.mDensity;
+            mTarget = target;
+        }
+
+        /**
+         * 读取R.styleable.PasswordView中的属性，没有设置的属性保留当前值
+         */
+        Builder read(TypedArray typedArray) {
+            MeasureInfo info = mMeasureInfo;
+            info.passwordLength = typedArray.getInteger(R.styleable.PasswordView_passwordLength, info.passwordLength);
+            mPasswordType = typedArray.getInt(R.styleable.PasswordView_passwordType, mPasswordType);
+            Drawable drawable = typedArray.getDrawable(R.styleable.PasswordView_passwordMaskDrawable);
+            if (drawable != null) {
+                mPasswordMaskDrawable = drawable;
+            }
+            mGlyphAtlasEnabled = typedArray.getBoolean(R.styleable.PasswordView_glyphAtlasEnabled, mGlyphAtlasEnabled);
+            mTextLayoutBypassed = typedArray.getBoolean(R.styleable.PasswordView_textLayoutBypassed, mTextLayoutBypassed);
+            mHardwareKeyFastPath = typedArray.getBoolean(R.styleable.PasswordView_hardwareKeyFastPath, mHardwareKeyFastPath);
+            mBoxScrollEnabled = typedArray.getBoolean(R.styleable.PasswordView_boxScrollEnabled, mBoxScrollEnabled);
+
+            info.boxType = typedArray.getInt(R.styleable.PasswordView_boxType, info.boxType);
+            mBoxMeasureMode = typedArray.getInt(R.styleable.PasswordView_boxMeasureMode, mBoxMeasureMode);
+            info.boxChainStyle = typedArray.getInt(R.styleable.PasswordView_boxChainStyle, info.boxChainStyle);
+
+            info.boxWidth = typedArray.getDimension(R.styleable.PasswordView_boxWidth, info.boxWidth);
+            info.boxHeight = typedArray.getDimension(R.styleable.PasswordView_boxHeight, info.boxHeight);
+            info.boxWidthPercent = typedArray.getFloat(R.styleable.PasswordView_boxWidthPercent, info.boxWidthPercent);
+            info.boxHeightRatio = typedArray.getFloat(R.styleable.PasswordView_boxHeightRatio, info.boxHeightRatio);
+
+            info.boxBorderSize = typedArray.getDimension(R.styleable.PasswordView_boxBorderSize, info.boxBorderSize);
+            info.boxSpace = typedArray.getDimension(R.styleable.PasswordView_boxSpace, info.boxSpace);
+            info.boxSpacePercent = typedArray.getFloat(R.styleable.PasswordView_boxSpacePercent, info.boxSpacePercent);
+            info.mergeRectBoxEnabled = typedArray.getBoolean(R.styleable.PasswordView_mergeRectBoxEnabled, info.mergeRectBoxEnabled);
+            info.mergedRectBoxDividerWidth = typedArray.getDimension(R.styleable.PasswordView_mergedRectBoxDividerWidth, info.mergedRectBoxDividerWidth);
+
+            info.groupSize = typedArray.getInteger(R.styleable.PasswordView_groupSize, info.groupSize);
+            info.groupSpace = typedArray.getDimension(R.styleable.PasswordView_groupSpace, info.groupSpace);
+            info.boxRowSpace = typedArray.getDimension(R.styleable.PasswordView_boxRowSpace, info.boxRowSpace);
+            info.boxesPerRow = typedArray.getInteger(R.styleable.PasswordView_boxesPerRow, info.boxesPerRow);
+
+            mBoxBackgroundColor = typedArray.getColor(R.styleable.PasswordView_boxBackgroundColor, mBoxBackgroundColor);
+            mBoxBorderColor = typedArray.getColor(R.styleable.PasswordView_boxBordColor, mBoxBorderColor);
+            mRectBoxRadius = typedArray.getDimension(R.styleable.PasswordView_rectBoxRadius, mRectBoxRadius);
+
+            mCursorWidth = typedArray.getDimension(R.styleable.PasswordView_cursorWidth, mCursorWidth);
+            mCursorMarginTop = typedArray.getDimension(R.styleable.PasswordView_cursorMarginTop, mCursorMarginTop);
+            mCursorMarginBottom = typedArray.getDimension(R.styleable.PasswordView_cursorMarginBottom, mCursorMarginBottom);
+            mCursorColor = typedArray.getColor(R.styleable.PasswordView_cursorColor, mCursorColor);
+            mCursorEnabled = typedArray.getBoolean(R.styleable.PasswordView_cursorEnabled, mCursorEnabled);
+            return this;
+        }
+
+        public Builder setPasswordLength(int passwordLength) {
+            mMeasureInfo.passwordLength = passwordLength;
+            return this;
+        }
+
+        public Builder setPasswordType(int passwordType) {
+            mPasswordType = passwordType;
+            return this;
+        }
+
+        public Builder setPasswordMaskDrawable(Drawable drawable) {
+            mPasswordMaskDrawable = drawable;
+            return this;
+        }
+
+        public Builder setGlyphAtlasEnabled(boolean enabled) {
+            mGlyphAtlasEnabled = enabled;
+            return this;
+        }
+
+        public Builder setTextLayoutBypassed(boolean bypassed) {
+            mTextLayoutBypassed = bypassed;
+            return this;
+        }
+
+        public Builder setHardwareKeyFastPath(boolean enabled) {
+            mHardwareKeyFastPath = enabled;
+            return this;
+        }
+
+        public Builder setBoxScrollEnabled(boolean enabled) {
+            mBoxScrollEnabled = enabled;
+            return this;
+        }
+
+        public Builder setBoxMeasureMode(int boxMeasureMode) {
+            mBoxMeasureMode = boxMeasureMode;
+            return this;
+        }
+
+        public Builder setBoxType(int boxType) {
+            mMeasureInfo.boxType = boxType;
+            return this;
+        }
+
+        public Builder setBoxChainStyle(int boxChainStyle) {
+            mMeasureInfo.boxChainStyle = boxChainStyle;
+            return this;
+        }
+
+        public Builder setBoxWidth(float boxWidth) {
+            mMeasureInfo.boxWidth = boxWidth;
+            return this;
+        }
+
+        public Builder setBoxHeight(float boxHeight) {
+            mMeasureInfo.boxHeight = boxHeight;
+            return this;
+        }
+
+        public Builder setBoxWidthPercent(float boxWidthPercent) {
+            mMeasureInfo.boxWidthPercent = boxWidthPercent;
+            return this;
+        }
+
+        public Builder setBoxHeightRatio(float boxHeightRatio) {
+            mMeasureInfo.boxHeightRatio = boxHeightRatio;
+            return this;
+        }
+
+        public Builder setBoxBorderSize(float boxBorderSize) {
+            mMeasureInfo.boxBorderSize = boxBorderSize;
+            return this;
+        }
+
+        public Builder setBoxSpace(float boxSpace) {
+            mMeasureInfo.boxSpace = boxSpace;
+            return this;
+        }
+
+        public Builder setBoxSpacePercent(float boxSpacePercent) {
+            mMeasureInfo.boxSpacePercent = boxSpacePercent;
+            return this;
+        }
+
+        public Builder setMergeRectBoxEnabled(boolean enabled) {
+            mMeasureInfo.mergeRectBoxEnabled = enabled;
+            return this;
+        }
+
+        public Builder setMergedRectBoxDividerWidth(float dividerWidth) {
+            mMeasureInfo.mergedRectBoxDividerWidth = dividerWidth;
+            return this;
+        }
+
+        public Builder setGroupSize(int groupSize) {
+            mMeasureInfo.groupSize = groupSize;
+            return this;
+        }
+
+        public Builder setGroupSpace(float groupSpace) {
+            mMeasureInfo.groupSpace = groupSpace;
+            return this;
+        }
+
+        public Builder setBoxRowSpace(float boxRowSpace) {
+            mMeasureInfo.boxRowSpace = boxRowSpace;
+            return this;
+        }
+
+        public Builder setBoxesPerRow(int boxesPerRow) {
+            mMeasureInfo.boxesPerRow = boxesPerRow;
+            return this;
+        }
+
+        public Builder setBoxBackgroundColor(int color) {
+            mBoxBackgroundColor = color;
+            return this;
+        }
+
+        public Builder setBoxBorderColor(int color) {
+            mBoxBorderColor = color;
+            return this;
+        }
+
+        public Builder setRectBoxRadius(float radius) {
+            mRectBoxRadius = radius;
+            return this;
+        }
+
+        public Builder setCursorWidth(float cursorWidth) {
+            mCursorWidth = cursorWidth;
+            return this;
+        }
+
+        public Builder setCursorMarginTop(float marginTop) {
+            mCursorMarginTop = marginTop;
+            return this;
+        }
+
+        public Builder setCursorMarginBottom(float marginBottom) {
+            mCursorMarginBottom = marginBottom;
+            return this;
+        }
+
+        public Builder setCursorColor(int color) {
+            mCursorColor = color;
+            return this;
+        }
+
+        public Builder setCursorEnabled(boolean enabled) {
+            mCursorEnabled = enabled;
+            return this;
+        }
+
+        public PasswordStyle build() {
+            if (mMeasureInfo.passwordLength <= 0) {
+                throw new IllegalArgumentException("passwordLength must be positive: " + mMeasureInfo.passwordLength);
+            }
+            return new PasswordStyle(this);
+        }
+
+        /**
+         * 把这次编辑的全部修改一起应用到创建它的View上，最多触发一次布局和一次刷新，只有受影响的缓存会失效。
+         * 只能用于{@link PasswordView#edit()}、{@link LitePasswordView#edit()}返回的Builder
+         */
+        public void apply() {
+            if (mTarget == null) {
+                throw new IllegalStateException("apply() is only available on a Builder returned by edit()");
+            }
+            mTarget.setPasswordStyle(build());
+        }
+    }
+}
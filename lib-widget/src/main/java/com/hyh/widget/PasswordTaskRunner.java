@@ -0,0 +1,161 @@
+package com.hyh.widget;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 在Executor中处理密码的快照，结果回到主线程。同一时间只保留最新提交的任务，
+ * 再次提交或取消时旧任务会被中断，它的结果也不会再回调；快照在任务结束或被取消时清零。
+ * 除了任务本身，其余方法只能在主线程调用
+ */
+final class PasswordTaskRunner {
+
+    private static Handler sMainHandler;
+
+    private static Handler getMainHandler() {
+        if (sMainHandler == null) {
+            sMainHandler = new Handler(Looper.getMainLooper());
+        }
+        return sMainHandler;
+    }
+
+    private final Executor mExecutor;
+    private int mGeneration;
+    private Future<?> mFuture;
+    private Job<?> mJob;
+    private boolean mRunning;
+
+    PasswordTaskRunner(Executor executor) {
+        mExecutor = executor;
+    }
+
+    Executor getExecutor() {
+        return mExecutor;
+    }
+
+    boolean isRunning() {
+        return mRunning;
+    }
+
+    <R> void submit(PasswordView.PasswordChars password, Task<R> task, Callback<R> callback) {
+        cancel();
+        int length = password.length();
+        char[] snapshot = new char[length];
+        password.getChars(0, length, snapshot, 0);
+        Job<R> job = new Job<>(this, ++mGeneration, snapshot, task, callback);
+        mJob = job;
+        mRunning = true;
+        try {
+            if (mExecutor instanceof ExecutorService) {
+                mFuture = ((ExecutorService) mExecutor).submit(job);
+            } else {
+                mExecutor.execute(job);
+            }
+        } catch (RejectedExecutionException e) {
+            Arrays.fill(snapshot, '\0');
+            mRunning = false;
+            mFuture = null;
+            mJob = null;
+            callback.onError(e);
+        }
+    }
+
+    void cancel() {
+        mGeneration++;
+        mRunning = false;
+        if (mFuture != null) {
+            mFuture.cancel(true);
+            mFuture = null;
+        }
+        if (mJob != null) {
+            mJob.cancel();
+            mJob = null;
+        }
+    }
+
+    interface Task<R> {
+
+        /**
+         * 在Executor的线程中执行，password在返回后会被清零，不要保存引用
+         */
+        R run(char[] password, int length) throws Exception;
+
+    }
+
+    interface Callback<R> {
+
+        void onResult(R result);
+
+        void onError(Throwable error);
+
+    }
+
+    private static final class Job<R> implements Runnable {
+
+        private final PasswordTaskRunner mRunner;
+        private final int mGeneration;
+        private final char[] mPassword;
+        private final Task<R> mTask;
+        private final Callback<R> mCallback;
+
+        private volatile boolean mCancelled;
+        private R mResult;
+        private Throwable mError;
+
+        Job(PasswordTaskRunner runner, int generation, char[] password, Task<R> task, Callback<R> callback) {
+            mRunner = runner;
+            mGeneration = generation;
+            mPassword = password;
+            mTask = task;
+            mCallback = callback;
+        }
+
+        /**
+         * 还在排队的任务被取消后不一定会再执行run（Future.cancel），快照在这里清零；
+         * 正在执行的任务结果会被丢弃，提前清零不影响回调
+         */
+        void cancel() {
+            mCancelled = true;
+            Arrays.fill(mPassword, '\0');
+        }
+
+        @Override
+        public void run() {
+            //普通Executor无法移除排队中的任务，被取消的任务轮到时直接跳过
+            if (mCancelled) return;
+            try {
+                mResult = mTask.run(mPassword, mPassword.length);
+            } catch (Throwable e) {
+                mError = e;
+            } finally {
+                Arrays.fill(mPassword, '\0');
+            }
+            //Handler按提交顺序执行，旧任务的结果会因为generation不一致被丢弃
+            getMainHandler().post(new Runnable() {
+                @Override
+                public void run() {
+                    deliver();
+                }
+            });
+        }
+
+        private void deliver() {
+            PasswordTaskRunner runner = mRunner;
+            if (runner.mGeneration != mGeneration) return;
+            runner.mRunning = false;
+            runner.mFuture = null;
+            runner.mJob = null;
+            if (mError != null) {
+                mCallback.onError(mError);
+            } else {
+                mCallback.onResult(mResult);
+            }
+        }
+    }
+}
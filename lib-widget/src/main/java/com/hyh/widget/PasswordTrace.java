@@ -0,0 +1,32 @@
+package com.hyh.widget;
+
+import android.os.Build;
+import android.os.Trace;
+
+/**
+ * android.os.Trace的分段名称，在Perfetto/systrace中按名称区分PasswordView各阶段的耗时，API 18以下不记录
+ */
+final class PasswordTrace {
+
+    static final String ON_MEASURE = "PasswordView#onMeasure";
+    static final String ON_DRAW = "PasswordView#onDraw";
+    static final String DRAW_BOX = "PasswordView#drawBox";
+    static final String DRAW_TEXT = "PasswordView#drawText";
+    static final String DRAW_CURSOR = "PasswordView#drawCursor";
+    static final String TEXT_CHANGED = "PasswordView#afterTextChanged";
+
+    private PasswordTrace() {
+    }
+
+    static void begin(String sectionName) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            Trace.beginSection(sectionName);
+        }
+    }
+
+    static void end() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            Trace.endSection();
+        }
+    }
+}
@@ -1,86 +1,115 @@
 package com.hyh.widget;
 
 import android.annotation.SuppressLint;
+import android.annotation.TargetApi;
 import android.content.Context;
-import android.content.res.TypedArray;
 import android.graphics.Canvas;
-import android.graphics.Color;
-import android.graphics.Paint;
-import android.graphics.Path;
-import android.graphics.PorterDuff;
-import android.graphics.PorterDuffXfermode;
-import android.graphics.RectF;
-import android.os.Handler;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+import android.os.AsyncTask;
+import android.os.Looper;
+import android.os.MessageQueue;
 import android.text.Editable;
+import android.text.GetChars;
 import android.text.InputFilter;
+import android.text.Selection;
+import android.text.Spanned;
 import android.text.TextWatcher;
 import android.util.AttributeSet;
 import android.view.ActionMode;
+import android.view.KeyEvent;
 import android.view.Menu;
 import android.view.MenuItem;
 import android.view.View;
+import android.view.inputmethod.EditorInfo;
+import android.view.inputmethod.InputConnection;
+import android.view.inputmethod.InputConnectionWrapper;
+import android.view.inputmethod.InputMethodManager;
 import android.widget.EditText;
 
-import java.util.ArrayList;
-import java.util.List;
+import com.hyh.widget.kdf.PasswordKdf;
+import com.hyh.widget.measure.IMeasurer;
+import com.hyh.widget.measure.MeasureResultCache;
+import com.hyh.widget.measure.MemoizingMeasurer;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 @SuppressLint("AppCompatCustomView")
-public class PasswordView extends EditText implements TextWatcher {
+public class PasswordView extends EditText implements PasswordStyle.Target {
 
     private static final String TAG = "PasswordView_";
 
     public static final int PASSWORD_TYPE_STARS = 0;
     public static final int PASSWORD_TYPE_CIRCLE = 1;
     public static final int PASSWORD_TYPE_TEXT = 2;
+    public static final int PASSWORD_TYPE_DRAWABLE = 3;
 
-    private static final int BOX_MEASURE_MODE_BOUND = 0;
-    private static final int BOX_MEASURE_MODE_FILL = 1;
-    private static final int BOX_MEASURE_MODE_FREE = 2;
+    //禁用长按选择后的复制粘贴菜单，没有状态，所有实例共用
+    private static final ActionMode.Callback NO_ACTION_MODE_CALLBACK = new ActionMode.Callback() {
+        @Override
+        public boolean onCreateActionMode(ActionMode mode, Menu menu) {
+            return false;
+        }
 
-    private static final int BOX_TYPE_RECT = 0;
-    private static final int BOX_TYPE_OVAL = 1;
-    private static final int BOX_TYPE_UNDERLINE = 2;
+        @Override
+        public boolean onPrepareActionMode(ActionMode mode, Menu menu) {
+            return false;
+        }
 
-    private static final int BOX_CHAIN_STYLE_FREE = 0;
-    private static final int BOX_CHAIN_STYLE_SPREAD = 1;
-    private static final int BOX_CHAIN_STYLE_SPREAD_INSIDE = 2;
-    private static final int BOX_CHAIN_STYLE_PACKET = 3;
+        @Override
+        public boolean onActionItemClicked(ActionMode mode, MenuItem item) {
+            return false;
+        }
 
-    private final DrawCursorToggleTask mDrawCursorToggleTask = new DrawCursorToggleTask();
+        @Override
+        public void onDestroyActionMode(ActionMode mode) {
+
+        }
+    };
 
-    private int mPasswordType = PASSWORD_TYPE_STARS;
+    private boolean mAttached;
+    private boolean mTextChanging;
+    private boolean mTextLayoutBypassed;
+    //已经绕过TextView移除了它的预绘制监听，TextView记录的注册状态没有复位，关闭绕过时需要重新注册
+    private boolean mPreDrawDetached;
 
-    private int mBoxBackgroundColor;
-    private int mBoxBorderColor;
-    private float mRectBoxRadius;
+    private boolean mHardwareKeyFastPath;
+    private boolean mEditableStale;
+    private boolean mSyncingEditable;
+    private EditableSync mEditableSync;
 
-    private float mCursorWidth;
-    private float mCursorMarginTop;
-    private float mCursorMarginBottom;
-    private int mCursorColor = Color.BLUE;
-    private boolean mCursorEnabled = true;
+    //正在处理的输入事件的到达时间，以及最早一次还没有绘制出来的修改的时间，单位纳秒，与System.nanoTime()同一时钟
+    private long mInputEventTime = -1;
+    private long mPendingEditTime = -1;
+    private InputLatencySink mInputLatencySink;
+    private FrameCommitSampler mFrameCommitSampler;
+    private DrawnLatencyDispatcher mDrawnLatencyDispatcher;
+    private boolean mKeypadBound;
 
-    private boolean mDrawCursor;
+    private final TextChangeWatcher mTextChangeWatcher = new TextChangeWatcher();
+    private final TextChangeCoalescer mTextChangeCoalescer = new TextChangeCoalescer();
 
-    private IMeasurer mMeasurer = new BoundMeasurer();
-    private final MeasureInfo mMeasureInfo = new MeasureInfo();
-    private final MeasureResult mMeasuring = new MeasureResult();
-    private final MeasureResult mMeasured = new MeasureResult();
+    private PasswordVerifier mPasswordVerifier;
+    private VerifyListener mVerifyListener;
+    private PasswordTaskRunner mVerifyRunner;
+    private VerifyCallback mVerifyCallback;
+    private boolean mVerifying;
 
-    private final Paint mBoxBoardPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-    private final Paint mBoxBackgroundPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-    private final Paint mTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-    private final Paint mCursorPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-    private final PorterDuffXfermode mXfermode = new PorterDuffXfermode(PorterDuff.Mode.DST_OVER);
+    private PasswordKdf mPasswordKdf;
+    private HashListener mHashListener;
+    private PasswordTaskRunner mHashRunner;
+    private HashCallback mHashCallback;
 
-    private final RectF mTempRectF = new RectF();
-    private final Path mTempPath = new Path();
-    private final float[] mBoxRadii = new float[8];
-    private final List<RectF> mBoxRectFs = new ArrayList<>();
+    private Executor mTaskExecutor;
 
-    private float mDensity;
+    private PasswordRenderer mRenderer;
 
     private PasswordListener mPasswordListener;
+    private PasswordCharsListener mPasswordCharsListener;
+    private PasswordChars mPasswordChars;
+    private PasswordLengthFilter mLengthFilter;
 
     public PasswordView(Context context) {
         super(context);
@@ -98,1345 +127,1282 @@ public class PasswordView extends EditText implements TextWatcher {
     }
 
     private void init(AttributeSet attrs) {
-        mDensity = getResources().getDisplayMetrics().density;
-        if (attrs != null) {
-            TypedArray typedArray = getContext().obtainStyledAttributes(attrs, R.styleable.PasswordView);
-            mMeasureInfo.passwordLength = typedArray.getInteger(R.styleable.PasswordView_passwordLength, 6);
-            mPasswordType = typedArray.getInt(R.styleable.PasswordView_passwordType, PASSWORD_TYPE_STARS);
-
-            mMeasureInfo.boxType = typedArray.getInt(R.styleable.PasswordView_boxType, BOX_TYPE_RECT);
-            int boxMeasureMode = typedArray.getInt(R.styleable.PasswordView_boxMeasureMode, BOX_MEASURE_MODE_BOUND);
-            switch (boxMeasureMode) {
-                default:
-                case BOX_MEASURE_MODE_BOUND: {
-                    mMeasurer = new BoundMeasurer();
-                    break;
-                }
-                case BOX_MEASURE_MODE_FILL: {
-                    mMeasurer = new FillMeasurer();
-                    break;
-                }
-                case BOX_MEASURE_MODE_FREE: {
-                    mMeasurer = new FreeMeasurer();
-                    break;
-                }
-            }
+        PasswordStyle style = PasswordStyle.obtain(getContext(), attrs);
+        if (attrs == null) {
+            setBackgroundDrawable(null);
+        }
+        mRenderer = new PasswordRenderer(this);
+        mRenderer.setStyle(style);
+        mTextLayoutBypassed = style.isTextLayoutBypassed();
+        mHardwareKeyFastPath = style.isHardwareKeyFastPath();
 
-            mMeasureInfo.boxChainStyle = typedArray.getInt(R.styleable.PasswordView_boxChainStyle, BOX_CHAIN_STYLE_FREE);
+        int passwordLength = style.getPasswordLength();
+        mPasswordChars = new PasswordChars(passwordLength);
 
-            mMeasureInfo.boxWidth = typedArray.getDimension(R.styleable.PasswordView_boxWidth, 0);
-            mMeasureInfo.boxHeight = typedArray.getDimension(R.styleable.PasswordView_boxHeight, 0);
-            mMeasureInfo.boxWidthPercent = typedArray.getFloat(R.styleable.PasswordView_boxWidthPercent, 0);
-            mMeasureInfo.boxHeightRatio = typedArray.getFloat(R.styleable.PasswordView_boxHeightRatio, 1.0f);
+        mLengthFilter = new PasswordLengthFilter(passwordLength);
+        InputFilter[] filters = {mLengthFilter};
+        setFilters(filters);
 
+        setCustomSelectionActionModeCallback(NO_ACTION_MODE_CALLBACK);
+        setLongClickable(false);
+        setCursorVisible(false);
+    }
 
-            mMeasureInfo.boxBorderSize = typedArray.getDimension(R.styleable.PasswordView_boxBorderSize, mDensity * 1);
-            mMeasureInfo.boxSpace = typedArray.getDimension(R.styleable.PasswordView_boxSpace, 0);
-            mMeasureInfo.boxSpacePercent = typedArray.getFloat(R.styleable.PasswordView_boxSpacePercent, 0);
-            mMeasureInfo.mergeRectBoxEnabled = typedArray.getBoolean(R.styleable.PasswordView_mergeRectBoxEnabled, true);
-            mMeasureInfo.mergedRectBoxDividerWidth = typedArray.getDimension(R.styleable.PasswordView_mergedRectBoxDividerWidth, mDensity * 1);
+    /**
+     * 切换为另一个样式，多个View可以共用同一个样式对象。密码长度变短时截断已输入的内容，
+     * 通过{@link #setCursorEnabled(boolean)}等方法单独修改过的设置只在样式中的对应值变化时才被覆盖。
+     * 最多触发一次布局和一次刷新，只修改颜色等外观时不重新布局
+     */
+    @Override
+    public void setPasswordStyle(PasswordStyle style) {
+        PasswordRenderer renderer = mRenderer;
+        PasswordStyle oldStyle = renderer.getStyle();
+        boolean cursorEnabled = renderer.isCursorEnabled();
+        int changes = renderer.setStyle(style);
+        if (changes == 0) return;
+        if (style.isTextLayoutBypassed() != oldStyle.isTextLayoutBypassed()) {
+            mTextLayoutBypassed = style.isTextLayoutBypassed();
+            if (!mTextLayoutBypassed) {
+                restorePreDrawListener();
+            }
+            changes |= PasswordRenderer.STYLE_CHANGED_LAYOUT;
+        }
+        if (style.isHardwareKeyFastPath() != oldStyle.isHardwareKeyFastPath()) {
+            setHardwareKeyFastPathEnabled(style.isHardwareKeyFastPath());
+        }
+        if (style.getPasswordLength() != oldStyle.getPasswordLength()) {
+            onPasswordLengthChanged(style.getPasswordLength());
+        }
+        if (renderer.isCursorEnabled() != cursorEnabled) {
+            updateCursorBlink();
+        }
+        if ((changes & PasswordRenderer.STYLE_CHANGED_LAYOUT) != 0) {
+            requestLayout();
+        }
+        invalidate();
+    }
 
-            mBoxBackgroundColor = typedArray.getColor(R.styleable.PasswordView_boxBackgroundColor, Color.TRANSPARENT);
-            mBoxBorderColor = typedArray.getColor(R.styleable.PasswordView_boxBordColor, Color.BLACK);
-            mRectBoxRadius = typedArray.getDimension(R.styleable.PasswordView_rectBoxRadius, 0);
+    /**
+     * 以当前样式为初始值开始一次编辑，{@link PasswordStyle.Builder#apply()}时把全部修改一起应用到这个View，
+     * 例如edit().setPasswordLength(4).setBoxType(MeasureInfo.BOX_TYPE_UNDERLINE).apply()。
+     * 编辑后的样式只属于这个View，不会影响共用原样式的其它View
+     */
+    public PasswordStyle.Builder edit() {
+        return new PasswordStyle.Builder(mRenderer.getStyle(), this);
+    }
 
-            mCursorWidth = typedArray.getDimension(R.styleable.PasswordView_cursorWidth, mDensity * 2);
-            mCursorMarginTop = typedArray.getDimension(R.styleable.PasswordView_cursorMarginTop, mDensity * 8);
-            mCursorMarginBottom = typedArray.getDimension(R.styleable.PasswordView_cursorMarginBottom, mDensity * 8);
-            mCursorColor = typedArray.getColor(R.styleable.PasswordView_cursorColor, Color.BLACK);
-            mCursorEnabled = typedArray.getBoolean(R.styleable.PasswordView_cursorEnabled, true);
+    public PasswordStyle getPasswordStyle() {
+        return mRenderer.getStyle();
+    }
 
-            typedArray.recycle();
-        } else {
-            mMeasureInfo.boxBorderSize = mDensity * 1;
-            mCursorWidth = mDensity * 2;
-            mMeasureInfo.mergedRectBoxDividerWidth = mDensity * 1;
-            mCursorMarginTop = mCursorMarginBottom = mDensity * 8;
+    /**
+     * 修改密码长度，例如在同一个View中切换4位PIN与6位验证码，只触发一次布局。
+     * 不同长度的样式、密码缓冲区、长度过滤器以及框的坐标数组都会复用，来回切换过一次之后不再分配内存
+     */
+    public void setPasswordLength(int passwordLength) {
+        setPasswordStyle(mRenderer.getStyle().withPasswordLength(passwordLength));
+    }
 
-            setBackgroundDrawable(null);
+    public int getPasswordLength() {
+        return mRenderer.getPasswordLength();
+    }
+
+    /**
+     * 在原有的缓冲区与长度过滤器上修改容量，超出的内容从Editable中删除，由TextWatcher照常刷新和回调；
+     * 已输入的内容正好达到新的长度时回调输入完成
+     */
+    private void onPasswordLengthChanged(int passwordLength) {
+        mTextChangeCoalescer.flush();
+        syncEditable();
+        cancelVerify();
+        if (mHashRunner != null) {
+            mHashRunner.cancel();
+        }
+        PasswordChars chars = mPasswordChars;
+        chars.setCapacity(passwordLength);
+        mRenderer.setTextLength(chars.length());
+        mLengthFilter.setMax(passwordLength);
+
+        Editable editable = getText();
+        if (editable != null && editable.length() > passwordLength) {
+            editable.delete(passwordLength, editable.length());
+        } else if (chars.length() == passwordLength) {
+            onPasswordChanged();
         }
+    }
 
-        InputFilter[] filters = {new InputFilter.LengthFilter(mMeasureInfo.passwordLength)};
-        setFilters(filters);
 
-        setCustomSelectionActionModeCallback(new ActionMode.Callback() {
-            @Override
-            public boolean onCreateActionMode(ActionMode mode, Menu menu) {
-                return false;
-            }
+    public void setCursorEnabled(boolean enabled) {
+        mRenderer.setCursorEnabled(enabled);
+        updateCursorBlink();
+    }
 
-            @Override
-            public boolean onPrepareActionMode(ActionMode mode, Menu menu) {
-                return false;
-            }
+    /**
+     * 设置光标闪烁的空闲超时，超过这个时间没有输入后光标停止闪烁并保持显示，直到再次输入，小于等于0表示不超时
+     */
+    public static void setCursorBlinkIdleTimeout(long timeoutMillis) {
+        CursorBlinkTicker.getInstance().setIdleTimeout(timeoutMillis);
+    }
 
-            @Override
-            public boolean onActionItemClicked(ActionMode mode, MenuItem item) {
-                return false;
-            }
+    /**
+     * 密码类型为{@link #PASSWORD_TYPE_DRAWABLE}时，用于遮盖每一位密码的图片，绘制大小与字号一致
+     */
+    public void setPasswordMaskDrawable(Drawable drawable) {
+        mRenderer.setPasswordMaskDrawable(drawable);
+        invalidate();
+    }
 
-            @Override
-            public void onDestroyActionMode(ActionMode mode) {
+    /**
+     * 开启后数字、星号、圆点与掩码图会预先光栅化到一张共享的图集中，每个框只做一次位图拷贝
+     */
+    public void setGlyphAtlasEnabled(boolean enabled) {
+        mRenderer.setGlyphAtlasEnabled(enabled);
+        invalidate();
+    }
 
-            }
-        });
-        setLongClickable(false);
-        setCursorVisible(false);
-        setLayerType(View.LAYER_TYPE_SOFTWARE, null);
+    /**
+     * 默认关闭。开启后不再构建TextView的文字布局，输入不会触发重新测量，View的尺寸只由框的参数决定，
+     * 依赖TextView文字布局的功能（例如{@link #getLayout()}随输入更新）不再可用。可以随时关闭
+     */
+    public void setTextLayoutBypassed(boolean bypassed) {
+        if (mTextLayoutBypassed == bypassed) return;
+        mTextLayoutBypassed = bypassed;
+        if (!bypassed) {
+            restorePreDrawListener();
+        }
+        requestLayout();
     }
 
-    public void setCursorEnabled(boolean enabled) {
-        mCursorEnabled = enabled;
-        if (enabled) {
-            if (getWindowToken() != null) {
-                Handler handler = getHandler();
-                if (handler != null) {
-                    handler.post(mDrawCursorToggleTask);
-                }
-            }
-        } else {
-            Handler handler = getHandler();
-            if (handler != null) {
-                handler.removeCallbacks(mDrawCursorToggleTask);
-            }
+    /**
+     * 把移除的预绘制监听注册回去。TextView记录的注册状态仍是已注册，下一次预绘制时由TextView.onPreDraw
+     * 移除监听并复位状态，之后与从未绕过一样
+     */
+    private void restorePreDrawListener() {
+        if (!mPreDrawDetached) return;
+        mPreDrawDetached = false;
+        getViewTreeObserver().addOnPreDrawListener(this);
+    }
+
+    /**
+     * 开启后实体键盘的数字键、删除键和回车键直接写入密码缓冲区并同步回调，不经过Editable、输入过滤器和TextWatcher，
+     * 适用于带实体数字键盘的收银机、自助终端。{@link #getText()}会在主线程空闲时才同步
+     */
+    public void setHardwareKeyFastPathEnabled(boolean enabled) {
+        mHardwareKeyFastPath = enabled;
+        if (!enabled) {
+            syncEditable();
         }
     }
 
+    /**
+     * 设置后每次输入都会产生一个从输入到画面的延迟样本：API 29及以上开启硬件加速时取到这一帧提交给RenderThread为止，
+     * 否则取到onDraw完成为止。同一帧内合并的多次输入只记录最早的一次
+     */
+    public void setInputLatencySink(InputLatencySink sink) {
+        mInputLatencySink = sink;
+    }
+
+    /**
+     * 测量的次数，用于确认输入过程中没有触发布局
+     */
+    public int getLayoutPassCount() {
+        return mRenderer.getLayoutPassCount();
+    }
+
+    /**
+     * 设置进程内共享的测量结果缓存容量，样式相同的PasswordView（例如列表中的每一行）复用同一次测量，0表示关闭
+     */
+    public static void setSharedMeasureCacheSize(int maxSize) {
+        MeasureResultCache.getShared().setMaxSize(maxSize);
+    }
+
+    /**
+     * 本View的测量命中次数，包括与上一次测量输入相同以及命中共享缓存的情况
+     */
+    public long getMeasureCacheHitCount() {
+        IMeasurer measurer = mRenderer.getMeasurer();
+        return measurer instanceof MemoizingMeasurer ? ((MemoizingMeasurer) measurer).getHitCount() : 0;
+    }
+
+    public long getMeasureCacheMissCount() {
+        IMeasurer measurer = mRenderer.getMeasurer();
+        return measurer instanceof MemoizingMeasurer ? ((MemoizingMeasurer) measurer).getMissCount() : 0;
+    }
+
+    /**
+     * 设置后记录测量、绘制、刷新与回调的计数，多个View可以共用同一个对象，传null关闭
+     */
+    public void setMetrics(PasswordViewMetrics metrics) {
+        mRenderer.setMetrics(metrics);
+    }
+
+    public PasswordViewMetrics getMetrics() {
+        return mRenderer.getMetrics();
+    }
+
     public void setPasswordListener(PasswordListener passwordListener) {
         mPasswordListener = passwordListener;
     }
 
+    /**
+     * 与{@link #setPasswordListener(PasswordListener)}可以同时使用，回调中的{@link PasswordChars}是复用的，
+     * 不会为每次输入创建新的String，需要保存时请自行拷贝
+     */
+    public void setPasswordCharsListener(PasswordCharsListener passwordCharsListener) {
+        mPasswordCharsListener = passwordCharsListener;
+    }
+
+    /**
+     * 输入满密码长度后在后台线程中调用verifier，结果在主线程回调给listener；验证期间锁定输入，
+     * 密码被代码修改时取消正在进行的验证，旧的结果不会再回调。传null取消验证
+     */
+    public void setPasswordVerifier(PasswordVerifier verifier, VerifyListener listener) {
+        cancelVerify();
+        mPasswordVerifier = verifier;
+        mVerifyListener = listener;
+    }
+
+    /**
+     * 输入满密码长度后在后台线程中直接从密码缓冲区派生密钥，不创建String，结果在主线程回调给listener，
+     * 密码变化时取消正在进行的派生。与验证共用{@link #setTaskExecutor(Executor)}的线程池，但各自有一个任务队列，
+     * 两者可以同时进行、互不取消。传null关闭
+     */
+    public void setPasswordKdf(PasswordKdf kdf, HashListener listener) {
+        if (mHashRunner != null) {
+            mHashRunner.cancel();
+        }
+        mPasswordKdf = kdf;
+        mHashListener = listener;
+    }
+
+    /**
+     * 设置验证与派生密钥使用的线程池，默认为{@link AsyncTask#THREAD_POOL_EXECUTOR}，会取消正在进行的任务
+     */
+    public void setTaskExecutor(Executor executor) {
+        cancelVerify();
+        if (mHashRunner != null) {
+            mHashRunner.cancel();
+        }
+        mTaskExecutor = executor;
+        mVerifyRunner = null;
+        mHashRunner = null;
+    }
+
+    private PasswordTaskRunner createTaskRunner() {
+        Executor executor = mTaskExecutor;
+        return new PasswordTaskRunner(executor != null ? executor : AsyncTask.THREAD_POOL_EXECUTOR);
+    }
+
+    /**
+     * 是否正在验证，验证期间忽略输入法、按键和数字键盘的输入
+     */
+    public boolean isVerifying() {
+        return mVerifying;
+    }
+
+    public void cancelVerify() {
+        if (!mVerifying) return;
+        mVerifying = false;
+        mVerifyRunner.cancel();
+        VerifyListener verifyListener = mVerifyListener;
+        if (verifyListener != null) {
+            verifyListener.onVerifyCanceled();
+        }
+    }
+
+    private void startVerify() {
+        if (mVerifyRunner == null) {
+            mVerifyRunner = createTaskRunner();
+        }
+        if (mVerifyCallback == null) {
+            mVerifyCallback = new VerifyCallback();
+        }
+        mVerifying = true;
+        VerifyListener verifyListener = mVerifyListener;
+        if (verifyListener != null) {
+            verifyListener.onVerifyStarted();
+        }
+        //onVerifyStarted中可能修改了密码
+        if (!mVerifying) return;
+        mVerifyRunner.submit(mPasswordChars, mVerifyCallback, mVerifyCallback);
+    }
+
+    private void startHash() {
+        if (mHashRunner == null) {
+            mHashRunner = createTaskRunner();
+        }
+        if (mHashCallback == null) {
+            mHashCallback = new HashCallback();
+        }
+        mHashRunner.submit(mPasswordChars, mHashCallback, mHashCallback);
+    }
+
+    /**
+     * 回调密码变化，之后取消对旧密码的验证与派生，密码输满时重新开始
+     */
+    private void onPasswordChanged() {
+        PasswordChars chars = mPasswordChars;
+        int passwordLength = mRenderer.getPasswordLength();
+        cancelVerify();
+        if (mHashRunner != null) {
+            mHashRunner.cancel();
+        }
+        PasswordViewMetrics metrics = mRenderer.getMetrics();
+        long start = metrics != null ? System.nanoTime() : 0;
+        dispatchPasswordChanged(chars, passwordLength, mPasswordListener, mPasswordCharsListener);
+        if (metrics != null) {
+            metrics.recordDispatch(System.nanoTime() - start);
+        }
+        if (chars.length() != passwordLength) return;
+        if (mPasswordKdf != null) {
+            startHash();
+        }
+        if (mPasswordVerifier != null && !mVerifying) {
+            startVerify();
+        }
+    }
+
     @Override
     protected void onAttachedToWindow() {
         super.onAttachedToWindow();
-        removeTextChangedListener(this);
-        addTextChangedListener(this);
-        if (mCursorEnabled) {
-            Handler handler = getHandler();
-            if (handler != null) {
-                handler.post(mDrawCursorToggleTask);
-            }
-        }
+        mAttached = true;
+        removeTextChangedListener(mTextChangeWatcher);
+        addTextChangedListener(mTextChangeWatcher);
+        mPasswordChars.set(getText());
+        mRenderer.setTextLength(mPasswordChars.length());
+        updateCursorBlink();
     }
 
     @Override
     protected void onDetachedFromWindow() {
         super.onDetachedFromWindow();
-        removeTextChangedListener(this);
-        Handler handler = getHandler();
-        if (handler != null) {
-            handler.removeCallbacks(mDrawCursorToggleTask);
+        mAttached = false;
+        //TextView在detach时复位了预绘制监听的注册状态
+        mPreDrawDetached = false;
+        mTextChangeCoalescer.detach();
+        if (mFrameCommitSampler != null) {
+            mFrameCommitSampler.unregister();
+        }
+        if (mDrawnLatencyDispatcher != null) {
+            mDrawnLatencyDispatcher.cancel();
+        }
+        mPendingEditTime = -1;
+        syncEditable();
+        if (mEditableSync != null) {
+            mEditableSync.cancel();
         }
+        cancelVerify();
+        if (mHashRunner != null) {
+            mHashRunner.cancel();
+        }
+        removeTextChangedListener(mTextChangeWatcher);
+        mPasswordChars.wipe();
+        updateCursorBlink();
+        mRenderer.release();
     }
 
     @Override
-    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
-        //super.onMeasure(widthMeasureSpec, heightMeasureSpec);
-        mMeasuring.clear();
-        IMeasurer measurer = mMeasurer;
-        if (measurer == null) {
-            setMeasuredDimension(0, 0);
-            mMeasured.clear();
-            return;
-        }
-
-        measurer.measure(this, widthMeasureSpec, heightMeasureSpec, mMeasureInfo, mMeasuring);
+    protected void onFocusChanged(boolean focused, int direction, Rect previouslyFocusedRect) {
+        super.onFocusChanged(focused, direction, previouslyFocusedRect);
+        updateCursorBlink();
+    }
 
-        int horizontalPadding = getPaddingLeft() + getPaddingRight();
-        int verticalPadding = getPaddingTop() + getPaddingBottom();
-        int passwordLength = mMeasureInfo.passwordLength;
+    @Override
+    public void onWindowFocusChanged(boolean hasWindowFocus) {
+        super.onWindowFocusChanged(hasWindowFocus);
+        updateCursorBlink();
+    }
 
-        mMeasuring.measureContentWidth = horizontalPadding
-                + mMeasured.measureBoxWidth * passwordLength
-                + mMeasureInfo.boxBorderSize * 2 * passwordLength
-                + (mMeasured.mergedRectBox ? (mMeasureInfo.mergedRectBoxDividerWidth - 2 * mMeasureInfo.boxBorderSize) * (passwordLength - 1) : 0)
-                + mMeasured.measureBoxSpace * (passwordLength - 1)
-                + mMeasured.measureBoxChainMargin * 2;
+    @Override
+    protected void onVisibilityChanged(View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        updateCursorBlink();
+    }
 
-        mMeasuring.measureContentHeight = verticalPadding
-                + mMeasured.measureBoxHeight
-                + 2 * mMeasureInfo.boxBorderSize;
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        updateCursorBlink();
+    }
 
+    /**
+     * 只有在获得焦点、可见且窗口获得焦点时才注册到全局的光标闪烁计时器
+     */
+    private void updateCursorBlink() {
+        PasswordRenderer renderer = mRenderer;
+        if (renderer == null) return;
+        renderer.setCursorBlinking(renderer.isCursorEnabled()
+                && mAttached
+                && isFocused()
+                && hasWindowFocus()
+                && getWindowVisibility() == VISIBLE
+                && isShown());
+    }
 
-        mMeasured.copy(mMeasuring);
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        //super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+        PasswordTrace.begin(PasswordTrace.ON_MEASURE);
+        PasswordRenderer renderer = mRenderer;
+        renderer.measure(widthMeasureSpec, heightMeasureSpec, getSuggestedMinimumWidth(), getSuggestedMinimumHeight());
+        setMeasuredDimension(renderer.getMeasuredWidth(), renderer.getMeasuredHeight());
+        PasswordTrace.end();
+    }
 
-        setMeasuredDimension(Math.round(mMeasured.measureWidth), Math.round(mMeasured.measureHeight));
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        mRenderer.invalidateGeometry();
     }
 
     @Override
     protected void onDraw(Canvas canvas) {
         //super.onDraw(canvas);不绘制EditText本身的文字
-        canvas.save();
-
-        float dx = (getMeasuredWidth() - mMeasured.measureContentWidth) * 0.5f + getPaddingLeft() + mMeasured.measureBoxChainMargin;
-        float dy = (getMeasuredHeight() - mMeasured.measureContentHeight) * 0.5f + getPaddingTop();
-        canvas.translate(dx, dy);
-        List<RectF> boxRectFs = drawBox(canvas);
-        if (boxRectFs == null) return;
-        drawCursor(canvas, boxRectFs);
-        drawText(canvas, boxRectFs);
-        canvas.restore();
-    }
-
-    private List<RectF> drawBox(Canvas canvas) {
-        switch (mMeasureInfo.boxType) {
-            case BOX_TYPE_RECT: {
-                return drawRectBox(canvas);
-            }
-            case BOX_TYPE_OVAL: {
-                return drawOvalBox(canvas);
-            }
-            case BOX_TYPE_UNDERLINE: {
-                return drawUnderlineBox(canvas);
-            }
+        PasswordTrace.begin(PasswordTrace.ON_DRAW);
+        PasswordRenderer renderer = mRenderer;
+        renderer.setTextStyle(getTextSize(), getTypeface(), getTextColors().getDefaultColor());
+        renderer.draw(canvas, mPasswordChars, isFocused());
+        PasswordTrace.end();
+
+        long editTime = mPendingEditTime;
+        if (editTime >= 0) {
+            mPendingEditTime = -1;
+            onEditDrawn(editTime);
         }
-        return null;
     }
 
-    private List<RectF> drawRectBox(Canvas canvas) {
-        mBoxBoardPaint.setColor(mBoxBorderColor);
-        mBoxBoardPaint.setStyle(Paint.Style.STROKE);
+    private void onEditDrawn(long editTime) {
+        //帧提交回调在markEdit中已经注册
+        if (mInputLatencySink == null || isFrameCommitSampled()) return;
+        long latency = System.nanoTime() - editTime;
+        if (mDrawnLatencyDispatcher == null) {
+            mDrawnLatencyDispatcher = new DrawnLatencyDispatcher();
+        }
+        mDrawnLatencyDispatcher.post(latency);
+    }
 
-        mBoxBackgroundPaint.setColor(mBoxBackgroundColor);
-        mBoxBackgroundPaint.setStyle(Paint.Style.FILL);
+    private boolean isFrameCommitSampled() {
+        return android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.Q && isHardwareAccelerated();
+    }
 
-        int passwordLength = mMeasureInfo.passwordLength;
-        float boxBorderSize = mMeasureInfo.boxBorderSize;
+    /**
+     * 记录输入事件的到达时间，在同步处理这个事件时发生的修改都以它为起点
+     */
+    private void beginInputEvent(long eventTimeNanos) {
+        if (mInputEventTime < 0) {
+            mInputEventTime = eventTimeNanos;
+        }
+    }
 
-        float measureBoxWidth = mMeasured.measureBoxWidth;
-        float measureBoxHeight = mMeasured.measureBoxHeight;
-        float measureBoxSpace = mMeasured.measureBoxSpace;
-        boolean mergedRectBox = mMeasured.mergedRectBox;
+    private void endInputEvent() {
+        mInputEventTime = -1;
+    }
 
-        if (mergedRectBox) {
+    /**
+     * 内容发生了修改，没有对应的输入事件时（例如setText）以当前时间为起点
+     */
+    private void markEdit() {
+        //没有设置延迟样本的接收方时不记录
+        if (mInputLatencySink == null || mPendingEditTime >= 0) return;
+        long editTime = mInputEventTime >= 0 ? mInputEventTime : System.nanoTime();
+        mPendingEditTime = editTime;
+        //ViewRootImpl在draw之前就取走了这一帧的提交回调，必须在绘制之前注册才能落在绘制了修改的那一帧上
+        if (mInputLatencySink != null && isFrameCommitSampled()) {
+            if (mFrameCommitSampler == null) {
+                mFrameCommitSampler = new FrameCommitSampler();
+            }
+            mFrameCommitSampler.register(editTime);
+        }
+    }
 
-            mBoxBoardPaint.setStrokeWidth(boxBorderSize);
+    @Override
+    public boolean onKeyDown(int keyCode, KeyEvent event) {
+        if (mVerifying && isInputKey(keyCode, event)) return true;
+        beginInputEvent(TimeUnit.MILLISECONDS.toNanos(event.getEventTime()));
+        try {
+            if (mHardwareKeyFastPath && handleFastKey(keyCode, event, 1)) return true;
+            return super.onKeyDown(keyCode, event);
+        } finally {
+            endInputEvent();
+        }
+    }
 
-            float left = boxBorderSize * 0.5f;
-            float top = boxBorderSize * 0.5f;
-            float right = mMeasured.measureContentWidth - mMeasured.measureBoxChainMargin * 2 - (getPaddingLeft() + getPaddingRight()) - boxBorderSize * 0.5f;
-            float bottom = mMeasured.measureContentHeight - (getPaddingTop() + getPaddingBottom()) - boxBorderSize * 0.5f;
-            mTempRectF.set(left, top, right, bottom);
+    @Override
+    public boolean onKeyMultiple(int keyCode, int repeatCount, KeyEvent event) {
+        if (mVerifying && isInputKey(keyCode, event)) return true;
+        beginInputEvent(TimeUnit.MILLISECONDS.toNanos(event.getEventTime()));
+        try {
+            if (mHardwareKeyFastPath && handleFastKey(keyCode, event, repeatCount)) return true;
+            return super.onKeyMultiple(keyCode, repeatCount, event);
+        } finally {
+            endInputEvent();
+        }
+    }
 
-            if (boxBorderSize > 0) {
-                canvas.drawRoundRect(mTempRectF, mRectBoxRadius, mRectBoxRadius, mBoxBoardPaint);
+    private boolean handleFastKey(int keyCode, KeyEvent event, int repeatCount) {
+        mTextChangeCoalescer.flush();
+        PasswordChars chars = mPasswordChars;
+        int length = chars.length();
+        char digit = getDigit(keyCode, event);
+        if (digit != 0) {
+            int count = 0;
+            while (count < repeatCount && chars.append(digit)) {
+                count++;
             }
-
-            RectF lastBoxRectF = null;
-
-            mBoxBoardPaint.setStrokeWidth(mMeasureInfo.mergedRectBoxDividerWidth);
-            mBoxBoardPaint.setColor(mBoxBorderColor);
-            mBoxBoardPaint.setStyle(Paint.Style.STROKE);
-            for (int index = 0; index < passwordLength; index++) {
-                if (index == 0) {
-                    left = boxBorderSize;
-                    top = boxBorderSize;
-                    right = left + measureBoxWidth;
-                    bottom = top + measureBoxHeight;
-                } else {
-                    left = lastBoxRectF.right + mMeasureInfo.mergedRectBoxDividerWidth;
-                    top = boxBorderSize;
-                    right = left + measureBoxWidth;
-                    bottom = top + measureBoxHeight;
-                }
-                RectF boxRectF;
-                if (mBoxRectFs.size() > index) {
-                    boxRectF = mBoxRectFs.get(index);
-                } else {
-                    boxRectF = new RectF();
-                    mBoxRectFs.add(boxRectF);
-                }
-                boxRectF.set(left, top, right, bottom);
-                lastBoxRectF = boxRectF;
-
-                if (boxBorderSize > 0) {
-                    if (index < passwordLength - 1) {
-                        float startX = boxRectF.right + mMeasureInfo.mergedRectBoxDividerWidth * 0.5f;
-                        float startY = boxRectF.top;
-                        float stopX = startX;
-                        float stopY = boxRectF.bottom;
-                        canvas.drawLine(startX, startY, stopX, stopY, mBoxBoardPaint);
-                    }
+            if (count > 0) {
+                onFastCharsChanged(length, 0, count);
+            }
+            return true;
+        }
+        switch (keyCode) {
+            case KeyEvent.KEYCODE_DEL: {
+                int before = chars.delete(repeatCount);
+                if (before > 0) {
+                    onFastCharsChanged(length - before, before, 0);
                 }
-                drawMergedRectBoxBackground(canvas, index, boxRectF);
+                return true;
+            }
+            case KeyEvent.KEYCODE_ENTER:
+            case KeyEvent.KEYCODE_NUMPAD_ENTER: {
+                syncEditable();
+                onEditorAction(EditorInfo.IME_ACTION_DONE);
+                return true;
             }
+        }
+        return false;
+    }
 
-        } else {
-            mBoxBoardPaint.setStrokeWidth(boxBorderSize);
+    private static boolean isInputKey(int keyCode, KeyEvent event) {
+        if (keyCode == KeyEvent.KEYCODE_DEL || keyCode == KeyEvent.KEYCODE_FORWARD_DEL) return true;
+        int unicodeChar = event.getUnicodeChar();
+        return unicodeChar > 0 && !Character.isISOControl(unicodeChar);
+    }
 
-            for (int index = 0; index < passwordLength; index++) {
+    private static char getDigit(int keyCode, KeyEvent event) {
+        if (keyCode >= KeyEvent.KEYCODE_0 && keyCode <= KeyEvent.KEYCODE_9) {
+            if (event.isShiftPressed()) return 0;
+            return (char) ('0' + keyCode - KeyEvent.KEYCODE_0);
+        }
+        if (keyCode >= KeyEvent.KEYCODE_NUMPAD_0 && keyCode <= KeyEvent.KEYCODE_NUMPAD_9) {
+            //NumLock关闭时小键盘是方向键
+            if (!event.isNumLockOn()) return 0;
+            return (char) ('0' + keyCode - KeyEvent.KEYCODE_NUMPAD_0);
+        }
+        return 0;
+    }
 
-                float left = measureBoxWidth * index + boxBorderSize * 2 * index + measureBoxSpace * index + boxBorderSize * 0.5f;
-                float top = boxBorderSize * 0.5f;
-                float right = left + measureBoxWidth + boxBorderSize;
-                float bottom = top + measureBoxHeight + boxBorderSize;
+    /**
+     * 由{@link PasswordKeypadView}调用，与实体按键走同一条快速通道
+     */
+    void inputDigit(char digit, long eventTime) {
+        if (mVerifying) return;
+        mTextChangeCoalescer.flush();
+        PasswordChars chars = mPasswordChars;
+        int length = chars.length();
+        if (chars.append(digit)) {
+            beginInputEvent(TimeUnit.MILLISECONDS.toNanos(eventTime));
+            onFastCharsChanged(length, 0, 1);
+            endInputEvent();
+        }
+    }
 
-                mTempRectF.set(left, top, right, bottom);
+    void deleteDigit(long eventTime) {
+        if (mVerifying) return;
+        mTextChangeCoalescer.flush();
+        PasswordChars chars = mPasswordChars;
+        int length = chars.length();
+        if (chars.delete(1) > 0) {
+            beginInputEvent(TimeUnit.MILLISECONDS.toNanos(eventTime));
+            onFastCharsChanged(length - 1, 1, 0);
+            endInputEvent();
+        }
+    }
 
-                if (boxBorderSize == 0) {
-                    RectF boxRectF;
-                    if (mBoxRectFs.size() > index) {
-                        boxRectF = mBoxRectFs.get(index);
-                    } else {
-                        boxRectF = new RectF();
-                        mBoxRectFs.add(boxRectF);
-                    }
-                    boxRectF.set(left, top, right, bottom);
-                    canvas.drawRoundRect(mTempRectF, mRectBoxRadius, mRectBoxRadius, mBoxBackgroundPaint);
-
-                } else {
-                    if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.LOLLIPOP) {
-                        int saveLayer = canvas.saveLayer(0, 0, canvas.getWidth(), canvas.getHeight(), mBoxBackgroundPaint);
-                        canvas.drawRoundRect(mTempRectF, mRectBoxRadius, mRectBoxRadius, mBoxBoardPaint);
-
-                        RectF boxRectF;
-                        if (mBoxRectFs.size() > index) {
-                            boxRectF = mBoxRectFs.get(index);
-                        } else {
-                            boxRectF = new RectF();
-                            mBoxRectFs.add(boxRectF);
-                        }
-                        left += boxBorderSize * 0.5f;
-                        top += boxBorderSize * 0.5f;
-                        right -= boxBorderSize * 0.5f;
-                        bottom -= boxBorderSize * 0.5f;
-                        boxRectF.set(left, top, right, bottom);
-
-
-                        mBoxBackgroundPaint.setXfermode(mXfermode);
-                        canvas.drawRoundRect(mTempRectF, mRectBoxRadius, mRectBoxRadius, mBoxBackgroundPaint);
-                        mBoxBackgroundPaint.setXfermode(null);
-
-                        canvas.restoreToCount(saveLayer);
-                    } else {
-                        canvas.drawRoundRect(mTempRectF, mRectBoxRadius, mRectBoxRadius, mBoxBoardPaint);
-
-                        RectF boxRectF;
-                        if (mBoxRectFs.size() > index) {
-                            boxRectF = mBoxRectFs.get(index);
-                        } else {
-                            boxRectF = new RectF();
-                            mBoxRectFs.add(boxRectF);
-                        }
-                        left += boxBorderSize * 0.5f;
-                        top += boxBorderSize * 0.5f;
-                        right -= boxBorderSize * 0.5f;
-                        bottom -= boxBorderSize * 0.5f;
-                        boxRectF.set(left, top, right, bottom);
-
-                        float boxBackgroundRadius = getBoxBackgroundRadius();
-                        canvas.drawRoundRect(boxRectF, boxBackgroundRadius, boxBackgroundRadius, mBoxBackgroundPaint);
-                    }
-                }
+    /**
+     * 绑定了{@link PasswordKeypadView}后不再弹出系统输入法
+     */
+    void setKeypadBound(boolean bound) {
+        if (mKeypadBound == bound) return;
+        mKeypadBound = bound;
+        if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.LOLLIPOP) {
+            setShowSoftInputOnFocus(!bound);
+        }
+        InputMethodManager imm = (InputMethodManager) getContext().getSystemService(Context.INPUT_METHOD_SERVICE);
+        if (imm != null) {
+            if (bound) {
+                imm.hideSoftInputFromWindow(getWindowToken(), 0);
             }
+            imm.restartInput(this);
         }
-
-        return mBoxRectFs;
     }
 
-    private void drawMergedRectBoxBackground(Canvas canvas, int index, RectF boxRectF) {
-        float boxBackgroundRadius = getBoxBackgroundRadius();
-        mTempPath.reset();
-        if (index == 0) {
-            mBoxRadii[0] = boxBackgroundRadius;
-            mBoxRadii[1] = boxBackgroundRadius;
-
-            mBoxRadii[2] = 0;
-            mBoxRadii[3] = 0;
-
-            mBoxRadii[4] = 0;
-            mBoxRadii[5] = 0;
+    @Override
+    public boolean onCheckIsTextEditor() {
+        return !mKeypadBound && super.onCheckIsTextEditor();
+    }
 
-            mBoxRadii[6] = boxBackgroundRadius;
-            mBoxRadii[7] = boxBackgroundRadius;
+    private void onFastCharsChanged(int start, int before, int count) {
+        PasswordTrace.begin(PasswordTrace.TEXT_CHANGED);
+        markEdit();
+        mTextChangeCoalescer.cancel();
+        PasswordChars chars = mPasswordChars;
+        mRenderer.invalidateTextChange(start, before, count, chars.length());
+        mEditableStale = true;
+        if (mEditableSync == null) {
+            mEditableSync = new EditableSync();
+        }
+        mEditableSync.schedule();
+        onPasswordChanged();
+        PasswordTrace.end();
+    }
 
-            mTempPath.addRoundRect(boxRectF, mBoxRadii, Path.Direction.CW);
-        } else if (index == mMeasureInfo.passwordLength - 1) {
-            mBoxRadii[0] = 0;
-            mBoxRadii[1] = 0;
+    /**
+     * 把快速通道写入的内容同步回Editable，期间的TextWatcher回调不再刷新与分发
+     */
+    private void syncEditable() {
+        if (!mEditableStale) return;
+        mEditableStale = false;
+        Editable editable = getText();
+        if (editable == null) return;
+        mSyncingEditable = true;
+        try {
+            editable.replace(0, editable.length(), mPasswordChars);
+            Selection.setSelection(editable, editable.length());
+        } finally {
+            mSyncingEditable = false;
+        }
+    }
 
-            mBoxRadii[2] = boxBackgroundRadius;
-            mBoxRadii[3] = boxBackgroundRadius;
+    @Override
+    public InputConnection onCreateInputConnection(EditorInfo outAttrs) {
+        InputConnection inputConnection = super.onCreateInputConnection(outAttrs);
+        if (inputConnection == null) return null;
+        return new SyncingInputConnection(inputConnection);
+    }
 
-            mBoxRadii[4] = boxBackgroundRadius;
-            mBoxRadii[5] = boxBackgroundRadius;
+    @Override
+    public void invalidate() {
+        //文字变化时EditText的每次修改都会刷新，这里忽略掉，由TextChangeCoalescer合并后只刷新一次
+        if (mTextChanging) return;
+        super.invalidate();
+    }
 
-            mBoxRadii[6] = 0;
-            mBoxRadii[7] = 0;
+    @Override
+    public void requestLayout() {
+        //尺寸与文字无关，文字变化时TextView的checkForResize请求的布局直接忽略
+        if (mTextChanging && mTextLayoutBypassed) return;
+        super.requestLayout();
+    }
 
-            mTempPath.addRoundRect(boxRectF, mBoxRadii, Path.Direction.CW);
-        } else {
-            mBoxRadii[0] = 0;
-            mBoxRadii[1] = 0;
+    @Override
+    public boolean onPreDraw() {
+        //TextView在这里创建文字布局（assumeLayout），不需要时直接移除监听。TextView仍认为监听已注册，
+        //之后每次输入也不会再注册，关闭绕过时由restorePreDrawListener注册回去
+        if (mTextLayoutBypassed) {
+            getViewTreeObserver().removeOnPreDrawListener(this);
+            mPreDrawDetached = true;
+            return true;
+        }
+        return super.onPreDraw();
+    }
 
-            mBoxRadii[2] = 0;
-            mBoxRadii[3] = 0;
+    @Override
+    public void onBeginBatchEdit() {
+        super.onBeginBatchEdit();
+        if (mTextChangeCoalescer != null) {
+            mTextChangeCoalescer.onBeginBatchEdit();
+        }
+    }
 
-            mBoxRadii[4] = 0;
-            mBoxRadii[5] = 0;
+    @Override
+    public void onEndBatchEdit() {
+        super.onEndBatchEdit();
+        if (mTextChangeCoalescer != null) {
+            mTextChangeCoalescer.onEndBatchEdit();
+        }
+    }
 
-            mBoxRadii[6] = 0;
-            mBoxRadii[7] = 0;
+    /**
+     * 一次性写入整段密码（粘贴、短信验证码），截断到密码长度，只刷新一次并只回调一次，
+     * 与实体按键快速通道一样不经过Editable，{@link #getText()}会在主线程空闲时同步
+     */
+    public void setPassword(CharSequence password) {
+        mTextChangeCoalescer.flush();
+        PasswordChars chars = mPasswordChars;
+        int oldLength = chars.length();
+        chars.set(password);
+        int length = chars.length();
+        onFastCharsChanged(0, oldLength, length);
+    }
 
-            mTempPath.addRoundRect(boxRectF, mBoxRadii, Path.Direction.CW);
+    /**
+     * 先回调String形式的监听，再回调复用缓冲区的监听，密码清空后缓冲区会被清零
+     */
+    static void dispatchPasswordChanged(PasswordChars chars, int passwordLength,
+                                        PasswordListener passwordListener,
+                                        PasswordCharsListener passwordCharsListener) {
+        int length = chars.length();
+        if (passwordListener != null) {
+            String str = chars.toString();
+            passwordListener.onChanged(str);
+            if (length == 0) {
+                passwordListener.onCleared();
+            } else if (length == passwordLength) {
+                passwordListener.onFinished(str);
+            }
         }
-        canvas.drawPath(mTempPath, mBoxBackgroundPaint);
-    }
 
-    private float getBoxBackgroundRadius() {
-        float boxBorderSize = mMeasureInfo.boxBorderSize;
+        if (passwordCharsListener != null) {
+            passwordCharsListener.onChanged(chars);
+            if (length == 0) {
+                passwordCharsListener.onCleared();
+            } else if (length == passwordLength) {
+                passwordCharsListener.onFinished(chars);
+            }
+        }
 
-        if (mRectBoxRadius == 0) return 0;
-        if (boxBorderSize == 0) return 0;
-        float radius = 1.5f * (boxBorderSize / mDensity - 1) + 0.5f;
-        return mRectBoxRadius - Math.max(0, radius);
+        if (length == 0) {
+            chars.wipe();
+        }
     }
 
-    private List<RectF> drawOvalBox(Canvas canvas) {
-        int passwordLength = mMeasureInfo.passwordLength;
-        float boxBorderSize = mMeasureInfo.boxBorderSize;
-
-        float measureBoxWidth = mMeasured.measureBoxWidth;
-        float measureBoxHeight = mMeasured.measureBoxHeight;
-        float measureBoxSpace = mMeasured.measureBoxSpace;
+    /**
+     * 单独的监听对象，不覆盖TextView.onTextChanged：TextView的构造方法中setText会直接调用onTextChanged，
+     * 那时子类的字段还没有初始化。只在attach之后注册
+     */
+    private final class TextChangeWatcher implements TextWatcher {
 
+        @Override
+        public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            mTextChanging = true;
+        }
 
-        mBoxBoardPaint.setColor(mBoxBorderColor);
-        mBoxBoardPaint.setStyle(Paint.Style.STROKE);
-        mBoxBoardPaint.setStrokeWidth(boxBorderSize);
+        @Override
+        public void onTextChanged(CharSequence s, int start, int before, int count) {
+            mTextChanging = false;
+            if (mSyncingEditable) return;
+            markEdit();
+            int length = s == null ? 0 : s.length();
+            mTextChangeCoalescer.onTextChanged(start, before, count, length);
+        }
 
-        mBoxBackgroundPaint.setColor(mBoxBackgroundColor);
-        mBoxBackgroundPaint.setStyle(Paint.Style.FILL);
+        @Override
+        public void afterTextChanged(Editable s) {
+            //刷新与回调都交给TextChangeCoalescer处理，Trace分段也记录在那里
+        }
+    }
 
-        for (int index = 0; index < passwordLength; index++) {
+    /**
+     * 合并同一帧内或同一次输入法批量编辑（beginBatchEdit/endBatchEdit）中的多次文字变化，
+     * 下一帧开始时只刷新一次合并后的框、只回调一次onChanged，最多一次onFinished。
+     * 输入法逐个commitText发送的验证码每次都是一次独立的批量编辑，也在这里按帧合并
+     */
+    private final class TextChangeCoalescer implements Runnable {
+
+        private boolean mPending;
+        private boolean mScheduled;
+        private int mBatchEditNesting;
+        private int mDirtyFrom, mDirtyTo;
+
+        void onTextChanged(int start, int before, int count, int length) {
+            int oldLength = length - count + before;
+            //长度变化时后面的框都会移位，一直刷新到较长的那个长度
+            int end = before == count ? start + count - 1 : Math.max(oldLength, length);
+            int from = Math.min(start, Math.min(oldLength, length));
+            int to = Math.max(end, Math.max(oldLength, length));
+            if (mPending) {
+                mDirtyFrom = Math.min(mDirtyFrom, from);
+                mDirtyTo = Math.max(mDirtyTo, to);
+            } else {
+                mPending = true;
+                mDirtyFrom = from;
+                mDirtyTo = to;
+            }
+            schedule();
+        }
 
-            float left = measureBoxWidth * index + boxBorderSize * 2 * index + measureBoxSpace * index + boxBorderSize * 0.5f;
-            float top = boxBorderSize * 0.5f;
-            float right = left + measureBoxWidth + boxBorderSize;
-            float bottom = top + measureBoxHeight + boxBorderSize;
+        void onBeginBatchEdit() {
+            mBatchEditNesting++;
+        }
 
-            mTempRectF.set(left, top, right, bottom);
+        void onEndBatchEdit() {
+            if (mBatchEditNesting > 0) {
+                mBatchEditNesting--;
+            }
+            schedule();
+        }
 
-            if (boxBorderSize == 0) {
-                RectF boxRect;
-                if (mBoxRectFs.size() > index) {
-                    boxRect = mBoxRectFs.get(index);
-                } else {
-                    boxRect = new RectF();
-                    mBoxRectFs.add(boxRect);
-                }
-                boxRect.set(left, top, right, bottom);
-                canvas.drawOval(boxRect, mBoxBackgroundPaint);
+        private void schedule() {
+            if (!mPending || mScheduled || mBatchEditNesting > 0) return;
+            mScheduled = true;
+            if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.JELLY_BEAN) {
+                postOnAnimation(this);
             } else {
-                if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.LOLLIPOP) {
-                    int saveLayer = canvas.saveLayer(0, 0, canvas.getWidth(), canvas.getHeight(), mBoxBackgroundPaint);
+                post(this);
+            }
+        }
 
-                    canvas.drawOval(mTempRectF, mBoxBoardPaint);
+        void cancel() {
+            mPending = false;
+            if (mScheduled) {
+                mScheduled = false;
+                removeCallbacks(this);
+            }
+        }
 
-                    RectF boxRect;
-                    if (mBoxRectFs.size() > index) {
-                        boxRect = mBoxRectFs.get(index);
-                    } else {
-                        boxRect = new RectF();
-                        mBoxRectFs.add(boxRect);
-                    }
-                    left += boxBorderSize * 0.5f;
-                    top += boxBorderSize * 0.5f;
-                    right -= boxBorderSize * 0.5f;
-                    bottom -= boxBorderSize * 0.5f;
-                    boxRect.set(left, top, right, bottom);
-
-                    mBoxBackgroundPaint.setXfermode(mXfermode);
-                    canvas.drawOval(mTempRectF, mBoxBackgroundPaint);
-                    mBoxBackgroundPaint.setXfermode(null);
-
-                    canvas.restoreToCount(saveLayer);
-                } else {
-
-                    canvas.drawOval(mTempRectF, mBoxBoardPaint);
-
-                    RectF boxRect;
-                    if (mBoxRectFs.size() > index) {
-                        boxRect = mBoxRectFs.get(index);
-                    } else {
-                        boxRect = new RectF();
-                        mBoxRectFs.add(boxRect);
-                    }
-                    left += boxBorderSize * 0.5f;
-                    top += boxBorderSize * 0.5f;
-                    right -= boxBorderSize * 0.5f;
-                    bottom -= boxBorderSize * 0.5f;
-                    boxRect.set(left, top, right, bottom);
+        /**
+         * 立即处理还没有分发的变化，快速通道写入缓冲区之前调用
+         */
+        void flush() {
+            if (!mPending) return;
+            cancel();
+            PasswordTrace.begin(PasswordTrace.TEXT_CHANGED);
+            PasswordChars chars = mPasswordChars;
+            chars.set(getText());
+            mRenderer.invalidateText(mDirtyFrom, mDirtyTo, chars.length());
+            onPasswordChanged();
+            PasswordTrace.end();
+        }
 
-                    canvas.drawOval(boxRect, mBoxBackgroundPaint);
-                }
-            }
+        /**
+         * View移除时直接丢弃还没有分发的变化，不再回调，也不会因此启动校验或哈希任务
+         */
+        void detach() {
+            mBatchEditNesting = 0;
+            cancel();
         }
 
-        return mBoxRectFs;
+        @Override
+        public void run() {
+            mScheduled = false;
+            if (mBatchEditNesting > 0) return;
+            flush();
+        }
     }
 
-    private List<RectF> drawUnderlineBox(Canvas canvas) {
-        int passwordLength = mMeasureInfo.passwordLength;
-        float boxBorderSize = mMeasureInfo.boxBorderSize;
-
-        float measureBoxWidth = mMeasured.measureBoxWidth;
-        float measureBoxHeight = mMeasured.measureBoxHeight;
-        float measureBoxSpace = mMeasured.measureBoxSpace;
+    /**
+     * 主线程空闲时才把快速通道的输入同步回Editable，避免占用按键到绘制的路径
+     */
+    private final class EditableSync implements MessageQueue.IdleHandler {
 
+        private boolean mScheduled;
 
-        mBoxBoardPaint.setColor(mBoxBorderColor);
-        mBoxBoardPaint.setStyle(Paint.Style.FILL);
-        mBoxBoardPaint.setStrokeWidth(boxBorderSize);
+        void schedule() {
+            if (mScheduled) return;
+            mScheduled = true;
+            Looper.myQueue().addIdleHandler(this);
+        }
 
-        mBoxBackgroundPaint.setColor(mBoxBackgroundColor);
-        mBoxBackgroundPaint.setStyle(Paint.Style.FILL);
+        void cancel() {
+            if (!mScheduled) return;
+            mScheduled = false;
+            Looper.myQueue().removeIdleHandler(this);
+        }
 
-        for (int index = 0; index < passwordLength; index++) {
+        @Override
+        public boolean queueIdle() {
+            mScheduled = false;
+            syncEditable();
+            return false;
+        }
+    }
 
-            float startX = measureBoxWidth * index + boxBorderSize * 2 * index + measureBoxSpace * index;
-            float startY = measureBoxHeight + boxBorderSize * 1.5f;
-            float stopX = startX + measureBoxWidth + boxBorderSize * 2;
-            float stopY = startY;
+    /**
+     * 等待绘制了修改的那一帧提交给RenderThread，再以提交时间计算延迟
+     */
+    @TargetApi(android.os.Build.VERSION_CODES.Q)
+    private final class FrameCommitSampler implements Runnable {
 
-            if (boxBorderSize > 0) {
-                canvas.drawLine(startX, startY, stopX, stopY, mBoxBoardPaint);
-            }
+        private boolean mRegistered;
+        private long mEditTime;
 
-            RectF boxRect;
-            if (mBoxRectFs.size() > index) {
-                boxRect = mBoxRectFs.get(index);
-            } else {
-                boxRect = new RectF();
-                mBoxRectFs.add(boxRect);
+        void register(long editTime) {
+            if (mRegistered) {
+                mEditTime = Math.min(mEditTime, editTime);
+                return;
             }
+            mRegistered = true;
+            mEditTime = editTime;
+            getViewTreeObserver().registerFrameCommitCallback(this);
+        }
 
-            boxRect.set(startX, boxBorderSize, stopX, boxBorderSize + measureBoxHeight);
-
-            canvas.drawRect(boxRect, mBoxBackgroundPaint);
+        void unregister() {
+            if (!mRegistered) return;
+            mRegistered = false;
+            getViewTreeObserver().unregisterFrameCommitCallback(this);
         }
 
-        return mBoxRectFs;
+        @Override
+        public void run() {
+            if (!mRegistered) return;
+            mRegistered = false;
+            InputLatencySink sink = mInputLatencySink;
+            if (sink != null) {
+                sink.onInputLatency(System.nanoTime() - mEditTime);
+            }
+        }
     }
 
-    private void drawCursor(Canvas canvas, List<RectF> boxRectFs) {
-        if (!isFocused()) return;
-        if (mDrawCursor) {
-            int passwordLength = mMeasureInfo.passwordLength;
-
-            mCursorPaint.setColor(mCursorColor);
-            mCursorPaint.setStyle(Paint.Style.FILL);
-            mCursorPaint.setStrokeWidth(mCursorWidth);
+    /**
+     * 没有帧提交回调时，onDraw中算好的延迟post到这一次绘制结束之后再交给InputLatencySink，
+     * 回调中修改View（例如setText）不会发生在绘制过程中
+     */
+    private final class DrawnLatencyDispatcher implements Runnable {
 
-            Editable text = getText();
-            int textLength = text == null ? 0 : text.length();
-            if (textLength >= passwordLength) return;
-
-            RectF rectF = boxRectFs.get(textLength);
+        private boolean mPosted;
+        private long mLatency;
 
+        void post(long latency) {
+            mLatency = latency;
+            if (mPosted) return;
+            mPosted = true;
+            PasswordView.this.post(this);
+        }
 
-            float startX = rectF.centerX() - mCursorWidth * 0.5f;
-            float startY = rectF.top + mCursorMarginTop;
-            float stopX = startX;
-            float stopY = rectF.bottom - mCursorMarginBottom;
+        void cancel() {
+            if (!mPosted) return;
+            mPosted = false;
+            removeCallbacks(this);
+        }
 
-            canvas.drawLine(startX, startY, stopX, stopY, mCursorPaint);
+        @Override
+        public void run() {
+            if (!mPosted) return;
+            mPosted = false;
+            InputLatencySink sink = mInputLatencySink;
+            if (sink != null) {
+                sink.onInputLatency(mLatency);
+            }
         }
     }
 
-    private void drawText(Canvas canvas, List<RectF> boxRectFs) {
-        Editable text = getText();
-        int textLength = text == null ? 0 : text.length();
-        if (textLength == 0) return;
+    /**
+     * 验证结束后先解除输入锁定再回调，回调中可以直接清空密码重新输入
+     */
+    private final class VerifyCallback implements PasswordTaskRunner.Task<Boolean>, PasswordTaskRunner.Callback<Boolean> {
 
-        String str = text.toString();
-
-        textLength = Math.min(mMeasureInfo.passwordLength, textLength);
-        float textSize = getTextSize();
-        int textColor = getTextColors().getDefaultColor();
-
-        if (mPasswordType == PASSWORD_TYPE_STARS) textSize *= 1.5f;
-
-        mTextPaint.setTextSize(textSize);
-        mTextPaint.setColor(textColor);
-        mTextPaint.setStyle(Paint.Style.FILL);
-        mTextPaint.setTextAlign(Paint.Align.CENTER);
+        @Override
+        public Boolean run(char[] password, int length) throws Exception {
+            PasswordVerifier verifier = mPasswordVerifier;
+            return verifier != null && verifier.verify(password, length);
+        }
 
-        Paint.FontMetrics fontMetrics = mTextPaint.getFontMetrics();
+        @Override
+        public void onResult(Boolean result) {
+            mVerifying = false;
+            VerifyListener verifyListener = mVerifyListener;
+            if (verifyListener != null) {
+                verifyListener.onVerified(result);
+            }
+        }
 
-        for (int index = 0; index < textLength; index++) {
-            RectF rectF = boxRectFs.get(index);
-            switch (mPasswordType) {
-                case PASSWORD_TYPE_STARS: {
-                    float fontWidth = mTextPaint.measureText("*");
-                    float baseX = rectF.centerX();
-                    float baseY = (rectF.bottom + rectF.top - fontMetrics.bottom - fontMetrics.top) * 0.5f;
-                    baseY += fontWidth * 0.26f;
-                    canvas.drawText("*", baseX, baseY, mTextPaint);
-                    break;
-                }
-                case PASSWORD_TYPE_CIRCLE: {
-                    float cx = rectF.centerX();
-                    float cy = rectF.centerY();
-                    float radius = textSize * 0.5f;
-                    canvas.drawCircle(cx, cy, radius, mTextPaint);
-                    break;
-                }
-                case PASSWORD_TYPE_TEXT: {
-                    char charAt = str.charAt(index);
-                    String strAt = String.valueOf(charAt);
-                    float baseX = rectF.centerX();
-                    float baseY = (rectF.bottom + rectF.top - fontMetrics.bottom - fontMetrics.top) * 0.5f;
-                    canvas.drawText(strAt, baseX, baseY, mTextPaint);
-                    break;
-                }
+        @Override
+        public void onError(Throwable error) {
+            mVerifying = false;
+            VerifyListener verifyListener = mVerifyListener;
+            if (verifyListener != null) {
+                verifyListener.onVerifyError(error);
             }
         }
     }
 
-    @Override
-    public void beforeTextChanged(CharSequence s, int start, int count, int after) {
-    }
+    private final class HashCallback implements PasswordTaskRunner.Task<byte[]>, PasswordTaskRunner.Callback<byte[]> {
 
-    @Override
-    public void onTextChanged(CharSequence s, int start, int before, int count) {
-    }
+        @Override
+        public byte[] run(char[] password, int length) throws Exception {
+            PasswordKdf kdf = mPasswordKdf;
+            return kdf == null ? null : kdf.derive(password, length);
+        }
 
-    @Override
-    public void afterTextChanged(Editable s) {
-        PasswordListener passwordListener = mPasswordListener;
-        if (passwordListener != null) {
-            int length = s == null ? 0 : s.length();
-            String str = s == null ? null : s.toString();
-            passwordListener.onChanged(str);
-            if (length == 0) {
-                passwordListener.onCleared();
-            } else if (length == mMeasureInfo.passwordLength) {
-                passwordListener.onFinished(str);
+        @Override
+        public void onResult(byte[] result) {
+            HashListener hashListener = mHashListener;
+            if (hashListener != null && result != null) {
+                hashListener.onHashed(result);
+            } else if (result != null) {
+                Arrays.fill(result, (byte) 0);
             }
         }
-    }
-
-    private class DrawCursorToggleTask implements Runnable {
 
         @Override
-        public void run() {
-            if (!mCursorEnabled) return;
-            mDrawCursor = !mDrawCursor;
-            postInvalidate();
-            Handler handler = getHandler();
-            if (handler != null) {
-                handler.postDelayed(this, 500);
+        public void onError(Throwable error) {
+            HashListener hashListener = mHashListener;
+            if (hashListener != null) {
+                hashListener.onHashError(error);
             }
         }
     }
 
-    public interface PasswordListener {
+    /**
+     * 输入法修改文字之前先把快速通道的输入同步回Editable，避免被旧内容覆盖；验证期间忽略输入法的修改
+     */
+    private final class SyncingInputConnection extends InputConnectionWrapper {
 
-        void onCleared();
+        SyncingInputConnection(InputConnection target) {
+            super(target, false);
+        }
 
-        void onChanged(String password);
+        @Override
+        public boolean beginBatchEdit() {
+            syncEditable();
+            return super.beginBatchEdit();
+        }
 
-        void onFinished(String password);
+        @Override
+        public boolean commitText(CharSequence text, int newCursorPosition) {
+            if (mVerifying) return true;
+            syncEditable();
+            beginInputEvent(System.nanoTime());
+            try {
+                return super.commitText(text, newCursorPosition);
+            } finally {
+                endInputEvent();
+            }
+        }
 
+        @Override
+        public boolean setComposingText(CharSequence text, int newCursorPosition) {
+            if (mVerifying) return true;
+            syncEditable();
+            beginInputEvent(System.nanoTime());
+            try {
+                return super.setComposingText(text, newCursorPosition);
+            } finally {
+                endInputEvent();
+            }
+        }
+
+        @Override
+        public boolean deleteSurroundingText(int beforeLength, int afterLength) {
+            if (mVerifying) return true;
+            syncEditable();
+            beginInputEvent(System.nanoTime());
+            try {
+                return super.deleteSurroundingText(beforeLength, afterLength);
+            } finally {
+                endInputEvent();
+            }
+        }
     }
 
-    public interface IMeasurer {
+    /**
+     * 在验证线程中调用，password在返回后会被清零，不要保存引用
+     */
+    public interface PasswordVerifier {
 
-        void measure(PasswordView passwordView,
-                     int widthMeasureSpec, int heightMeasureSpec,
-                     MeasureInfo measureInfo,
-                     MeasureResult result);
+        boolean verify(char[] password, int length) throws Exception;
 
     }
 
-    public static class MeasureInfo implements Cloneable {
-
-        public int passwordLength = 6;
+    public interface VerifyListener {
 
-        public int boxType;
-        public int boxChainStyle;
+        void onVerifyStarted();
 
-        public float boxWidth, boxHeight;
-        public float boxWidthPercent;
-        public float boxHeightRatio = 1.0f;
+        void onVerified(boolean matched);
 
-        public float boxBorderSize;
-        public float boxSpace;
-        public float boxSpacePercent;
+        void onVerifyError(Throwable error);
 
-        public boolean mergeRectBoxEnabled;
-        public float mergedRectBoxDividerWidth;
+        void onVerifyCanceled();
 
-        @Override
-        public MeasureInfo clone() {
-            try {
-                return (MeasureInfo) super.clone();
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-            MeasureInfo measureInfo = new MeasureInfo();
-            measureInfo.passwordLength = this.passwordLength;
-            measureInfo.boxType = this.boxType;
-            measureInfo.boxChainStyle = this.boxChainStyle;
-            measureInfo.boxWidth = this.boxWidth;
-            measureInfo.boxHeight = this.boxHeight;
-            measureInfo.boxWidthPercent = this.boxWidthPercent;
-            measureInfo.boxHeightRatio = this.boxHeightRatio;
-            measureInfo.boxBorderSize = this.boxBorderSize;
-            measureInfo.boxSpace = this.boxSpace;
-            measureInfo.boxSpacePercent = this.boxSpacePercent;
-            measureInfo.mergeRectBoxEnabled = this.mergeRectBoxEnabled;
-            measureInfo.mergedRectBoxDividerWidth = this.mergedRectBoxDividerWidth;
-            return measureInfo;
-        }
     }
 
-    public static class MeasureResult {
+    public interface HashListener {
 
-        public float measureWidth, measureHeight;
-        public float measureContentWidth, measureContentHeight;
+        /**
+         * @param hash 派生出的密钥，使用后请自行清零
+         */
+        void onHashed(byte[] hash);
 
-        public float measureBoxWidth, measureBoxHeight;
-        public float measureBoxSpace;
-        public float measureBoxChainMargin;
+        void onHashError(Throwable error);
 
-        public boolean mergedRectBox;
+    }
 
-        public void clear() {
-            measureWidth = measureBoxHeight = 0.0f;
-            measureContentWidth = measureContentHeight = 0.0f;
-            measureBoxWidth = measureBoxHeight = 0.0f;
-            measureBoxSpace = measureBoxChainMargin = 0.0f;
-            mergedRectBox = false;
-        }
+    /**
+     * 接收从输入到画面的延迟样本，在主线程回调，参考{@link LatencyHistogram}
+     */
+    public interface InputLatencySink {
+
+        void onInputLatency(long latencyNanos);
 
-        public void copy(MeasureResult result) {
-            this.measureWidth = result.measureWidth;
-            this.measureHeight = result.measureHeight;
-            this.measureContentWidth = result.measureContentWidth;
-            this.measureContentHeight = result.measureContentHeight;
-            this.measureBoxWidth = result.measureBoxWidth;
-            this.measureBoxHeight = result.measureBoxHeight;
-            this.measureBoxSpace = result.measureBoxSpace;
-            this.measureBoxChainMargin = result.measureBoxChainMargin;
-            this.mergedRectBox = result.mergedRectBox;
-        }
     }
 
-    public static class FillMeasurer implements IMeasurer {
+    /**
+     * 输入法与setText的文字变化在下一帧开始时合并回调，同一帧内的多次变化只回调一次；
+     * 实体按键快速通道、{@link PasswordKeypadView}与{@link #setPassword(CharSequence)}同步回调
+     */
+    public interface PasswordListener {
 
-        @Override
-        public void measure(PasswordView passwordView,
-                            int widthMeasureSpec, int heightMeasureSpec,
-                            MeasureInfo measureInfo,
-                            MeasureResult result) {
-            measureWidth(passwordView, widthMeasureSpec, measureInfo, result);
-            measureHeight(passwordView, heightMeasureSpec, measureInfo, result);
-        }
-
-        private void measureWidth(PasswordView view,
-                                  int widthMeasureSpec,
-                                  MeasureInfo info,
-                                  MeasureResult result) {
-            int widthMode = MeasureSpec.getMode(widthMeasureSpec);
-            int horizontalPadding = view.getPaddingLeft() + view.getPaddingRight();
-
-            if (widthMode == MeasureSpec.UNSPECIFIED) {
-                float width = ChainHelper.computeChainWidth(info, horizontalPadding);
-                result.measureWidth = width;
-
-                float boxWidth = info.boxWidth;
-                if (info.boxWidthPercent > 0) {
-                    boxWidth = width * info.boxWidthPercent;
-                }
-                result.measureBoxWidth = boxWidth;
+        void onCleared();
 
-                ChainHelper.measureBoxChainExactly(width, boxWidth, horizontalPadding, info, result);
-            } else {
-                float width = getDefaultSize(view.getSuggestedMinimumWidth(), widthMeasureSpec);
-                result.measureWidth = width;
-                float boxWidth = info.boxWidth;
-                if (info.boxWidthPercent > 0) {
-                    boxWidth = width * info.boxWidthPercent;
-                }
-                result.measureBoxWidth = boxWidth;
+        void onChanged(String password);
 
-                ChainHelper.measureBoxChainExactly(width, boxWidth, horizontalPadding, info, result);
-            }
-        }
+        void onFinished(String password);
 
-        private void measureHeight(PasswordView view, int heightMeasureSpec, MeasureInfo info, MeasureResult result) {
-            int heightMode = MeasureSpec.getMode(heightMeasureSpec);
-            int verticalPadding = view.getPaddingTop() + view.getPaddingBottom();
-            switch (heightMode) {
-                case MeasureSpec.UNSPECIFIED: {
-                    float boxHeight = info.boxHeight;
-                    if (info.boxHeightRatio > 0) {
-                        boxHeight = result.measureBoxWidth * info.boxHeightRatio;
-                    }
-                    if (boxHeight == 0) {
-                        float height = getDefaultSize(view.getSuggestedMinimumHeight(), heightMeasureSpec);
-                        boxHeight = height
-                                - verticalPadding
-                                - 2 * info.boxBorderSize;
-                        boxHeight = Math.max(0, boxHeight);
-                    }
-                    result.measureBoxHeight = boxHeight;
-                    result.measureHeight = boxHeight + verticalPadding + 2 * info.boxBorderSize;
-                    break;
-                }
-                case MeasureSpec.EXACTLY: {
-                    float height = getDefaultSize(view.getSuggestedMinimumHeight(), heightMeasureSpec);
-                    result.measureHeight = height;
-                    float maxBoxHeight = height
-                            - verticalPadding
-                            - 2 * info.boxBorderSize;
-                    maxBoxHeight = Math.max(0, maxBoxHeight);
-
-                    float boxHeight = info.boxHeight;
-                    if (info.boxHeightRatio > 0) {
-                        boxHeight = result.measureBoxWidth * info.boxHeightRatio;
-                    }
-                    if (boxHeight == 0) {
-                        boxHeight = maxBoxHeight;
-                    } else {
-                        boxHeight = Math.min(maxBoxHeight, boxHeight);
-                    }
-                    result.measureBoxHeight = boxHeight;
-                    break;
-                }
-                case MeasureSpec.AT_MOST: {
-                    float maxHeight = getDefaultSize(view.getSuggestedMinimumHeight(), heightMeasureSpec);
-                    float maxBoxHeight = maxHeight
-                            - verticalPadding
-                            - 2 * info.boxBorderSize;
-                    maxBoxHeight = Math.max(0, maxBoxHeight);
-
-                    float boxHeight = info.boxHeight;
-                    if (info.boxHeightRatio > 0) {
-                        boxHeight = result.measureBoxWidth * info.boxHeightRatio;
-                    }
-                    if (boxHeight == 0) {
-                        boxHeight = maxBoxHeight;
-                    } else {
-                        boxHeight = Math.min(maxBoxHeight, boxHeight);
-                    }
-                    result.measureBoxHeight = boxHeight;
-                    result.measureHeight = boxHeight + verticalPadding + 2 * info.boxBorderSize;
-                    break;
-                }
-            }
-        }
     }
 
-    public static class BoundMeasurer implements IMeasurer {
-
-        @Override
-        public void measure(PasswordView passwordView, int widthMeasureSpec, int heightMeasureSpec, MeasureInfo measureInfo, MeasureResult result) {
-            measureWidth(passwordView, widthMeasureSpec, measureInfo, result);
-            measureHeight(passwordView, heightMeasureSpec, measureInfo, result);
-        }
-
-        private void measureWidth(PasswordView view, int widthMeasureSpec, MeasureInfo info, MeasureResult result) {
-            int widthMode = MeasureSpec.getMode(widthMeasureSpec);
-            int horizontalPadding = view.getPaddingLeft() + view.getPaddingRight();
+    /**
+     * 输入法与setText的文字变化在下一帧开始时合并回调，同一帧内的多次变化只回调一次；
+     * 实体按键快速通道、{@link PasswordKeypadView}与{@link #setPassword(CharSequence)}同步回调
+     */
+    public interface PasswordCharsListener {
 
-            switch (widthMode) {
-                case MeasureSpec.UNSPECIFIED: {
-                    float width = ChainHelper.computeChainWidth(info, horizontalPadding);
-                    result.measureWidth = width;
+        void onCleared();
 
-                    float boxWidth = info.boxWidth;
-                    if (info.boxWidthPercent > 0) {
-                        boxWidth = width * info.boxWidthPercent;
-                    }
-                    result.measureBoxWidth = boxWidth;
+        void onChanged(PasswordChars password);
 
-                    ChainHelper.measureBoxChainExactly(width, boxWidth, horizontalPadding, info, result);
-                    break;
-                }
-                case MeasureSpec.EXACTLY: {
-                    float width = getDefaultSize(view.getSuggestedMinimumWidth(), widthMeasureSpec);
-                    result.measureWidth = width;
-                    float expectedBoxWidth = info.boxWidth;
-                    if (info.boxWidthPercent > 0) {
-                        expectedBoxWidth = width * info.boxWidthPercent;
-                    }
+        void onFinished(PasswordChars password);
 
-                    ChainHelper.measureBoxChainExactly(width, expectedBoxWidth, horizontalPadding, info, result);
+    }
 
-                    boolean mergeRectBox = result.mergedRectBox;
+    /**
+     * 与{@link InputFilter.LengthFilter}相同，但最大长度可以修改，切换密码长度时不需要重新创建过滤器数组
+     */
+    private static final class PasswordLengthFilter implements InputFilter {
 
-                    float maxBoxWidth = (width
-                            - info.boxBorderSize * 2 * info.passwordLength
-                            - (mergeRectBox ? (info.mergedRectBoxDividerWidth - 2 * info.boxBorderSize) * (info.passwordLength - 1) : 0)
-                            - result.measureBoxSpace * (info.passwordLength - 1)
-                            - horizontalPadding
-                            - result.measureBoxChainMargin * 2)
-                            / info.passwordLength;
+        private int mMax;
 
-                    result.measureBoxWidth = Math.min(expectedBoxWidth, maxBoxWidth);
+        PasswordLengthFilter(int max) {
+            mMax = max;
+        }
 
-                    break;
-                }
-                case MeasureSpec.AT_MOST: {
-                    float maxWidth = getDefaultSize(view.getSuggestedMinimumWidth(), widthMeasureSpec);
-                    if (info.boxChainStyle == BOX_CHAIN_STYLE_FREE) {
-                        float width = ChainHelper.computeFreeChainWidth(info, horizontalPadding);
-                        width = Math.min(maxWidth, width);
-
-                        result.measureWidth = width;
-
-                        float boxSpace = info.boxSpace;
-                        if (info.boxSpacePercent > 0) {
-                            boxSpace = width * info.boxSpacePercent;
-                        }
-
-                        boolean mergeRectBox = info.mergeRectBoxEnabled
-                                && info.boxType == BOX_TYPE_RECT
-                                && result.measureBoxSpace == 0;
-
-                        float maxBoxWidth = (maxWidth
-                                - info.boxBorderSize * 2 * info.passwordLength
-                                - (mergeRectBox ? (info.mergedRectBoxDividerWidth - 2 * info.boxBorderSize) * (info.passwordLength - 1) : 0)
-                                - result.measureBoxSpace * (info.passwordLength - 1)
-                                - horizontalPadding
-                                - result.measureBoxChainMargin * 2)
-                                / info.passwordLength;
-                        maxBoxWidth = Math.max(0, maxBoxWidth);
-
-                        float boxWidth = info.boxWidth;
-                        if (info.boxWidthPercent > 0) {
-                            boxWidth = width * info.boxWidthPercent;
-                        }
-                        boxWidth = Math.min(maxBoxWidth, boxWidth);
-
-                        result.measureBoxSpace = boxSpace;
-                        result.measureBoxChainMargin = 0;
-                        result.mergedRectBox = mergeRectBox;
-                        result.measureBoxWidth = boxWidth;
-                    } else {
-                        result.measureWidth = maxWidth;
-
-                        float expectedBoxWidth = info.boxWidth;
-                        if (info.boxWidthPercent > 0) {
-                            expectedBoxWidth = result.measureWidth * info.boxWidthPercent;
-                        }
-
-                        ChainHelper.measureBoxChainExactly(result.measureWidth, expectedBoxWidth, horizontalPadding, info, result);
-                        boolean mergeRectBox = result.mergedRectBox;
-
-                        float maxBoxWidth = (result.measureWidth
-                                - info.boxBorderSize * 2 * info.passwordLength
-                                - (mergeRectBox ? (info.mergedRectBoxDividerWidth - 2 * info.boxBorderSize) * (info.passwordLength - 1) : 0)
-                                - result.measureBoxSpace * (info.passwordLength - 1)
-                                - horizontalPadding
-                                - result.measureBoxChainMargin * 2)
-                                / info.passwordLength;
-
-                        result.measureBoxWidth = Math.min(expectedBoxWidth, maxBoxWidth);
-                    }
-                    break;
-                }
-            }
+        void setMax(int max) {
+            mMax = max;
         }
 
-        private void measureHeight(PasswordView view, int heightMeasureSpec, MeasureInfo info, MeasureResult result) {
-            int heightMode = MeasureSpec.getMode(heightMeasureSpec);
-            int verticalPadding = view.getPaddingTop() + view.getPaddingBottom();
-            switch (heightMode) {
-                case MeasureSpec.UNSPECIFIED: {
-                    float boxHeight = info.boxHeight;
-                    if (info.boxHeightRatio > 0) {
-                        boxHeight = result.measureBoxWidth * info.boxHeightRatio;
-                    }
-                    result.measureBoxHeight = boxHeight;
-                    result.measureHeight = boxHeight + verticalPadding + 2 * info.boxBorderSize;
-                    break;
-                }
-                case MeasureSpec.EXACTLY: {
-                    float height = getDefaultSize(view.getSuggestedMinimumHeight(), heightMeasureSpec);
-                    result.measureHeight = height;
-                    float maxBoxHeight = height
-                            - verticalPadding
-                            - 2 * info.boxBorderSize;
-                    maxBoxHeight = Math.max(0, maxBoxHeight);
-
-                    float boxHeight = info.boxHeight;
-                    if (info.boxHeightRatio > 0) {
-                        boxHeight = result.measureBoxWidth * info.boxHeightRatio;
-                    }
-                    if (boxHeight == 0) {
-                        boxHeight = maxBoxHeight;
-                    } else {
-                        boxHeight = Math.min(maxBoxHeight, boxHeight);
-                    }
-                    result.measureBoxHeight = boxHeight;
-                    break;
-                }
-                case MeasureSpec.AT_MOST: {
-                    float maxHeight = getDefaultSize(view.getSuggestedMinimumHeight(), heightMeasureSpec);
-                    float maxBoxHeight = maxHeight
-                            - verticalPadding
-                            - 2 * info.boxBorderSize;
-                    maxBoxHeight = Math.max(0, maxBoxHeight);
-
-                    float boxHeight = info.boxHeight;
-                    if (info.boxHeightRatio > 0) {
-                        boxHeight = result.measureBoxWidth * info.boxHeightRatio;
-                    }
-                    if (boxHeight == 0) {
-                        boxHeight = maxBoxHeight;
-                    } else {
-                        boxHeight = Math.min(maxBoxHeight, boxHeight);
+        @Override
+        public CharSequence filter(CharSequence source, int start, int end, Spanned dest, int dstart, int dend) {
+            int keep = mMax - (dest.length() - (dend - dstart));
+            if (keep <= 0) {
+                return "";
+            } else if (keep >= end - start) {
+                return null;
+            } else {
+                keep += start;
+                if (Character.isHighSurrogate(source.charAt(keep - 1))) {
+                    --keep;
+                    if (keep == start) {
+                        return "";
                     }
-                    result.measureBoxHeight = boxHeight;
-                    result.measureHeight = boxHeight + verticalPadding + 2 * info.boxBorderSize;
-                    break;
                 }
+                return source.subSequence(start, keep);
             }
         }
     }
 
-    public static class FreeMeasurer implements IMeasurer {
-
-        @Override
-        public void measure(PasswordView passwordView, int widthMeasureSpec, int heightMeasureSpec, MeasureInfo measureInfo, MeasureResult result) {
-            measureWidth(passwordView, widthMeasureSpec, measureInfo, result);
-            measureHeight(passwordView, heightMeasureSpec, measureInfo, result);
-        }
-
-        private void measureWidth(PasswordView view, int widthMeasureSpec, MeasureInfo info, MeasureResult result) {
-            int widthMode = MeasureSpec.getMode(widthMeasureSpec);
-            int horizontalPadding = view.getPaddingLeft() + view.getPaddingRight();
+    /**
+     * 定长的密码字符缓冲区，容量为密码长度，对外只读；清空或View移除时会被{@link #wipe()}清零，
+     * 避免在堆中留下不可变的密码副本。注意{@link #toString()}会创建String副本
+     */
+    public static final class PasswordChars implements GetChars {
 
-            switch (widthMode) {
-                case MeasureSpec.UNSPECIFIED: {
-                    float width = ChainHelper.computeChainWidth(info, horizontalPadding);
-                    result.measureWidth = width;
+        private char[] mChars;
+        private int mCapacity;
+        private int mLength;
 
-                    float boxWidth = info.boxWidth;
-                    if (info.boxWidthPercent > 0) {
-                        boxWidth = width * info.boxWidthPercent;
-                    }
-                    result.measureBoxWidth = boxWidth;
+        PasswordChars(int capacity) {
+            mChars = new char[capacity];
+            mCapacity = capacity;
+        }
 
-                    ChainHelper.measureBoxChainExactly(result.measureWidth, boxWidth, horizontalPadding, info, result);
-                    break;
-                }
-                case MeasureSpec.EXACTLY: {
-                    float width = getDefaultSize(view.getSuggestedMinimumWidth(), widthMeasureSpec);
-                    result.measureWidth = width;
-                    float boxWidth = info.boxWidth;
-                    if (info.boxWidthPercent > 0) {
-                        boxWidth = width * info.boxWidthPercent;
-                    }
-                    result.measureBoxWidth = boxWidth;
+        /**
+         * 修改容量，超出的内容被截断并清零；数组只在超过历史最大容量时才重新分配，旧数组会先清零
+         */
+        void setCapacity(int capacity) {
+            if (capacity > mChars.length) {
+                char[] chars = new char[capacity];
+                System.arraycopy(mChars, 0, chars, 0, mLength);
+                Arrays.fill(mChars, '\0');
+                mChars = chars;
+            } else if (mLength > capacity) {
+                Arrays.fill(mChars, capacity, mLength, '\0');
+                mLength = capacity;
+            }
+            mCapacity = capacity;
+        }
 
-                    ChainHelper.measureBoxChainExactly(result.measureWidth, boxWidth, horizontalPadding, info, result);
-                    break;
-                }
-                case MeasureSpec.AT_MOST: {
-                    if (info.boxChainStyle == BOX_CHAIN_STYLE_FREE) {
-                        float width = ChainHelper.computeFreeChainWidth(info, horizontalPadding);
-
-                        result.measureWidth = width;
-
-                        float boxSpace = info.boxSpace;
-                        if (info.boxSpacePercent > 0) {
-                            boxSpace = width * info.boxSpacePercent;
-                        }
-
-                        boolean mergeRectBox = info.mergeRectBoxEnabled
-                                && info.boxType == BOX_TYPE_RECT
-                                && boxSpace == 0;
-
-                        float boxWidth = info.boxWidth;
-                        if (info.boxWidthPercent > 0) {
-                            boxWidth = width * info.boxWidthPercent;
-                        }
-
-                        result.measureBoxSpace = boxSpace;
-                        result.measureBoxChainMargin = 0;
-                        result.mergedRectBox = mergeRectBox;
-                        result.measureBoxWidth = boxWidth;
-                    } else {
-                        result.measureWidth = getDefaultSize(view.getSuggestedMinimumWidth(), widthMeasureSpec);
-
-                        float boxWidth = info.boxWidth;
-                        if (info.boxWidthPercent > 0) {
-                            boxWidth = result.measureWidth * info.boxWidthPercent;
-                        }
-                        result.measureBoxWidth = boxWidth;
-
-                        ChainHelper.measureBoxChainExactly(result.measureWidth, boxWidth, horizontalPadding, info, result);
-                    }
-                    break;
+        void set(CharSequence text) {
+            int length = text == null ? 0 : Math.min(text.length(), mCapacity);
+            if (text instanceof GetChars) {
+                ((GetChars) text).getChars(0, length, mChars, 0);
+            } else {
+                for (int index = 0; index < length; index++) {
+                    mChars[index] = text.charAt(index);
                 }
             }
+            if (length < mLength) {
+                Arrays.fill(mChars, length, mLength, '\0');
+            }
+            mLength = length;
         }
 
-        private void measureHeight(PasswordView view, int heightMeasureSpec, MeasureInfo info, MeasureResult result) {
-            int heightMode = MeasureSpec.getMode(heightMeasureSpec);
-            int verticalPadding = view.getPaddingTop() + view.getPaddingBottom();
-            switch (heightMode) {
-                case MeasureSpec.UNSPECIFIED: {
-                    float boxHeight = info.boxHeight;
-                    if (info.boxHeightRatio > 0) {
-                        boxHeight = result.measureBoxWidth * info.boxHeightRatio;
-                    }
-                    result.measureBoxHeight = boxHeight;
-                    result.measureHeight = boxHeight + verticalPadding + 2 * info.boxBorderSize;
-                    break;
-                }
-                case MeasureSpec.EXACTLY: {
-                    result.measureHeight = getDefaultSize(view.getSuggestedMinimumHeight(), heightMeasureSpec);
+        /**
+         * 追加到缓冲区末尾，超出容量的部分丢弃，返回实际追加的字符数
+         */
+        int append(CharSequence text) {
+            int count = text == null ? 0 : Math.min(text.length(), mCapacity - mLength);
+            for (int index = 0; index < count; index++) {
+                mChars[mLength + index] = text.charAt(index);
+            }
+            mLength += count;
+            return count;
+        }
 
-                    float boxHeight = info.boxHeight;
-                    if (info.boxHeightRatio > 0) {
-                        boxHeight = result.measureBoxWidth * info.boxHeightRatio;
-                    }
+        boolean append(char c) {
+            if (mLength >= mCapacity) return false;
+            mChars[mLength++] = c;
+            return true;
+        }
 
-                    boxHeight = Math.max(0, boxHeight);
-                    result.measureBoxHeight = boxHeight;
-                    break;
-                }
-                case MeasureSpec.AT_MOST: {
-                    float maxHeight = getDefaultSize(view.getSuggestedMinimumHeight(), heightMeasureSpec);
+        /**
+         * 删除末尾的count个字符并清零，返回实际删除的字符数
+         */
+        int delete(int count) {
+            count = Math.max(0, Math.min(count, mLength));
+            Arrays.fill(mChars, mLength - count, mLength, '\0');
+            mLength -= count;
+            return count;
+        }
 
-                    float boxHeight = info.boxHeight;
-                    if (info.boxHeightRatio > 0) {
-                        boxHeight = result.measureBoxWidth * info.boxHeightRatio;
-                    }
+        @Override
+        public int length() {
+            return mLength;
+        }
 
-                    result.measureBoxHeight = boxHeight;
-                    float height = boxHeight + verticalPadding + 2 * info.boxBorderSize;
-                    height = Math.min(maxHeight, height);
-                    result.measureHeight = height;
-                    break;
-                }
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= mLength) {
+                throw new IndexOutOfBoundsException("index: " + index + ", length: " + mLength);
             }
+            return mChars[index];
         }
-    }
-
-    private static class ChainHelper {
 
-        static float computeChainWidth(MeasureInfo info, int horizontalPadding) {
-            switch (info.boxChainStyle) {
-                default:
-                case BOX_CHAIN_STYLE_FREE: {
-                    return computeFreeChainWidth(info, horizontalPadding);
-                }
-                case BOX_CHAIN_STYLE_SPREAD: {
-                    return computeSpreadChainWidth(info, horizontalPadding);
-                }
-                case BOX_CHAIN_STYLE_SPREAD_INSIDE: {
-                    return computeSpreadInsideChainWidth(info, horizontalPadding);
-                }
-                case BOX_CHAIN_STYLE_PACKET: {
-                    return computePacketChainWidth(info, horizontalPadding);
-                }
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > mLength || start > end) {
+                throw new IndexOutOfBoundsException("start: " + start + ", end: " + end + ", length: " + mLength);
             }
+            PasswordChars chars = new PasswordChars(end - start);
+            System.arraycopy(mChars, start, chars.mChars, 0, end - start);
+            chars.mLength = end - start;
+            return chars;
         }
 
-        static float computeFreeChainWidth(MeasureInfo info, int horizontalPadding) {
-            float boxWidth = info.boxWidth;
-            float boxWidthPercent = info.boxWidthPercent;
-
-            float boxSpace = info.boxSpace;
-            float boxSpacePercent = info.boxSpacePercent;
-            boolean mergeRectBox = info.mergeRectBoxEnabled
-                    && info.boxType == BOX_TYPE_RECT
-                    && boxSpace == 0
-                    && boxSpacePercent == 0;
-
-            return (horizontalPadding
-                    + (boxWidthPercent == 0 ? boxWidth : 0) * info.passwordLength
-                    + info.boxBorderSize * info.passwordLength * 2
-                    + (mergeRectBox ? (info.mergedRectBoxDividerWidth - 2 * info.boxBorderSize) * (info.passwordLength - 1) : 0)
-                    + (boxSpacePercent == 0 ? boxSpace : 0) * (info.passwordLength - 1))
-                    / (1 - boxWidthPercent * info.passwordLength - boxSpacePercent * (info.passwordLength - 1));
-        }
-
-        static float computeSpreadChainWidth(MeasureInfo info, int horizontalPadding) {
-            float boxWidth = info.boxWidth;
-            float boxWidthPercent = info.boxWidthPercent;
-
-            float boxSpace = info.boxSpace;
-            float boxSpacePercent = info.boxSpacePercent;
-            boolean mergeRectBox = info.mergeRectBoxEnabled
-                    && info.boxType == BOX_TYPE_RECT
-                    && boxSpace == 0
-                    && boxSpacePercent == 0;
-
-            return (horizontalPadding
-                    + (boxWidthPercent == 0 ? boxWidth : 0) * info.passwordLength
-                    + info.boxBorderSize * info.passwordLength * 2
-                    + (mergeRectBox ? (info.mergedRectBoxDividerWidth - 2 * info.boxBorderSize) * (info.passwordLength - 1) : 0)
-                    + (boxSpacePercent == 0 ? boxSpace : 0) * (info.passwordLength + 1))
-                    / (1 - boxWidthPercent * info.passwordLength - boxSpacePercent * (info.passwordLength + 1));
-        }
-
-        static float computeSpreadInsideChainWidth(MeasureInfo info, int horizontalPadding) {
-            float boxWidth = info.boxWidth;
-            float boxWidthPercent = info.boxWidthPercent;
-
-            float boxSpace = info.boxSpace;
-            float boxSpacePercent = info.boxSpacePercent;
-            boolean mergeRectBox = info.mergeRectBoxEnabled
-                    && info.boxType == BOX_TYPE_RECT
-                    && boxSpace == 0
-                    && boxSpacePercent == 0;
-
-
-            return (horizontalPadding
-                    + (boxWidthPercent == 0 ? boxWidth : 0) * info.passwordLength
-                    + info.boxBorderSize * info.passwordLength * 2
-                    + (mergeRectBox ? (info.mergedRectBoxDividerWidth - 2 * info.boxBorderSize) * (info.passwordLength - 1) : 0)
-                    + (boxSpacePercent == 0 ? boxSpace : 0) * (info.passwordLength - 1))
-                    / (1 - boxWidthPercent * info.passwordLength - boxSpacePercent * (info.passwordLength - 1));
-        }
-
-        static float computePacketChainWidth(MeasureInfo info, int horizontalPadding) {
-            float boxWidth = info.boxWidth;
-            float boxWidthPercent = info.boxWidthPercent;
-
-            float boxSpace = info.boxSpace;
-            float boxSpacePercent = info.boxSpacePercent;
-            boolean mergeRectBox = info.mergeRectBoxEnabled && info.boxType == BOX_TYPE_RECT;
-
-            return (horizontalPadding
-                    + (boxWidthPercent == 0 ? boxWidth : 0) * info.passwordLength + info.boxBorderSize * info.passwordLength * 2
-                    + (mergeRectBox ? (info.mergedRectBoxDividerWidth - 2 * info.boxBorderSize) * (info.passwordLength - 1) : 0)
-                    + (boxSpacePercent == 0 ? boxSpace : 0) * 2)
-                    / (1 - boxWidthPercent * info.passwordLength - boxSpacePercent * 2);
-        }
-
-        /*static void measureBoxChainExactly(float width, MeasureInfo info, MeasureResult result) {
-            switch (info.boxChainStyle) {
-                case BOX_CHAIN_STYLE_FREE:
-                case BOX_CHAIN_STYLE_SPREAD_INSIDE: {
-                    float boxSpace = info.boxSpace;
-                    if (info.boxSpacePercent > 0) {
-                        boxSpace = width * info.boxSpacePercent;
-                    }
-                    result.measureBoxSpace = boxSpace;
-                    result.measureBoxChainMargin = 0;
-                    break;
-                }
-                case BOX_CHAIN_STYLE_SPREAD: {
-                    float boxSpace = info.boxSpace;
-                    if (info.boxSpacePercent > 0) {
-                        boxSpace = width * info.boxSpacePercent;
-                    }
-                    result.measureBoxSpace = boxSpace;
-                    result.measureBoxChainMargin = boxSpace;
-                    break;
-                }
-                case BOX_CHAIN_STYLE_PACKET: {
-                    float boxSpace = info.boxSpace;
-                    if (info.boxSpacePercent > 0) {
-                        boxSpace = width * info.boxSpacePercent;
-                    }
-                    result.measureBoxSpace = 0;
-                    result.measureBoxChainMargin = boxSpace;
-                    break;
-                }
-            }
-            result.mergedRectBox = info.mergeRectBoxEnabled
-                    && info.boxType == BOX_TYPE_RECT
-                    && result.measureBoxSpace == 0;
-        }*/
-
-        static void measureBoxChainExactly(float width, float expectedBoxWidth, int horizontalPadding, MeasureInfo info, MeasureResult result) {
-            switch (info.boxChainStyle) {
-                case BOX_CHAIN_STYLE_FREE: {
-                    float boxSpace = info.boxSpace;
-                    if (info.boxSpacePercent > 0) {
-                        boxSpace = width * info.boxSpacePercent;
-                    }
-                    result.measureBoxSpace = boxSpace;
-                    result.measureBoxChainMargin = 0;
-                    result.mergedRectBox = info.mergeRectBoxEnabled
-                            && info.boxType == BOX_TYPE_RECT
-                            && result.measureBoxSpace == 0;
-                    break;
-                }
-                case BOX_CHAIN_STYLE_SPREAD: {
-                    float surplusWidth = width
-                            - horizontalPadding
-                            - expectedBoxWidth * info.passwordLength
-                            - info.boxBorderSize * 2 * info.passwordLength;
-                    if (surplusWidth <= 0) {
-                        result.measureBoxSpace = result.measureBoxChainMargin = 0;
-                        if (info.passwordLength > 1) {
-                            boolean mergeRectBox = info.mergeRectBoxEnabled && info.boxType == BOX_TYPE_RECT;
-                            if (mergeRectBox) {
-                                surplusWidth += (2 * info.boxBorderSize - info.mergedRectBoxDividerWidth) * (info.passwordLength - 1);
-                                if (surplusWidth > 0) {
-                                    result.measureBoxChainMargin = surplusWidth / 2;
-                                }
-                            }
-                        }
-                    } else {
-                        if (info.passwordLength <= 1) {
-                            result.measureBoxSpace = 0;
-                            result.measureBoxChainMargin = surplusWidth / 2;
-                        } else {
-                            result.measureBoxSpace = result.measureBoxChainMargin = surplusWidth / (info.passwordLength + 1);
-                        }
-                    }
-                    result.mergedRectBox = info.mergeRectBoxEnabled
-                            && info.boxType == BOX_TYPE_RECT
-                            && result.measureBoxSpace == 0;
-                    break;
-                }
-                case BOX_CHAIN_STYLE_SPREAD_INSIDE: {
-                    if (info.passwordLength <= 1) {
-                        result.measureBoxSpace = result.measureBoxChainMargin = 0;
-                        result.mergedRectBox = info.mergeRectBoxEnabled && info.boxType == BOX_TYPE_RECT;
-                    } else {
-                        float surplusWidth = width
-                                - horizontalPadding
-                                - expectedBoxWidth * info.passwordLength
-                                - info.boxBorderSize * 2 * info.passwordLength;
-                        if (surplusWidth <= 0) {
-                            result.measureBoxSpace = result.measureBoxChainMargin = 0;
-                            boolean mergeRectBox = info.mergeRectBoxEnabled && info.boxType == BOX_TYPE_RECT;
-                            if (mergeRectBox) {
-                                surplusWidth += (2 * info.boxBorderSize - info.mergedRectBoxDividerWidth) * (info.passwordLength - 1);
-                                if (surplusWidth > 0) {
-                                    mergeRectBox = false;
-                                }
-                            }
-                            result.mergedRectBox = mergeRectBox;
-                        } else {
-                            result.measureBoxSpace = surplusWidth / (info.passwordLength - 1);
-                            result.measureBoxChainMargin = 0;
-                            result.mergedRectBox = info.mergeRectBoxEnabled
-                                    && info.boxType == BOX_TYPE_RECT
-                                    && result.measureBoxSpace == 0;
-                        }
-                    }
-                    break;
-                }
-                case BOX_CHAIN_STYLE_PACKET: {
-                    boolean mergeRectBox = info.mergeRectBoxEnabled && info.boxType == BOX_TYPE_RECT;
-                    result.mergedRectBox = mergeRectBox;
-                    float surplusWidth = width
-                            - horizontalPadding
-                            - expectedBoxWidth * info.passwordLength
-                            - info.boxBorderSize * 2 * info.passwordLength
-                            - (mergeRectBox ? (info.mergedRectBoxDividerWidth - 2 * info.boxBorderSize) * (info.passwordLength - 1) : 0);
-                    if (surplusWidth <= 0) {
-                        result.measureBoxSpace = result.measureBoxChainMargin = 0;
-                    } else {
-                        result.measureBoxSpace = 0;
-                        result.measureBoxChainMargin = surplusWidth / 2;
-                    }
-                }
+        @Override
+        public void getChars(int srcBegin, int srcEnd, char[] dst, int dstBegin) {
+            if (srcBegin < 0 || srcEnd > mLength || srcBegin > srcEnd) {
+                throw new IndexOutOfBoundsException("srcBegin: " + srcBegin + ", srcEnd: " + srcEnd + ", length: " + mLength);
             }
+            System.arraycopy(mChars, srcBegin, dst, dstBegin, srcEnd - srcBegin);
+        }
+
+        public void wipe() {
+            Arrays.fill(mChars, '\0');
+            mLength = 0;
+        }
+
+        @Override
+        public String toString() {
+            return new String(mChars, 0, mLength);
         }
     }
-}
\ No newline at end of file
+}
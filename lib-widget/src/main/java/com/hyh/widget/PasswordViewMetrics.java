@@ -0,0 +1,173 @@
+package com.hyh.widget;
+
+import java.util.Arrays;
+
+/**
+ * PasswordView的运行计数，可以通过{@link PasswordView#setMetrics(PasswordViewMetrics)}让多个View共用同一个对象，
+ * 也可以用{@link #add(PasswordViewMetrics)}汇总。记录在主线程进行，读取可以在任意线程
+ */
+public final class PasswordViewMetrics {
+
+    //绘制耗时直方图每个桶的上限（不包含），单位微秒，最后一个桶没有上限
+    private static final long[] DRAW_TIME_BUCKET_BOUNDS_MICROS = {250, 500, 1000, 2000, 4000, 8000, 16000};
+
+    private long mMeasureCount;
+    private long mDrawCount;
+    private long mDrawTimeNanos;
+    private final long[] mDrawTimeHistogram = new long[DRAW_TIME_BUCKET_BOUNDS_MICROS.length + 1];
+    private long mCursorInvalidateCount;
+    private long mTextInvalidateCount;
+    private long mDispatchCount;
+    private long mDispatchTimeNanos;
+    private long mMaxDispatchTimeNanos;
+
+    public static int getDrawTimeBucketCount() {
+        return DRAW_TIME_BUCKET_BOUNDS_MICROS.length + 1;
+    }
+
+    /**
+     * 第bucket个桶的上限（不包含），单位微秒，最后一个桶返回{@link Long#MAX_VALUE}
+     */
+    public static long getDrawTimeBucketUpperBound(int bucket) {
+        return bucket < DRAW_TIME_BUCKET_BOUNDS_MICROS.length ? DRAW_TIME_BUCKET_BOUNDS_MICROS[bucket] : Long.MAX_VALUE;
+    }
+
+    synchronized void recordMeasure() {
+        mMeasureCount++;
+    }
+
+    synchronized void recordDraw(long nanos) {
+        mDrawCount++;
+        mDrawTimeNanos += nanos;
+        long micros = nanos / 1000;
+        int bucket = 0;
+        while (bucket < DRAW_TIME_BUCKET_BOUNDS_MICROS.length && micros >= DRAW_TIME_BUCKET_BOUNDS_MICROS[bucket]) {
+            bucket++;
+        }
+        mDrawTimeHistogram[bucket]++;
+    }
+
+    synchronized void recordCursorInvalidate() {
+        mCursorInvalidateCount++;
+    }
+
+    synchronized void recordTextInvalidate() {
+        mTextInvalidateCount++;
+    }
+
+    synchronized void recordDispatch(long nanos) {
+        mDispatchCount++;
+        mDispatchTimeNanos += nanos;
+        mMaxDispatchTimeNanos = Math.max(mMaxDispatchTimeNanos, nanos);
+    }
+
+    public synchronized long getMeasureCount() {
+        return mMeasureCount;
+    }
+
+    public synchronized long getDrawCount() {
+        return mDrawCount;
+    }
+
+    /**
+     * onDraw中录制绘制命令的总耗时，不包含RenderThread的执行时间
+     */
+    public synchronized long getDrawTimeNanos() {
+        return mDrawTimeNanos;
+    }
+
+    public synchronized long getDrawTimeBucket(int bucket) {
+        return mDrawTimeHistogram[bucket];
+    }
+
+    /**
+     * 光标闪烁引起的刷新次数
+     */
+    public synchronized long getCursorInvalidateCount() {
+        return mCursorInvalidateCount;
+    }
+
+    /**
+     * 密码变化引起的刷新次数
+     */
+    public synchronized long getTextInvalidateCount() {
+        return mTextInvalidateCount;
+    }
+
+    /**
+     * 回调PasswordListener与PasswordCharsListener的次数
+     */
+    public synchronized long getDispatchCount() {
+        return mDispatchCount;
+    }
+
+    public synchronized long getDispatchTimeNanos() {
+        return mDispatchTimeNanos;
+    }
+
+    public synchronized long getMaxDispatchTimeNanos() {
+        return mMaxDispatchTimeNanos;
+    }
+
+    /**
+     * 把other的计数累加到当前对象，用于汇总多个View
+     */
+    public void add(PasswordViewMetrics other) {
+        if (other == this) return;
+        PasswordViewMetrics snapshot = other.copy();
+        synchronized (this) {
+            mMeasureCount += snapshot.mMeasureCount;
+            mDrawCount += snapshot.mDrawCount;
+            mDrawTimeNanos += snapshot.mDrawTimeNanos;
+            for (int bucket = 0; bucket < mDrawTimeHistogram.length; bucket++) {
+                mDrawTimeHistogram[bucket] += snapshot.mDrawTimeHistogram[bucket];
+            }
+            mCursorInvalidateCount += snapshot.mCursorInvalidateCount;
+            mTextInvalidateCount += snapshot.mTextInvalidateCount;
+            mDispatchCount += snapshot.mDispatchCount;
+            mDispatchTimeNanos += snapshot.mDispatchTimeNanos;
+            mMaxDispatchTimeNanos = Math.max(mMaxDispatchTimeNanos, snapshot.mMaxDispatchTimeNanos);
+        }
+    }
+
+    public synchronized PasswordViewMetrics copy() {
+        PasswordViewMetrics metrics = new PasswordViewMetrics();
+        metrics.mMeasureCount = mMeasureCount;
+        metrics.mDrawCount = mDrawCount;
+        metrics.mDrawTimeNanos = mDrawTimeNanos;
+        System.arraycopy(mDrawTimeHistogram, 0, metrics.mDrawTimeHistogram, 0, mDrawTimeHistogram.length);
+        metrics.mCursorInvalidateCount = mCursorInvalidateCount;
+        metrics.mTextInvalidateCount = mTextInvalidateCount;
+        metrics.mDispatchCount = mDispatchCount;
+        metrics.mDispatchTimeNanos = mDispatchTimeNanos;
+        metrics.mMaxDispatchTimeNanos = mMaxDispatchTimeNanos;
+        return metrics;
+    }
+
+    public synchronized void reset() {
+        mMeasureCount = 0;
+        mDrawCount = 0;
+        mDrawTimeNanos = 0;
+        Arrays.fill(mDrawTimeHistogram, 0);
+        mCursorInvalidateCount = 0;
+        mTextInvalidateCount = 0;
+        mDispatchCount = 0;
+        mDispatchTimeNanos = 0;
+        mMaxDispatchTimeNanos = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "PasswordViewMetrics{" +
+                "measureCount=" + mMeasureCount +
+                ", drawCount=" + mDrawCount +
+                ", drawTimeNanos=" + mDrawTimeNanos +
+                ", drawTimeHistogram=" + Arrays.toString(mDrawTimeHistogram) +
+                ", cursorInvalidateCount=" + mCursorInvalidateCount +
+                ", textInvalidateCount=" + mTextInvalidateCount +
+                ", dispatchCount=" + mDispatchCount +
+                ", dispatchTimeNanos=" + mDispatchTimeNanos +
+                ", maxDispatchTimeNanos=" + mMaxDispatchTimeNanos +
+                '}';
+    }
+}
@@ -0,0 +1,158 @@
+package com.hyh.widget;
+
+import android.annotation.TargetApi;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Rect;
+import android.graphics.RecordingCanvas;
+import android.graphics.RenderNode;
+import android.view.View;
+
+import com.hyh.widget.measure.BoxGeometry;
+
+/**
+ * 只在样式或尺寸变化时才会改变的内容（框的边框与背景、键盘按键的底色），缓存成一个静态图层，
+ * 每帧只回放这个图层。硬件加速且API 29以上使用RenderNode，否则使用按整像素对齐的位图
+ */
+final class StaticLayer {
+
+    private final View mHost;
+    private final Content mContent;
+
+    private int mVersion;
+    private RenderNodeLayer mRenderNodeLayer;
+    private BitmapLayer mBitmapLayer;
+
+    StaticLayer(View host, Content content) {
+        mHost = host;
+        mContent = content;
+    }
+
+    /**
+     * 内容变化后调用，下一次绘制时重新录制
+     */
+    void invalidate() {
+        mVersion++;
+    }
+
+    void draw(Canvas canvas, BoxGeometry geometry) {
+        if (android.os.Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.Q && canvas.isHardwareAccelerated()) {
+            if (mRenderNodeLayer == null) {
+                mRenderNodeLayer = new RenderNodeLayer();
+            }
+            mRenderNodeLayer.draw(canvas, geometry);
+        } else {
+            if (mBitmapLayer == null) {
+                mBitmapLayer = new BitmapLayer();
+            }
+            mBitmapLayer.draw(canvas, geometry);
+        }
+    }
+
+    void release() {
+        if (mRenderNodeLayer != null) {
+            mRenderNodeLayer.release();
+        }
+        if (mBitmapLayer != null) {
+            mBitmapLayer.release();
+        }
+    }
+
+    interface Content {
+
+        /**
+         * 画布的原点已经平移到geometry的原点
+         */
+        void drawContent(Canvas canvas);
+
+    }
+
+    @TargetApi(android.os.Build.VERSION_CODES.Q)
+    private class RenderNodeLayer {
+
+        private final RenderNode mRenderNode = new RenderNode("PasswordViewBoxes");
+        private int mRecordedVersion = -1;
+
+        void draw(Canvas canvas, BoxGeometry geometry) {
+            if (mRecordedVersion != mVersion || !mRenderNode.hasDisplayList()) {
+                int width = mHost.getWidth();
+                int height = mHost.getHeight();
+                mRenderNode.setPosition(0, 0, width, height);
+                RecordingCanvas recordingCanvas = mRenderNode.beginRecording(width, height);
+                try {
+                    recordingCanvas.translate(geometry.originX, geometry.originY);
+                    mContent.drawContent(recordingCanvas);
+                } finally {
+                    mRenderNode.endRecording();
+                }
+                mRecordedVersion = mVersion;
+            }
+            canvas.drawRenderNode(mRenderNode);
+        }
+
+        void release() {
+            mRenderNode.discardDisplayList();
+            mRecordedVersion = -1;
+        }
+    }
+
+    private class BitmapLayer {
+
+        private final Canvas mCanvas = new Canvas();
+        private final Rect mSrcRect = new Rect();
+        private final Rect mDstRect = new Rect();
+        private Bitmap mBitmap;
+        private int mRecordedVersion = -1;
+
+        void draw(Canvas canvas, BoxGeometry geometry) {
+            if (mRecordedVersion != mVersion) {
+                record(geometry);
+                mRecordedVersion = mVersion;
+            }
+            if (mBitmap != null) {
+                canvas.drawBitmap(mBitmap, mSrcRect, mDstRect, null);
+            }
+        }
+
+        private void record(BoxGeometry geometry) {
+            //位图按整像素对齐，小数部分的偏移放到位图内部，避免回放时被重新采样
+            int left = (int) Math.floor(geometry.originX) - 1;
+            int top = (int) Math.floor(geometry.originY) - 1;
+            int width = (int) Math.ceil(geometry.originX + geometry.extentRight) + 1 - left;
+            int height = (int) Math.ceil(geometry.originY + geometry.extentBottom) + 1 - top;
+            if (width <= 0 || height <= 0) {
+                release();
+                return;
+            }
+            //位图只在超过历史最大尺寸时才重新创建，框的数量来回切换时复用，只绘制用到的区域
+            if (mBitmap == null || mBitmap.getWidth() < width || mBitmap.getHeight() < height) {
+                int bitmapWidth = mBitmap == null ? width : Math.max(width, mBitmap.getWidth());
+                int bitmapHeight = mBitmap == null ? height : Math.max(height, mBitmap.getHeight());
+                if (mBitmap != null) {
+                    mBitmap.recycle();
+                }
+                mBitmap = Bitmap.createBitmap(bitmapWidth, bitmapHeight, Bitmap.Config.ARGB_8888);
+                mBitmap.setDensity(Bitmap.DENSITY_NONE);
+            } else {
+                mBitmap.eraseColor(Color.TRANSPARENT);
+            }
+            mCanvas.setBitmap(mBitmap);
+            int saveCount = mCanvas.save();
+            mCanvas.translate(geometry.originX - left, geometry.originY - top);
+            mContent.drawContent(mCanvas);
+            mCanvas.restoreToCount(saveCount);
+            mCanvas.setBitmap(null);
+            mSrcRect.set(0, 0, width, height);
+            mDstRect.set(left, top, left + width, top + height);
+        }
+
+        void release() {
+            if (mBitmap != null) {
+                mBitmap.recycle();
+                mBitmap = null;
+            }
+            mRecordedVersion = -1;
+        }
+    }
+}